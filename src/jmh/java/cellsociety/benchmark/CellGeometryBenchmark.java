@@ -0,0 +1,122 @@
+package cellsociety.benchmark;
+
+import cellsociety.configuration.SimulationFactory;
+import cellsociety.model.core.cell.FireCell;
+import cellsociety.model.simulation.FireSimulation;
+import cellsociety.model.simulation.SimulationRecord;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the geometry the agent and sand rules use on every step: visiting the
+ * neighbors of every cell and measuring the distance to each, and comparing cells by looking their
+ * neighbors up in a hash set. Every cell's centroid, hash code and direction to each neighbor are
+ * computed once, so run with {@code -prof gc} to check that neither allocates, e.g.
+ * {@code java -jar target/benchmarks.jar CellGeometryBenchmark -prof gc}.
+ */
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CellGeometryBenchmark {
+
+  private static final long SEED = 308;
+
+  @Param({"200"})
+  private int size;
+  @Param({"square", "hexagon"})
+  private String shape;
+  @Param({"Moore", "ExtendedMoore"})
+  private String neighborhood;
+
+  private List<FireCell> myCells;
+  private Set<FireCell> myTrees;
+
+  /**
+   * Builds a grid of cells with their neighbors, and collects the cells holding a tree
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Integer> states = new ArrayList<>();
+    for (int i = 0; i < size * size; i++) {
+      states.add(random.nextInt(3));
+    }
+    Map<String, Double> params = new HashMap<>();
+    params.put("neighborsToIgnite", 1.0);
+    params.put("probTreeIgnites", 0.5);
+    params.put("probTreeCreated", 0.5);
+    SimulationRecord record = new SimulationRecord(params, "Normal", shape, SEED);
+    FireSimulation simulation = new FireSimulation(size, size,
+        SimulationFactory.createNeighborhood(neighborhood), states, record);
+    myCells = new ArrayList<>();
+    myTrees = new HashSet<>();
+    Iterator<FireCell> iterator = simulation.getIterator();
+    while (iterator.hasNext()) {
+      FireCell cell = iterator.next();
+      myCells.add(cell);
+      if (cell.getCurrentState() == FireSimulation.TREE) {
+        myTrees.add(cell);
+      }
+    }
+  }
+
+  /**
+   * Measures visiting the neighbors of every cell and the distance from each cell to each of them
+   *
+   * @return the sum of the distances, so that the lookups are not optimized away
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public double neighborLookup() {
+    double total = 0;
+    for (FireCell cell : myCells) {
+      for (FireCell neighbor : cell.getNeighbors()) {
+        total += cell.distance(neighbor);
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Measures comparing the neighbors of every cell to a set of cells, which hashes each neighbor
+   * and checks it for equality against the cells sharing its hash
+   *
+   * @return the number of neighbors in the set, so that the comparisons are not optimized away
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int neighborComparison() {
+    int count = 0;
+    for (FireCell cell : myCells) {
+      for (FireCell neighbor : cell.getNeighbors()) {
+        if (myTrees.contains(neighbor)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
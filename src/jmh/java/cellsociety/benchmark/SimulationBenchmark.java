@@ -0,0 +1,136 @@
+package cellsociety.benchmark;
+
+import cellsociety.configuration.SimulationFactory;
+import cellsociety.configuration.XmlParser;
+import cellsociety.model.neighborhood.Neighborhood;
+import cellsociety.model.simulation.FallingSandSimulation;
+import cellsociety.model.simulation.FireSimulation;
+import cellsociety.model.simulation.GameOfLifeSimulation;
+import cellsociety.model.simulation.PercolationSimulation;
+import cellsociety.model.simulation.SchellingSimulation;
+import cellsociety.model.simulation.Simulation;
+import cellsociety.model.simulation.SimulationRecord;
+import cellsociety.model.simulation.SugarSimulation;
+import cellsociety.model.simulation.WatorSimulation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the cost of building each simulation (creating its cells and grid and
+ * computing every neighborhood) and for the number of steps per second it sustains once built.
+ * Every combination of simulation type, grid size, cell shape and neighborhood is measured; use
+ * -p to narrow them down, e.g. {@code java -jar target/benchmarks.jar -p type=Fire -p size=200}.
+ * Initial states and simulation seeds are fixed, so every run measures the same work.
+ */
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SimulationBenchmark {
+
+  /**
+   * Number of distinct states a cell may start in, for each type of simulation
+   */
+  private static final Map<String, Integer> NUM_STATES = Map.of(
+      XmlParser.GAMEOFLIFE_NAME, 2, XmlParser.PERCOLATION_NAME, 3, XmlParser.FIRE_NAME, 3,
+      XmlParser.SCHELLING_NAME, 3, XmlParser.WATOR_NAME, 3, XmlParser.SUGAR_NAME, 5,
+      XmlParser.FALLING_NAME, 4);
+  /**
+   * Proportion of the cells of a Sugar simulation that hold an agent
+   */
+  private static final double AGENT_PROPORTION = 0.1;
+  private static final long SEED = 308;
+
+  @Param({"GameOfLife", "Fire", "Percolation", "Schelling", "Wator", "Sugar", "Falling"})
+  private String type;
+  @Param({"50", "200"})
+  private int size;
+  @Param({"square", "hexagon"})
+  private String shape;
+  @Param({"Moore", "VonNeumann", "ExtendedMoore"})
+  private String neighborhood;
+
+  private List<Integer> myStates;
+  private SimulationRecord myRecord;
+  private Simulation<?> myBuiltSimulation;
+
+  /**
+   * Creates the initial states and parameters of the simulation, and builds the simulation that
+   * step will advance
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(SEED);
+    myStates = new ArrayList<>();
+    for (int i = 0; i < size * size; i++) {
+      myStates.add(random.nextInt(NUM_STATES.get(type)));
+    }
+    ResourceBundle defaults = ResourceBundle.getBundle(
+        XmlParser.DEFAULT_RESOURCE_PACKAGE + "DefaultParameters");
+    Map<String, Double> params = new HashMap<>();
+    for (String key : defaults.keySet()) {
+      params.put(key, Double.parseDouble(defaults.getString(key)));
+    }
+    params.put("numAgents", Math.floor(AGENT_PROPORTION * size * size));
+    myRecord = new SimulationRecord(params, "Normal", shape, SEED);
+    myBuiltSimulation = build();
+  }
+
+  /**
+   * Measures the cost of creating the simulation's cells and grid and computing the neighbors of
+   * every cell
+   *
+   * @return the new simulation, so that its construction is not optimized away
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Simulation<?> build() {
+    Neighborhood<?> hood = SimulationFactory.createNeighborhood(neighborhood);
+    return switch (type) {
+      case XmlParser.GAMEOFLIFE_NAME ->
+          new GameOfLifeSimulation(size, size, hood, myStates, myRecord);
+      case XmlParser.PERCOLATION_NAME ->
+          new PercolationSimulation(size, size, hood, myStates, myRecord);
+      case XmlParser.FIRE_NAME -> new FireSimulation(size, size, hood, myStates, myRecord);
+      case XmlParser.SCHELLING_NAME ->
+          new SchellingSimulation(size, size, hood, myStates, myRecord);
+      case XmlParser.WATOR_NAME -> new WatorSimulation(size, size, hood, myStates, myRecord);
+      case XmlParser.SUGAR_NAME -> new SugarSimulation(size, size, hood, myStates, myRecord);
+      case XmlParser.FALLING_NAME ->
+          new FallingSandSimulation(size, size, hood, myStates, myRecord);
+      default -> throw new IllegalStateException("Unexpected value: " + type);
+    };
+  }
+
+  /**
+   * Measures the number of timesteps per second of a simulation that has already been built. The
+   * same simulation keeps running across iterations, so after warmup this measures its steady
+   * state.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void step() {
+    myBuiltSimulation.transitionFunction();
+    myBuiltSimulation.processUpdate();
+  }
+}
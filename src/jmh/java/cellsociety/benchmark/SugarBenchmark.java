@@ -0,0 +1,97 @@
+package cellsociety.benchmark;
+
+import cellsociety.configuration.SimulationFactory;
+import cellsociety.configuration.XmlParser;
+import cellsociety.model.simulation.SimulationRecord;
+import cellsociety.model.simulation.SugarSimulation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for the number of steps per second of a Sugarscape simulation as the number of
+ * agents and the distance they can see grow. Every agent is given the largest vision, so that the
+ * cost of finding where each agent moves is measured at its worst. Use -p to narrow the runs down,
+ * e.g. {@code java -jar target/benchmarks.jar SugarBenchmark -p maxVision=16}.
+ */
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SugarBenchmark {
+
+  private static final int SIZE = 100;
+  private static final int NUM_SUGAR_LEVELS = 5;
+  /**
+   * Sugar grows back and is eaten slowly enough that most agents survive, so that the number of
+   * agents stays close to numAgents
+   */
+  private static final double GROW_BACK_RATE = 1;
+  private static final double METABOLISM = 1;
+  private static final long SEED = 308;
+
+  @Param({"100", "1000", "5000"})
+  private int numAgents;
+  @Param({"1", "4", "16"})
+  private int maxVision;
+  @Param({"square", "hexagon"})
+  private String shape;
+
+  private SugarSimulation mySimulation;
+
+  /**
+   * Creates a landscape of random sugar capacities and places the agents on it
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Integer> states = new ArrayList<>();
+    for (int i = 0; i < SIZE * SIZE; i++) {
+      states.add(random.nextInt(NUM_SUGAR_LEVELS));
+    }
+    ResourceBundle defaults = ResourceBundle.getBundle(
+        XmlParser.DEFAULT_RESOURCE_PACKAGE + "DefaultParameters");
+    Map<String, Double> params = new HashMap<>();
+    for (String key : defaults.keySet()) {
+      params.put(key, Double.parseDouble(defaults.getString(key)));
+    }
+    params.put("numAgents", (double) numAgents);
+    params.put("minVision", (double) maxVision);
+    params.put("maxVision", (double) maxVision);
+    params.put("growBackRate", GROW_BACK_RATE);
+    params.put("minMetabolism", METABOLISM);
+    params.put("maxMetabolism", METABOLISM);
+    SimulationRecord record = new SimulationRecord(params, "Normal", shape, SEED);
+    mySimulation = new SugarSimulation(SIZE, SIZE, SimulationFactory.createNeighborhood("Moore"),
+        states, record);
+  }
+
+  /**
+   * Measures the number of timesteps per second of the simulation. The same simulation keeps
+   * running across iterations, so after warmup this measures its steady state.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void step() {
+    mySimulation.transitionFunction();
+    mySimulation.processUpdate();
+  }
+}
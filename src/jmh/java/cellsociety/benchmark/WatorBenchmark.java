@@ -0,0 +1,92 @@
+package cellsociety.benchmark;
+
+import cellsociety.configuration.SimulationFactory;
+import cellsociety.model.simulation.SimulationRecord;
+import cellsociety.model.simulation.WatorSimulation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for the number of steps per second of a Wa-Tor simulation on large oceans, stepped
+ * cell by cell, on a WatorOcean, or on a WatorOcean in parallel. Large oceans need a large heap,
+ * which the benchmark JVM is given. Use -p to narrow the runs down, e.g.
+ * {@code java -jar target/benchmarks.jar WatorBenchmark -p size=2000 -p stepping=parallel}.
+ */
+
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WatorBenchmark {
+
+  /**
+   * Out of every ten cells, the number starting with a fish and with a shark
+   */
+  private static final int FISH_PER_TEN = 3;
+  private static final int SHARKS_PER_TEN = 1;
+  private static final long SEED = 308;
+
+  @Param({"500", "2000"})
+  private int size;
+  @Param({"cells", "agentList", "parallel"})
+  private String stepping;
+
+  private WatorSimulation mySimulation;
+
+  /**
+   * Fills an ocean with randomly placed fish and sharks
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<Integer> states = new ArrayList<>();
+    for (int i = 0; i < size * size; i++) {
+      int draw = random.nextInt(10);
+      if (draw < FISH_PER_TEN) {
+        states.add(WatorSimulation.FISH);
+      } else if (draw < FISH_PER_TEN + SHARKS_PER_TEN) {
+        states.add(WatorSimulation.SHARK);
+      } else {
+        states.add(WatorSimulation.EMPTY);
+      }
+    }
+    Map<String, Double> params = new HashMap<>();
+    params.put("fishAgeOfReproduction", 3.0);
+    params.put("sharkAgeOfReproduction", 10.0);
+    params.put("initialEnergy", 3.0);
+    params.put("energyBoost", 2.0);
+    SimulationRecord record = new SimulationRecord(params, "Warped", "square", SEED);
+    mySimulation = new WatorSimulation(size, size,
+        SimulationFactory.createNeighborhood("VonNeumann"), states, record);
+    mySimulation.setAgentListStepping(!stepping.equals("cells"));
+    mySimulation.setParallelStepping(stepping.equals("parallel"));
+  }
+
+  /**
+   * Measures the number of timesteps per second of the simulation. The same simulation keeps
+   * running across iterations, so after warmup this measures its steady state.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void step() {
+    mySimulation.transitionFunction();
+    mySimulation.processUpdate();
+  }
+}
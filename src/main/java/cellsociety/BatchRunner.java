@@ -0,0 +1,320 @@
+package cellsociety;
+
+import cellsociety.configuration.SimulationFactory;
+import cellsociety.configuration.XmlParser;
+import cellsociety.exception.InputMissingParametersException;
+import cellsociety.exception.InvalidCellStateException;
+import cellsociety.exception.InvalidFileFormatException;
+import cellsociety.exception.InvalidGridBoundsException;
+import cellsociety.exception.InvalidValueException;
+import cellsociety.model.simulation.PercolationDetector;
+import cellsociety.model.simulation.PercolationSimulation;
+import cellsociety.model.simulation.Simulation;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs a simulation from an XML configuration file without any graphical interface, stepping it as
+ * fast as possible and reporting how many cells were in each state over the run. Usage:
+ * <pre>
+ * java cellsociety.BatchRunner CONFIG_FILE STEPS [--every K] [--seed SEED] [--parallel] [--packed]
+ *     [--incremental] [--jump GENERATIONS] [--snapshots FOLDER] [--percolation]
+ * </pre>
+ * The state counts are sampled every K steps (every step by default). With --snapshots, the counts
+ * of every sample are also written to counts.csv in the folder, and the state of every cell at each
+ * sample is written to its own file, one row of the grid per line. --seed replaces the seed of the
+ * configuration file, and --parallel, --packed and --incremental switch the simulation to parallel
+ * stepping, to a packed grid and to incremental stepping when it supports them. --jump advances the
+ * simulation by the given number of generations before the run starts, as fast as the simulation
+ * allows. --percolation, for percolation simulations where one percolated neighbor is enough for
+ * an open cell to percolate on a grid with normal edges, also reports whether the grid percolates
+ * and how many cells percolation will reach once the run ends, found with a PercolationDetector
+ * rather than by stepping.
+ */
+
+public class BatchRunner {
+
+  public static final String USAGE = "usage: BatchRunner CONFIG_FILE STEPS [--every K] "
+      + "[--seed SEED] [--parallel] [--packed] [--incremental] [--jump GENERATIONS] "
+      + "[--snapshots FOLDER] [--percolation]";
+  public static final String COUNTS_FILE_NAME = "counts.csv";
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final Simulation<?> mySimulation;
+  private final int myNumRows;
+  private final int myNumCols;
+  private final Map<Integer, StateStatistics> myStatistics;
+  private File mySnapshotFolder;
+  private PrintWriter myCountsWriter;
+  private int mySamples;
+
+  /**
+   * Constructs a BatchRunner for a simulation that has already been created
+   *
+   * @param simulation the simulation to run
+   * @param numRows    the number of rows in the simulation's grid
+   * @param numCols    the number of columns in the simulation's grid
+   */
+  public BatchRunner(Simulation<?> simulation, int numRows, int numCols) {
+    mySimulation = simulation;
+    myNumRows = numRows;
+    myNumCols = numCols;
+    myStatistics = new TreeMap<>();
+  }
+
+  /**
+   * Runs a simulation given on the command line, printing a summary to standard output
+   *
+   * @param args the command line arguments, as described in the class documentation
+   */
+  public static void main(String[] args) {
+    try {
+      run(args, System.out);
+    } catch (InvalidFileFormatException | InvalidValueException | InvalidCellStateException |
+             InputMissingParametersException | InvalidGridBoundsException |
+             IllegalArgumentException | FileNotFoundException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Parses the command line arguments, then creates and runs the simulation they describe
+   *
+   * @param args the command line arguments, as described in the class documentation
+   * @param out  where the summary is printed
+   * @throws FileNotFoundException if the snapshot folder cannot be written to
+   */
+  private static void run(String[] args, PrintStream out) throws FileNotFoundException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Missing configuration file or number of steps");
+    }
+    XmlParser xmlParser = new XmlParser();
+    xmlParser.readXml(args[0]);
+    int steps = parsePositive(args[1]);
+    int every = 1;
+    boolean parallel = false;
+    boolean packed = false;
+    boolean incremental = false;
+    boolean percolation = false;
+    long jump = 0;
+    File snapshotFolder = null;
+    for (int i = 2; i < args.length; i++) {
+      switch (args[i]) {
+        case "--every" -> every = parsePositive(getValue(args, ++i));
+        case "--seed" -> xmlParser.setSeed(Long.parseLong(getValue(args, ++i)));
+        case "--parallel" -> parallel = true;
+        case "--packed" -> packed = true;
+        case "--incremental" -> incremental = true;
+        case "--jump" -> jump = Long.parseLong(getValue(args, ++i));
+        case "--snapshots" -> snapshotFolder = new File(getValue(args, ++i));
+        case "--percolation" -> percolation = true;
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    Simulation<?> simulation = SimulationFactory.createSimulation(xmlParser);
+    if (percolation && !(simulation instanceof PercolationSimulation)) {
+      throw new IllegalArgumentException("--percolation requires a percolation simulation");
+    }
+    if (percolation && ((PercolationSimulation) simulation).getPercolatedNeighbors() != 1) {
+      throw new IllegalArgumentException(
+          "--percolation requires percolatedNeighbors to be 1, as the detector assumes");
+    }
+    if (percolation && !xmlParser.getGridEdgeType().equals("Normal")) {
+      throw new IllegalArgumentException("--percolation requires a grid with normal edges");
+    }
+    if (packed) {
+      simulation.usePackedGrid();
+    }
+    simulation.setParallelStepping(parallel);
+    simulation.setIncrementalStepping(incremental);
+    long jumpStart = System.nanoTime();
+    simulation.jumpGenerations(jump);
+    long jumpElapsed = System.nanoTime() - jumpStart;
+    BatchRunner runner = new BatchRunner(simulation, xmlParser.getHeight(), xmlParser.getWidth());
+    if (snapshotFolder != null) {
+      runner.writeSnapshotsTo(snapshotFolder);
+    }
+    long elapsed = runner.run(steps, every);
+    out.printf("%s (%s, %d x %d, seed %d)%n", xmlParser.getTitle(), xmlParser.getType(),
+        xmlParser.getHeight(), xmlParser.getWidth(), xmlParser.getSeed());
+    if (jump > 0) {
+      out.printf("jumped %d generations in %.3f s%n", jump, jumpElapsed / NANOS_PER_SECOND);
+    }
+    runner.printSummary(out, steps, elapsed);
+    if (percolation) {
+      printPercolation(out, (PercolationSimulation) simulation);
+    }
+  }
+
+  /**
+   * Prints whether the grid of a percolation simulation percolates and how many of its open cells
+   * percolation will reach
+   */
+  private static void printPercolation(PrintStream out, PercolationSimulation simulation) {
+    long start = System.nanoTime();
+    PercolationDetector detector = simulation.createPercolationDetector();
+    int numReachable = detector.getNumReachable();
+    long elapsed = System.nanoTime() - start;
+    out.printf("percolates: %s, %d of %d open cells reachable (analyzed in %.3f s)%n",
+        detector.percolates() ? "yes" : "no", numReachable, detector.getNumOpen(),
+        elapsed / NANOS_PER_SECOND);
+  }
+
+  /**
+   * Makes the runner write the state of every cell and the state counts of each sample to a folder,
+   * creating the folder if needed
+   *
+   * @param folder the folder to write to
+   * @throws FileNotFoundException if the counts file cannot be created
+   */
+  public void writeSnapshotsTo(File folder) throws FileNotFoundException {
+    folder.mkdirs();
+    mySnapshotFolder = folder;
+    myCountsWriter = new PrintWriter(new File(folder, COUNTS_FILE_NAME));
+    myCountsWriter.println("step,state,count");
+  }
+
+  /**
+   * Steps the simulation, sampling the state counts before the first step and after every few
+   * steps. Time spent sampling is not included in the result.
+   *
+   * @param steps the number of steps to run
+   * @param every the number of steps between samples
+   * @return the number of nanoseconds spent stepping the simulation
+   * @throws FileNotFoundException if a snapshot cannot be written
+   */
+  public long run(int steps, int every) throws FileNotFoundException {
+    sample(0);
+    long elapsed = 0;
+    for (int step = 1; step <= steps; step++) {
+      long start = System.nanoTime();
+      mySimulation.transitionFunction();
+      mySimulation.processUpdate();
+      elapsed += System.nanoTime() - start;
+      if (step % every == 0 || step == steps) {
+        sample(step);
+      }
+    }
+    if (myCountsWriter != null) {
+      myCountsWriter.close();
+    }
+    return elapsed;
+  }
+
+  /**
+   * Prints the time taken and the statistics of every state seen during the run
+   *
+   * @param out     where the summary is printed
+   * @param steps   the number of steps that were run
+   * @param elapsed the number of nanoseconds spent stepping
+   */
+  public void printSummary(PrintStream out, int steps, long elapsed) {
+    double seconds = elapsed / NANOS_PER_SECOND;
+    out.printf("%d steps in %.3f s (%.1f steps/s)%n", steps, seconds, steps / seconds);
+    out.printf("%-6s %10s %10s %10s %10s %12s%n", "state", "initial", "final", "min", "max",
+        "mean");
+    for (Map.Entry<Integer, StateStatistics> entry : myStatistics.entrySet()) {
+      StateStatistics statistics = entry.getValue();
+      out.printf("%-6d %10d %10d %10d %10d %12.2f%n", entry.getKey(), statistics.myInitial,
+          statistics.myLast, statistics.myMin, statistics.myMax,
+          (double) statistics.myTotal / mySamples);
+    }
+  }
+
+  /**
+   * Counts the cells in each state, updating the statistics and writing the snapshot if needed
+   *
+   * @param step the number of steps run so far
+   * @throws FileNotFoundException if the snapshot cannot be written
+   */
+  private void sample(int step) throws FileNotFoundException {
+    int[] states = mySimulation.getCurrentStates();
+    Map<Integer, Integer> counts = new TreeMap<>();
+    for (int state : states) {
+      counts.merge(state, 1, Integer::sum);
+    }
+    for (int state : counts.keySet()) {
+      myStatistics.computeIfAbsent(state, newState -> new StateStatistics(mySamples == 0));
+    }
+    for (Map.Entry<Integer, StateStatistics> entry : myStatistics.entrySet()) {
+      entry.getValue().record(counts.getOrDefault(entry.getKey(), 0), mySamples == 0);
+    }
+    mySamples++;
+    if (mySnapshotFolder != null) {
+      writeSnapshot(step, states);
+      for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+        myCountsWriter.println(step + "," + entry.getKey() + "," + entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Writes the state of every cell to a file named after the step, one row of the grid per line
+   */
+  private void writeSnapshot(int step, int[] states) throws FileNotFoundException {
+    try (PrintWriter writer = new PrintWriter(
+        new File(mySnapshotFolder, String.format("step_%08d.txt", step)))) {
+      for (int row = 0; row < myNumRows; row++) {
+        int[] rowStates = Arrays.copyOfRange(states, row * myNumCols, (row + 1) * myNumCols);
+        writer.println(Arrays.toString(rowStates).replaceAll("[\\[\\],]", ""));
+      }
+    }
+  }
+
+  private static String getValue(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+    }
+    return args[index];
+  }
+
+  private static int parsePositive(String value) {
+    int number = Integer.parseInt(value);
+    if (number <= 0) {
+      throw new IllegalArgumentException("Expected a positive number but got " + value);
+    }
+    return number;
+  }
+
+  /**
+   * The number of cells in one state across the samples of a run. A state that is missing from a
+   * sample counts as zero cells in that sample.
+   */
+  private static class StateStatistics {
+
+    private int myInitial;
+    private int myLast;
+    private int myMin;
+    private int myMax;
+    private long myTotal;
+
+    /**
+     * @param seenAtStart true if the state is present in the first sample, false if it appeared
+     *                    later and so had zero cells in the earlier samples
+     */
+    StateStatistics(boolean seenAtStart) {
+      myMin = seenAtStart ? Integer.MAX_VALUE : 0;
+    }
+
+    /**
+     * @param count the number of cells in the state in the newest sample
+     * @param first true if this is the first sample of the run
+     */
+    void record(int count, boolean first) {
+      if (first) {
+        myInitial = count;
+      }
+      myLast = count;
+      myMin = Math.min(myMin, count);
+      myMax = Math.max(myMax, count);
+      myTotal += count;
+    }
+  }
+}
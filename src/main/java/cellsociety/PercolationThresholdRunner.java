@@ -0,0 +1,112 @@
+package cellsociety;
+
+import cellsociety.configuration.SimulationFactory;
+import cellsociety.exception.InvalidValueException;
+import cellsociety.model.random.RandomSource;
+import cellsociety.model.simulation.PercolationThresholdEstimator;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estimates the percolation threshold of random grids without any graphical interface, rather than
+ * editing and stepping percolation configuration files one density at a time. Usage:
+ * <pre>
+ * java cellsociety.PercolationThresholdRunner ROWS COLS TRIALS [--neighborhood TYPE]
+ *     [--edge TYPE] [--shape SHAPE] [--seed SEED] [--density P]...
+ * </pre>
+ * The neighborhood (Moore, VonNeumann or ExtendedMoore, VonNeumann by default) and cell shape
+ * (square or hexagon, square by default) are those of a PercolationSimulation. The edge type must
+ * be Normal, the default: Warped is rejected, since the top and bottom rows of a warped grid are
+ * neighbors and a pair of open cells across that edge would already percolate. The trials run in
+ * parallel on every core. The runner prints the estimated threshold with a 95% confidence
+ * interval, then the estimated probability that a grid percolates at each density given with
+ * --density, also with a 95% confidence interval.
+ */
+
+public class PercolationThresholdRunner {
+
+  public static final String USAGE = "usage: PercolationThresholdRunner ROWS COLS TRIALS "
+      + "[--neighborhood TYPE] [--edge TYPE] [--shape SHAPE] [--seed SEED] [--density P]...";
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  /**
+   * Runs the trials described on the command line, printing the estimates to standard output
+   *
+   * @param args the command line arguments, as described in the class documentation
+   */
+  public static void main(String[] args) {
+    try {
+      run(args, System.out);
+    } catch (InvalidValueException | IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(1);
+    }
+  }
+
+  private static void run(String[] args, PrintStream out) {
+    if (args.length < 3) {
+      throw new IllegalArgumentException("Missing number of rows, columns or trials");
+    }
+    int numRows = parsePositive(args[0]);
+    int numCols = parsePositive(args[1]);
+    int numTrials = parsePositive(args[2]);
+    String neighborhood = "VonNeumann";
+    String edge = "Normal";
+    String shape = "square";
+    long seed = RandomSource.randomSeed();
+    List<Double> densities = new ArrayList<>();
+    for (int i = 3; i < args.length; i++) {
+      switch (args[i]) {
+        case "--neighborhood" -> neighborhood = getValue(args, ++i);
+        case "--edge" -> edge = getValue(args, ++i);
+        case "--shape" -> shape = getValue(args, ++i);
+        case "--seed" -> seed = Long.parseLong(getValue(args, ++i));
+        case "--density" -> densities.add(parseDensity(getValue(args, ++i)));
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    PercolationThresholdEstimator estimator = new PercolationThresholdEstimator(numRows, numCols,
+        SimulationFactory.createNeighborhood(neighborhood), edge, shape, seed);
+    long start = System.nanoTime();
+    estimator.run(numTrials);
+    long elapsed = System.nanoTime() - start;
+    out.printf("%d x %d %s grid, %s neighborhood, %s edges, seed %d%n", numRows, numCols, shape,
+        neighborhood, edge, seed);
+    out.printf("%d trials in %.3f s%n", numTrials, elapsed / NANOS_PER_SECOND);
+    out.printf("threshold %.6f, standard deviation %.6f, 95%% confidence [%.6f, %.6f]%n",
+        estimator.getMean(), estimator.getStandardDeviation(), estimator.getConfidenceLow(),
+        estimator.getConfidenceHigh());
+    for (double density : densities) {
+      double probability = estimator.getPercolationProbability(density);
+      double halfWidth = estimator.getProbabilityHalfWidth(probability);
+      out.printf("density %.4f percolates with probability %.4f, 95%% confidence [%.4f, %.4f]%n",
+          density, probability, Math.max(0, probability - halfWidth),
+          Math.min(1, probability + halfWidth));
+    }
+  }
+
+  private static String getValue(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+    }
+    return args[index];
+  }
+
+  private static int parsePositive(String value) {
+    int number = Integer.parseInt(value);
+    if (number <= 0) {
+      throw new IllegalArgumentException("Expected a positive number but got " + value);
+    }
+    return number;
+  }
+
+  private static double parseDensity(String value) {
+    double density = Double.parseDouble(value);
+    if (density < 0 || density > 1) {
+      throw new IllegalArgumentException("Expected a density from 0 to 1 but got " + value);
+    }
+    return density;
+  }
+}
@@ -0,0 +1,95 @@
+package cellsociety.configuration;
+
+import cellsociety.exception.InvalidValueException;
+import cellsociety.model.neighborhood.ExtendedMooreNeighborhood;
+import cellsociety.model.neighborhood.MooreNeighborhood;
+import cellsociety.model.neighborhood.Neighborhood;
+import cellsociety.model.neighborhood.VonNeumannNeighborhood;
+import cellsociety.model.simulation.FallingSandSimulation;
+import cellsociety.model.simulation.FireSimulation;
+import cellsociety.model.simulation.GameOfLifeSimulation;
+import cellsociety.model.simulation.PercolationSimulation;
+import cellsociety.model.simulation.SchellingSimulation;
+import cellsociety.model.simulation.Simulation;
+import cellsociety.model.simulation.SimulationRecord;
+import cellsociety.model.simulation.SugarSimulation;
+import cellsociety.model.simulation.WatorSimulation;
+import java.util.List;
+
+/**
+ * The SimulationFactory builds the model of a simulation from a parsed XML configuration file, so
+ * that the same configuration can be run with or without a graphical interface.
+ */
+
+public class SimulationFactory {
+
+  private SimulationFactory() {
+  }
+
+  /**
+   * Creates the neighborhood object named in a configuration file, with the default radius for
+   * Extended Moore neighborhoods
+   *
+   * @param neighborhoodType a string that specifies which type of neighborhood the simulation uses
+   * @return the neighborhood object
+   * @throws InvalidValueException if the neighborhood type does not exist
+   */
+  public static Neighborhood<?> createNeighborhood(String neighborhoodType)
+      throws InvalidValueException {
+    return createNeighborhood(neighborhoodType, ExtendedMooreNeighborhood.DEFAULT_RADIUS);
+  }
+
+  /**
+   * Creates the neighborhood object named in a configuration file
+   *
+   * @param neighborhoodType a string that specifies which type of neighborhood the simulation uses
+   * @param radius           the number of Moore steps that may separate two neighbors of an
+   *                         Extended Moore neighborhood, which other neighborhood types ignore
+   * @return the neighborhood object
+   * @throws InvalidValueException if the neighborhood type does not exist or the radius is not
+   *                               positive
+   */
+  public static Neighborhood<?> createNeighborhood(String neighborhoodType, int radius)
+      throws InvalidValueException {
+    return switch (neighborhoodType) {
+      case "Moore" -> new MooreNeighborhood();
+      case "ExtendedMoore" -> new ExtendedMooreNeighborhood(radius);
+      case "VonNeumann" -> new VonNeumannNeighborhood();
+      default -> throw new InvalidValueException("Neighborhood Type Does Not Exist");
+    };
+  }
+
+  /**
+   * Creates the simulation described by a configuration file that has already been read
+   *
+   * @param xmlParser the parser holding the configuration of the simulation
+   * @return the simulation, with its cells and grid initialized
+   * @throws InvalidValueException if the simulation or neighborhood type does not exist
+   */
+  public static Simulation<?> createSimulation(XmlParser xmlParser) throws InvalidValueException {
+    int numRows = xmlParser.getHeight();
+    int numCols = xmlParser.getWidth();
+    Neighborhood<?> neighborhoodType = createNeighborhood(xmlParser.getNeighborhoodType(),
+        xmlParser.getNeighborhoodRadius());
+    List<Integer> stateList = xmlParser.getStates();
+    SimulationRecord record = new SimulationRecord(xmlParser.getParameters(),
+        xmlParser.getGridEdgeType(), xmlParser.getCellShape(), xmlParser.getSeed());
+    return switch (xmlParser.getType()) {
+      case XmlParser.GAMEOFLIFE_NAME ->
+          new GameOfLifeSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      case XmlParser.PERCOLATION_NAME ->
+          new PercolationSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      case XmlParser.FIRE_NAME ->
+          new FireSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      case XmlParser.SCHELLING_NAME ->
+          new SchellingSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      case XmlParser.WATOR_NAME ->
+          new WatorSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      case XmlParser.SUGAR_NAME ->
+          new SugarSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      case XmlParser.FALLING_NAME ->
+          new FallingSandSimulation(numRows, numCols, neighborhoodType, stateList, record);
+      default -> throw new InvalidValueException("Simulation Type Does Not Exist");
+    };
+  }
+}
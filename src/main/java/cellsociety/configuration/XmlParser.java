@@ -6,6 +6,8 @@ import cellsociety.exception.InvalidFileFormatException;
 import cellsociety.exception.InvalidGridBoundsException;
 import cellsociety.exception.InvalidValueException;
 import cellsociety.exception.SavingFileException;
+import cellsociety.model.neighborhood.ExtendedMooreNeighborhood;
+import cellsociety.model.random.RandomSource;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -130,6 +132,7 @@ public class XmlParser {
   public static final String WIDTH_FIELD_NAME = "width";
   public static final String HEIGHT_FIELD_NAME = "height";
   public static final String NEIGHBORHOOD_TYPE_FIELD_NAME = "neighborhood_type";
+  public static final String NEIGHBORHOOD_RADIUS_FIELD_NAME = "neighborhood_radius";
   public static final String LANGUAGE_FIELD_NAME = "language";
   public static final String CELL_SHAPE_FIELD_NAME = "cell_shape";
   public static final String GRID_EDGE_TYPE_FIELD_NAME = "grid_edge_type";
@@ -137,6 +140,7 @@ public class XmlParser {
   public static final String RANDOM_CONFIG_FIELD_NAME = "random_configuration_by_total_states";
   public static final String INITIAL_STATES_FIELD_NAME = "initial_states";
   public static final String SLIDER_FIELD_NAME = "slider";
+  public static final String SEED_FIELD_NAME = "seed";
 
   private ResourceBundle resourceBundle; // resource bundle for error handling messages
   private String type; // simulation type
@@ -149,12 +153,14 @@ public class XmlParser {
   private int width; // number of columns
   private int height; // number of rows
   private String neighborhoodType; // adjacent or cardinal
+  private int neighborhoodRadius; // number of Moore steps spanned by an Extended Moore neighborhood
   private List<Integer> states; // the state of each cell
   private Map<String, Double> parameters; // Hashmap mapping parameter names to their values
   private String language;
   private String cellShape;
   private String gridEdgeType;
   private String sliderInitial;
+  private long seed; // seed of all random numbers drawn by the simulation
   private final Map<String, Integer> randomConfigurationTotalStates;
   private int totalNumCells;
 
@@ -168,6 +174,7 @@ public class XmlParser {
     cellShape = "square";
     gridEdgeType = "Normal";
     language = "English";
+    neighborhoodRadius = ExtendedMooreNeighborhood.DEFAULT_RADIUS;
     // use resources for errors
     resourceBundle = ResourceBundle.getBundle(DEFAULT_RESOURCE_PACKAGE + "Errors" + language);
   }
@@ -283,6 +290,16 @@ public class XmlParser {
     return neighborhoodType;
   }
 
+  /**
+   * Retrieves neighborhoodRadius instance variable
+   *
+   * @return neighborhoodRadius, the number of Moore neighbor steps that may separate two neighbors
+   * of an Extended Moore neighborhood, which other neighborhood types ignore
+   */
+  public int getNeighborhoodRadius() {
+    return neighborhoodRadius;
+  }
+
   /**
    * Retrieves cellShape instance variable
    *
@@ -681,6 +698,61 @@ public class XmlParser {
     // update resource bundle given language
     resourceBundle = ResourceBundle.getBundle(DEFAULT_RESOURCE_PACKAGE + "Errors" + language);
 
+    // the seed is optional, and a new one is chosen for files that do not specify it
+    Node seedNode = element.getElementsByTagName(SEED_FIELD_NAME).item(0);
+    if (seedNode == null || seedNode.getTextContent().isBlank()) {
+      seed = RandomSource.randomSeed();
+    } else {
+      seed = parseSeed(seedNode.getTextContent().trim());
+    }
+
+    // the neighborhood radius is optional, and only used by Extended Moore neighborhoods
+    Node radiusNode = element.getElementsByTagName(NEIGHBORHOOD_RADIUS_FIELD_NAME).item(0);
+    if (radiusNode == null || radiusNode.getTextContent().isBlank()) {
+      neighborhoodRadius = ExtendedMooreNeighborhood.DEFAULT_RADIUS;
+    } else {
+      neighborhoodRadius = parseRadius(radiusNode.getTextContent().trim());
+    }
+  }
+
+  /**
+   * Parse the seed of the simulation
+   *
+   * @param seedString, the text of the seed field
+   * @return the seed
+   * @throws InvalidValueException when the seed is not a whole number
+   */
+  private long parseSeed(String seedString) throws InvalidValueException {
+    try {
+      return Long.parseLong(seedString);
+    } catch (NumberFormatException e) {
+      throw new InvalidValueException(
+          String.format(resourceBundle.getString("NotWholeNumberError"), SEED_FIELD_NAME));
+    }
+  }
+
+  /**
+   * Parse the radius of the neighborhood
+   *
+   * @param radiusString, the text of the neighborhood radius field
+   * @return the radius
+   * @throws InvalidValueException when the radius is not a whole number or is not positive
+   */
+  private int parseRadius(String radiusString) throws InvalidValueException {
+    int radius;
+    try {
+      radius = Integer.parseInt(radiusString);
+    } catch (NumberFormatException e) {
+      throw new InvalidValueException(
+          String.format(resourceBundle.getString("NotWholeNumberError"),
+              NEIGHBORHOOD_RADIUS_FIELD_NAME));
+    }
+    if (radius < 1) {
+      throw new InvalidValueException(
+          String.format(resourceBundle.getString("NonPositiveValueError"),
+              NEIGHBORHOOD_RADIUS_FIELD_NAME));
+    }
+    return radius;
   }
 
   /**
@@ -743,6 +815,25 @@ public class XmlParser {
   }
 
 
+  /**
+   * Retrieves seed instance variable
+   *
+   * @return seed, the seed from which all random numbers of the simulation are drawn. Running the
+   * same configuration with the same seed always produces the same simulation.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Updates seed instance variable
+   *
+   * @param seed, the seed from which all random numbers of the simulation are drawn
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
   public int getInitialSlider() {
     return Integer.parseInt(sliderInitial);
   }
@@ -765,7 +856,7 @@ public class XmlParser {
         }
       }
     }
-    Collections.shuffle(resultList, new Random());
+    Collections.shuffle(resultList, new Random(seed));
     states = resultList;
   }
 
@@ -919,10 +1010,13 @@ public class XmlParser {
     addElement(doc, rootElement, WIDTH_FIELD_NAME, String.valueOf(width));
     addElement(doc, rootElement, HEIGHT_FIELD_NAME, String.valueOf(height));
     addElement(doc, rootElement, NEIGHBORHOOD_TYPE_FIELD_NAME, neighborhoodType);
+    addElement(doc, rootElement, NEIGHBORHOOD_RADIUS_FIELD_NAME,
+        String.valueOf(neighborhoodRadius));
     addElement(doc, rootElement, GRID_EDGE_TYPE_FIELD_NAME, gridEdgeType);
     addElement(doc, rootElement, CELL_SHAPE_FIELD_NAME, cellShape);
     addElement(doc, rootElement, LANGUAGE_FIELD_NAME, language);
     addElement(doc, rootElement, SLIDER_FIELD_NAME, sliderInitial);
+    addElement(doc, rootElement, SEED_FIELD_NAME, String.valueOf(seed));
 
   }
 
@@ -4,12 +4,16 @@ import cellsociety.Point;
 import cellsociety.model.core.grid.Grid;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.neighborhood.Neighborhood;
+import cellsociety.model.random.RandomSource;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * The Cell is the atomic unit of our simulation. Each individual cell represents a location on a
- * grid, and has some sort of state.
+ * grid, and has some sort of state. The geometry of a cell never changes, so its centroid, integer
+ * coordinates and the direction to each of its neighbors are computed once rather than on every
+ * comparison.
  *
  * @author Noah Loewy
  */
@@ -18,10 +22,24 @@ public abstract class Cell<T extends Cell<T>> {
 
   public static final int PLACEHOLDER = -1;
   private final Point myLocation;
+  private final int myRow;
+  private final int myCol;
   private final List<Point> myVertices;
+  private final Shape myShape;
+  private final Point myCentroid;
+  private final double myCentroidRow;
+  private final double myCentroidCol;
+  private final int myHashCode;
+  /**
+   * The centroid of neighbor k minus the centroid of this cell is (myNeighborRowDeltas[k],
+   * myNeighborColDeltas[k])
+   */
+  private double[] myNeighborRowDeltas;
+  private double[] myNeighborColDeltas;
   private int myCurrentState;
   private int myNextState;
   private List<T> myNeighbors;
+  private RandomSource myRandomSource;
 
 
   /**
@@ -37,7 +55,20 @@ public abstract class Cell<T extends Cell<T>> {
     myCurrentState = initialState;
     myNextState = PLACEHOLDER;
     myLocation = new Point(row, col);
+    myRow = row;
+    myCol = col;
     myVertices = shapeType.getVertices(row, col);
+    myShape = shapeType;
+    double rowSum = 0;
+    double colSum = 0;
+    for (Point p : myVertices) {
+      rowSum += p.getRow();
+      colSum += p.getCol();
+    }
+    myCentroidRow = rowSum;
+    myCentroidCol = colSum;
+    myCentroid = new Point(rowSum, colSum);
+    myHashCode = myCentroid.hashCode();
   }
 
   /**
@@ -48,7 +79,7 @@ public abstract class Cell<T extends Cell<T>> {
    * @param grid     the row the cell is positioned at as represented on a 2D coordinate grid
    */
   public void initializeNeighbors(Neighborhood hoodType, Grid grid) {
-    myNeighbors = hoodType.getNeighbors(grid, this);
+    setNeighborhood(hoodType.getNeighbors(grid, this));
   }
 
   /**
@@ -131,6 +162,20 @@ public abstract class Cell<T extends Cell<T>> {
     return myLocation;
   }
 
+  /**
+   * @return the row the cell is positioned at as represented on a 2D grid
+   */
+  public int getRow() {
+    return myRow;
+  }
+
+  /**
+   * @return the column the cell is positioned at as represented on a 2D grid
+   */
+  public int getCol() {
+    return myCol;
+  }
+
   /**
    * Retrieves myVertices instance variable
    *
@@ -142,30 +187,110 @@ public abstract class Cell<T extends Cell<T>> {
     return myVertices;
   }
 
+  /**
+   * Retrieves myShape instance variable
+   *
+   * @return the shape of the cell, as represented on a 2D coordinate grid
+   */
+  public Shape getShape() {
+    return myShape;
+  }
+
   /**
    * Retrieves the centroid of the Cell's graphical representation, based on the Center of Mass of
-   * its vertices
+   * its vertices. The centroid is computed once, when the cell is constructed.
    *
    * @return a point object representing the Cell's center of mass when displayed graphically on a
    * 2D plane
    */
   public Point getCentroid() {
-    double rowSum = 0;
-    double colSum = 0;
-    for (Point p : myVertices) {
-      rowSum += p.getRow();
-      colSum += p.getCol();
-    }
-    return new Point(rowSum, colSum);
+    return myCentroid;
+  }
+
+  /**
+   * Retrieves the row direction from this cell to one of its neighbors
+   *
+   * @param index the position of the neighbor in the list returned by getNeighbors
+   * @return the row of the neighbor's centroid minus the row of this cell's centroid
+   */
+  protected double getNeighborRowDelta(int index) {
+    return myNeighborRowDeltas[index];
   }
 
   /**
-   * Updates myNeighborhood instance variable
+   * Retrieves the column direction from this cell to one of its neighbors
+   *
+   * @param index the position of the neighbor in the list returned by getNeighbors
+   * @return the column of the neighbor's centroid minus the column of this cell's centroid
+   */
+  protected double getNeighborColDelta(int index) {
+    return myNeighborColDeltas[index];
+  }
+
+  /**
+   * Updates myNeighborhood instance variable, along with the direction to each neighbor
    *
    * @param neighborhood a list of generic Cells representing the new neighbors of this cell.
    */
   public void setNeighborhood(List<T> neighborhood) {
     myNeighbors = neighborhood;
+    myNeighborRowDeltas = new double[neighborhood.size()];
+    myNeighborColDeltas = new double[neighborhood.size()];
+    for (int i = 0; i < neighborhood.size(); i++) {
+      Cell<T> neighbor = neighborhood.get(i);
+      myNeighborRowDeltas[i] = neighbor.myCentroidRow - myCentroidRow;
+      myNeighborColDeltas[i] = neighbor.myCentroidCol - myCentroidCol;
+    }
+  }
+
+  /**
+   * Updates myRandomSource instance variable
+   *
+   * @param randomSource the source of all random numbers drawn by this cell, shared by every cell
+   *                     of the simulation
+   */
+  public void setRandomSource(RandomSource randomSource) {
+    myRandomSource = randomSource;
+  }
+
+  /**
+   * Retrieves the source of random numbers of this cell. Cells that were never given one by a
+   * simulation receive an unseeded source of their own.
+   *
+   * @return the source of random numbers of this cell
+   */
+  public RandomSource getRandomSource() {
+    if (myRandomSource == null) {
+      myRandomSource = new RandomSource(RandomSource.randomSeed());
+    }
+    return myRandomSource;
+  }
+
+  /**
+   * Retrieves a random number generator belonging to this cell for the current timestep
+   *
+   * @return a generator whose sequence depends only on the seed, the timestep and this cell's
+   * location
+   */
+  protected Random getRandomStream() {
+    return getRandomSource().getStream(getRandomKey());
+  }
+
+  /**
+   * Draws a uniformly distributed number belonging to this cell for the current timestep
+   *
+   * @param draw distinguishes several numbers drawn by this cell in the same timestep
+   * @return a number greater than or equal to 0 and less than 1
+   */
+  protected double nextRandomDouble(int draw) {
+    return getRandomSource().nextDouble(getRandomKey(), draw);
+  }
+
+  /**
+   * @return the key naming this cell's location in its random source
+   */
+  private long getRandomKey() {
+    return RandomSource.locationKey(myRow, myCol);
   }
 
 
@@ -179,8 +304,9 @@ public abstract class Cell<T extends Cell<T>> {
     if (cell == null) {
       return Integer.MAX_VALUE;
     }
-    return Math.pow((getCentroid().getCol() - cell.getCentroid().getCol()), 2) + Math.pow(
-        (getCentroid().getRow() - cell.getCentroid().getRow()), 2);
+    double colDelta = myCentroidCol - ((Cell<T>) cell).myCentroidCol;
+    double rowDelta = myCentroidRow - ((Cell<T>) cell).myCentroidRow;
+    return colDelta * colDelta + rowDelta * rowDelta;
   }
 
   /**
@@ -201,8 +327,7 @@ public abstract class Cell<T extends Cell<T>> {
       return false;
     }
     Cell other1 = (Cell) other;
-    return (other1.getCentroid().getRow() == getCentroid().getRow() &&
-        other1.getCentroid().getCol() == getCentroid().getCol());
+    return other1.myCentroidRow == myCentroidRow && other1.myCentroidCol == myCentroidCol;
   }
 
   /**
@@ -213,7 +338,7 @@ public abstract class Cell<T extends Cell<T>> {
    */
   @Override
   public int hashCode() {
-    return getCentroid().hashCode();
+    return myHashCode;
   }
 
 
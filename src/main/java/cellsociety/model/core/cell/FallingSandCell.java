@@ -2,9 +2,8 @@ package cellsociety.model.core.cell;
 
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.simulation.FallingSandSimulation;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Represents an extension of the Cell, and serves as the atomic unit of the Falling Sand
@@ -15,6 +14,19 @@ import java.util.List;
  */
 public class FallingSandCell extends Cell<FallingSandCell> {
 
+  /**
+   * The neighbor sand falls into, or null if there is no neighbor below
+   */
+  private FallingSandCell myBelow;
+  /**
+   * The neighbors water may flow into, in the order of the neighbor list
+   */
+  private FallingSandCell[] myFlowNeighbors;
+  /**
+   * Scratch space for the empty flow neighbors of a water cell during its transition
+   */
+  private FallingSandCell[] myFlowOptions;
+
   /**
    * Constructs a Percolation Cell object for the Percolation simulation
    *
@@ -30,22 +42,46 @@ public class FallingSandCell extends Cell<FallingSandCell> {
 
 
   /**
-   * Handles transition of sand cell in Falling Sand Cell percolation. These sand cells will move
-   * downward, replacing empty cells or water cells when possible, each timestep.
+   * Sets the neighbors of this cell, and works out once which of them this cell can move into. The
+   * directions come from the centroids given by the Shape, so they hold for any lattice: the cell
+   * sand falls into is the neighbor below with the steepest slope, the first one found in case of a
+   * tie, and water may flow into any neighbor below (straight down, below-left or below-right) or
+   * to the side.
+   *
+   * @param neighborhood a list of FallingSandCells representing the new neighbors of this cell.
    */
-  private void handleSandCell() {
-    FallingSandCell bestOption = null;
+  @Override
+  public void setNeighborhood(List<FallingSandCell> neighborhood) {
+    super.setNeighborhood(neighborhood);
+    myBelow = null;
     double bestSlope = 0;
-    for (FallingSandCell cell : getNeighbors()) {
-      double newSlope = (cell.getCentroid().getRow() - getCentroid().getRow()) /
-          (cell.getCentroid().getCol() - getCentroid().getCol());
-      if (cell.getCentroid().getRow() > getCentroid().getRow()
-          && Math.abs(newSlope) > bestSlope) {
-        bestOption = cell;
+    int numFlowNeighbors = 0;
+    for (int i = 0; i < neighborhood.size(); i++) {
+      double newSlope = getNeighborRowDelta(i) / getNeighborColDelta(i);
+      if (getNeighborRowDelta(i) > 0 && Math.abs(newSlope) > bestSlope) {
+        myBelow = neighborhood.get(i);
         bestSlope = Math.abs(newSlope);
-
+      }
+      if (getNeighborRowDelta(i) >= 0) {
+        numFlowNeighbors++;
+      }
+    }
+    myFlowNeighbors = new FallingSandCell[numFlowNeighbors];
+    myFlowOptions = new FallingSandCell[numFlowNeighbors];
+    numFlowNeighbors = 0;
+    for (int i = 0; i < neighborhood.size(); i++) {
+      if (getNeighborRowDelta(i) >= 0) {
+        myFlowNeighbors[numFlowNeighbors++] = neighborhood.get(i);
       }
     }
+  }
+
+  /**
+   * Handles transition of sand cell in Falling Sand Cell percolation. These sand cells will move
+   * downward, replacing empty cells or water cells when possible, each timestep.
+   */
+  private void handleSandCell() {
+    FallingSandCell bestOption = myBelow;
     if (bestOption == null) {
       setNextState(getCurrentState());
       return;
@@ -65,35 +101,34 @@ public class FallingSandCell extends Cell<FallingSandCell> {
 
   /**
    * Handles transition of water cell, so it randomly moves horizontally or downward into an empty
-   * space
+   * space. The empty neighbors are shuffled in place the same way Collections.shuffle would, so the
+   * same seed still moves the water the same way, and the generator is only created when there is
+   * a choice to make.
    */
   private void handleWaterCell() {
-    List<FallingSandCell> options = new ArrayList<>();
-    for (FallingSandCell cell : getNeighbors()) {
-      if (cell.getCentroid().getRow() >= getCentroid().getRow()) {
-        if (cell.getCurrentState() == FallingSandSimulation.EMPTY
-            && cell.getNextState() == PLACEHOLDER) {
-          options.add(cell);
-        }
+    int numOptions = 0;
+    for (FallingSandCell cell : myFlowNeighbors) {
+      if (cell.getCurrentState() == FallingSandSimulation.EMPTY
+          && cell.getNextState() == PLACEHOLDER) {
+        myFlowOptions[numOptions++] = cell;
       }
     }
-    Collections.shuffle(options);
-    int index = 0;
-    while (index < options.size() && options.get(index).getNextState() != PLACEHOLDER) {
-      index++;
-    }
-    if (index == options.size()) {
+    if (numOptions == 0) {
       setNextState(getCurrentState());
       return;
     }
-    FallingSandCell nextCell = options.get(index);
-    if (nextCell.getNextState() == PLACEHOLDER) {
-      if (nextCell.getCurrentState() == FallingSandSimulation.EMPTY) {
-        nextCell.setNextState(FallingSandSimulation.WATER);
-        setCurrentState(FallingSandSimulation.EMPTY);
+    if (numOptions > 1) {
+      Random random = getRandomStream();
+      for (int i = numOptions; i > 1; i--) {
+        int j = random.nextInt(i);
+        FallingSandCell swap = myFlowOptions[i - 1];
+        myFlowOptions[i - 1] = myFlowOptions[j];
+        myFlowOptions[j] = swap;
       }
     }
-
+    FallingSandCell nextCell = myFlowOptions[0];
+    nextCell.setNextState(FallingSandSimulation.WATER);
+    setCurrentState(FallingSandSimulation.EMPTY);
   }
 
 
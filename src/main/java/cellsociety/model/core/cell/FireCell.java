@@ -1,8 +1,8 @@
 package cellsociety.model.core.cell;
 
-import static java.lang.Math.random;
-
+import cellsociety.model.core.grid.PackedGrid;
 import cellsociety.model.core.shape.Shape;
+import cellsociety.model.random.RandomSource;
 import cellsociety.model.simulation.FireSimulation;
 import java.util.Map;
 
@@ -50,28 +50,33 @@ public class FireCell extends Cell<FireCell> {
   /**
    * Handles transition of empty cell in FireSimulation. Empty cells transition to trees with
    * probability probTreeCreated, and remain empty with probability 1 - probTreeCreated
+   *
+   * @param random a uniformly distributed number in [0, 1) drawn for the cell this timestep
+   * @return the next state of the empty cell
    */
-  private void handleEmptyCell() {
-    if (random() <= probTreeCreated) {
-      setNextState(FireSimulation.TREE);
-    } else {
-      setNextState(FireSimulation.EMPTY);
+  private int handleEmptyCell(double random) {
+    if (random <= probTreeCreated) {
+      return FireSimulation.TREE;
     }
+    return FireSimulation.EMPTY;
   }
 
   /**
    * Handles transition of tree cell. Tree cells with at least neighborsToIgnite burning neighbors
    * will always burn. Tree cells that do not meet the required amount of burning neighbors will
    * burn with probability probTreeIgnites, and remain trees with probability 1 - probTreeIgnites
+   *
+   * @param burningNeighbors the number of neighbors of the tree cell that are burning
+   * @param random           a uniformly distributed number in [0, 1) drawn for the cell this
+   *                         timestep
+   * @return the next state of the tree cell
    */
 
-  private void handleTreeCell() {
-    int burningNeighbors = countNeighborsInState(FireSimulation.BURNING);
-    if (burningNeighbors >= neighborsToIgnite || random() <= probTreeIgnites) {
-      setNextState(FireSimulation.BURNING);
-    } else {
-      setNextState(FireSimulation.TREE);
+  private int handleTreeCell(int burningNeighbors, double random) {
+    if (burningNeighbors >= neighborsToIgnite || random <= probTreeIgnites) {
+      return FireSimulation.BURNING;
     }
+    return FireSimulation.TREE;
   }
 
   /**
@@ -92,7 +97,7 @@ public class FireCell extends Cell<FireCell> {
   public void transition() {
     switch (getCurrentState()) {
       case FireSimulation.EMPTY: {
-        handleEmptyCell();
+        setNextState(handleEmptyCell(nextRandomDouble(0)));
         break;
       }
       case FireSimulation.BURNING: {
@@ -100,12 +105,33 @@ public class FireCell extends Cell<FireCell> {
         break;
       }
       case FireSimulation.TREE: {
-        handleTreeCell();
+        setNextState(
+            handleTreeCell(countNeighborsInState(FireSimulation.BURNING), nextRandomDouble(0)));
         break;
       }
       default:
         break;
     }
   }
+
+  /**
+   * Represents a timestep update for a location in a packed Fire grid, applying the same rules as
+   * transition with the random number belonging to that location rather than to this cell.
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  public int computeNextState(PackedGrid grid, int index) {
+    double random = getRandomSource().nextDouble(
+        RandomSource.locationKey(index / grid.getNumCols(), index % grid.getNumCols()), 0);
+    return switch (grid.getCurrentState(index)) {
+      case FireSimulation.EMPTY -> handleEmptyCell(random);
+      case FireSimulation.BURNING -> FireSimulation.EMPTY;
+      case FireSimulation.TREE ->
+          handleTreeCell(grid.countNeighborsInState(index, FireSimulation.BURNING), random);
+      default -> PLACEHOLDER;
+    };
+  }
 }
 
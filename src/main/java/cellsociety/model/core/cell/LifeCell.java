@@ -1,5 +1,6 @@
 package cellsociety.model.core.cell;
 
+import cellsociety.model.core.grid.PackedGrid;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.simulation.GameOfLifeSimulation;
 import java.util.Map;
@@ -60,37 +61,56 @@ public class LifeCell extends Cell<LifeCell> {
   public void transition() {
     int aliveNeighbors = countNeighborsInState(GameOfLifeSimulation.ALIVE);
     if (getCurrentState() == GameOfLifeSimulation.ALIVE) {
-      handleAliveCell(aliveNeighbors);
+      setNextState(handleAliveCell(aliveNeighbors));
     }
     if (getCurrentState() == GameOfLifeSimulation.DEAD) {
-      handleDeadCell(aliveNeighbors);
+      setNextState(handleDeadCell(aliveNeighbors));
     }
   }
 
+  /**
+   * Represents a timestep update for a location in a packed Game of Life grid, applying the same
+   * rules as transition.
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  public int computeNextState(PackedGrid grid, int index) {
+    int aliveNeighbors = grid.countNeighborsInState(index, GameOfLifeSimulation.ALIVE);
+    return switch (grid.getCurrentState(index)) {
+      case GameOfLifeSimulation.ALIVE -> handleAliveCell(aliveNeighbors);
+      case GameOfLifeSimulation.DEAD -> handleDeadCell(aliveNeighbors);
+      default -> PLACEHOLDER;
+    };
+  }
+
   /**
    * Handles transition of alive cell in GameOfLifeSimulation. Alive cells with no less than
    * aliveToAliveMin and no more than aliveToAliveMax living neighbors will remain alive, whereas
    * all other alive cells will die
+   *
+   * @return the next state of the alive cell
    */
-  private void handleAliveCell(int aliveNeighbors) {
+  private int handleAliveCell(int aliveNeighbors) {
     if (aliveNeighbors >= aliveToAliveMin && aliveNeighbors <= aliveToAliveMax) {
-      setNextState(GameOfLifeSimulation.ALIVE);
-    } else {
-      setNextState(GameOfLifeSimulation.DEAD);
+      return GameOfLifeSimulation.ALIVE;
     }
+    return GameOfLifeSimulation.DEAD;
   }
 
   /**
    * Handles transition of dead cell in GameOfLifeSimulation. Dead cells with no less than
    * deadToAliveMin and no more than deadToAliveMax living neighbors will become alive, whereas all
    * other dead cells will remain dead
+   *
+   * @return the next state of the dead cell
    */
-  private void handleDeadCell(int aliveNeighbors) {
+  private int handleDeadCell(int aliveNeighbors) {
     if (aliveNeighbors >= deadToAliveMin && aliveNeighbors <= deadToAliveMax) {
-      setNextState(GameOfLifeSimulation.ALIVE);
-    } else {
-      setNextState(GameOfLifeSimulation.DEAD);
+      return GameOfLifeSimulation.ALIVE;
     }
+    return GameOfLifeSimulation.DEAD;
   }
 
   /**
@@ -1,5 +1,6 @@
 package cellsociety.model.core.cell;
 
+import cellsociety.model.core.grid.PackedGrid;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.simulation.PercolationSimulation;
 import java.util.Map;
@@ -38,14 +39,15 @@ public class PercolationCell extends Cell<PercolationCell> {
   /**
    * Handles transition of open cell in PercolationSimulation. Open cells with at least
    * neighersPercolatedRequired will become percolated, and otherwise will remain open.
+   *
+   * @param numPercolatedNeighbors the number of neighbors of the open cell that are percolated
+   * @return the next state of the open cell
    */
-  private void handleOpenCell() {
-    int numPercolatedNeighbors = countNeighborsInState(PercolationSimulation.PERCOLATED);
+  private int handleOpenCell(int numPercolatedNeighbors) {
     if (numPercolatedNeighbors >= percolatedNeighbors) {
-      setNextState(PercolationSimulation.PERCOLATED);
-    } else {
-      setNextState(PercolationSimulation.OPEN);
+      return PercolationSimulation.PERCOLATED;
     }
+    return PercolationSimulation.OPEN;
   }
 
   /**
@@ -55,12 +57,27 @@ public class PercolationCell extends Cell<PercolationCell> {
   @Override
   public void transition() {
     if (getCurrentState() == PercolationSimulation.OPEN) {
-      handleOpenCell();
+      setNextState(handleOpenCell(countNeighborsInState(PercolationSimulation.PERCOLATED)));
     } else {
       setNextState(getCurrentState());
     }
   }
 
+  /**
+   * Represents a timestep update for a location in a packed Percolation grid, applying the same
+   * rules as transition.
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  public int computeNextState(PackedGrid grid, int index) {
+    if (grid.getCurrentState(index) == PercolationSimulation.OPEN) {
+      return handleOpenCell(grid.countNeighborsInState(index, PercolationSimulation.PERCOLATED));
+    }
+    return grid.getCurrentState(index);
+  }
+
   public void setParams(Map<String, Double> params) {
     percolatedNeighbors = (int) Math.floor(params.get("percolatedNeighbors"));
   }
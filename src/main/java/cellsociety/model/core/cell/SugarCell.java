@@ -1,10 +1,7 @@
 package cellsociety.model.core.cell;
 
 import cellsociety.model.core.shape.Shape;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
 
 /**
  * Represents an extension of the Cell, and serves as the atomic unit of the Wator Simulation.
@@ -15,7 +12,9 @@ import java.util.Set;
 
 public class SugarCell extends Cell<SugarCell> {
 
-
+  private static final double COIN_FLIP = .5;
+  private static final SugarCell[] NO_CELLS = new SugarCell[0];
+  private static final int[] NOTHING_VISIBLE = {0};
   private final int myCapacity;
   private int myCurrentVision;
   private int myNextVision;
@@ -23,6 +22,12 @@ public class SugarCell extends Cell<SugarCell> {
   private int sugarMetabolism;
   private int sugarGrowBackRate;
   private int myCurrentAgentSugar;
+  /**
+   * The cells visible from this cell, sorted by the vision needed to see them. The first
+   * myVisionCounts[v] of them are visible with vision v.
+   */
+  private SugarCell[] myVisibleCells = NO_CELLS;
+  private int[] myVisionCounts = NOTHING_VISIBLE;
 
   /**
    * Constructs a Percolation Cell object for the Percolation simulation
@@ -51,6 +56,35 @@ public class SugarCell extends Cell<SugarCell> {
     return myCurrentAgentSugar > 0;
   }
 
+  /**
+   * @return the most sugar this cell can hold
+   */
+  public int getCapacity() {
+    return myCapacity;
+  }
+
+  /**
+   * @return the amount of sugar the agent occupying the cell has, or a value of at most 0 if there
+   * is no agent
+   */
+  public int getAgentSugar() {
+    return myCurrentAgentSugar;
+  }
+
+  /**
+   * @return the vision of the agent occupying the cell
+   */
+  public int getVision() {
+    return myCurrentVision;
+  }
+
+  /**
+   * @return the metabolism of the agent occupying the cell
+   */
+  public int getMetabolism() {
+    return sugarMetabolism;
+  }
+
   private boolean cellAvailable() {
     return myCurrentAgentSugar <= 0 && myNextAgentSugar < 0;
   }
@@ -87,59 +121,45 @@ public class SugarCell extends Cell<SugarCell> {
   }
 
   /**
-   * Recursive function that takes in a cell, and returns all the cells that are in the legal
-   * movement directions, that are at no more than vision units away. X and Y default to
-   * Double.MAX_VALUE on the first simulation
+   * Sets the cells an agent on this cell can see, so that they need not be searched for on every
+   * timestep
    *
-   * @param x,               direction of movement from original cell to current cell in x
-   *                         direction
-   * @param y                direction of movement from original cell to current cell in y
-   *                         direction
-   * @param remainingVision, vision left (since it is recursive)
-   * @param ignoreMe,        original cell called on the function
-   * @return set, a set of all cells that are visible to the current cell.
+   * @param visibleCells the cells visible from this cell with the largest vision an agent may have,
+   *                     sorted by the vision needed to see them
+   * @param visionCounts the number of cells at the start of visibleCells that are visible with
+   *                     each vision, from 0 up to the largest vision
    */
-  private Set<SugarCell> getVisibleNeighbors(double x, double y, int remainingVision,
-      SugarCell ignoreMe) {
-    Set<SugarCell> set = new HashSet<>();
-    if (remainingVision == 0) {
-      return set;
-    }
-    for (SugarCell neighbor : getNeighbors()) {
-      if (neighbor.equals(ignoreMe)) {
-        continue;
-      }
-      double dx = neighbor.getCentroid().getCol() - getCentroid().getCol();
-      double dy = neighbor.getCentroid().getRow() - getCentroid().getRow();
-      if ((dx == x && dy == y) || (x == Double.MAX_VALUE && y == Double.MAX_VALUE)) {
-        set.add(neighbor);
-        set.addAll(neighbor.getVisibleNeighbors(dx, dy, remainingVision - 1, ignoreMe));
-      }
-    }
-
-    return set;
+  public void setVisibleCells(SugarCell[] visibleCells, int[] visionCounts) {
+    myVisibleCells = visibleCells;
+    myVisionCounts = visionCounts;
   }
 
   /**
    * @return bestOption, the Cell that the current agent is going to move to. This is the visible
-   * cell with the most open sugar available (with ties broken by distance).
+   * cell with the most open sugar available (with ties broken by distance, then by a coin flip).
    */
   private SugarCell getFutureCell() {
-
-    Set<SugarCell> neighborsInVision = getVisibleNeighbors(Double.MAX_VALUE, Double.MAX_VALUE,
-        myCurrentVision, this);
-
+    int numVisible = myVisionCounts[Math.max(0,
+        Math.min(myCurrentVision, myVisionCounts.length - 1))];
     SugarCell bestOption = null;
     int bestVal = -1;
-    for (SugarCell neighbor : neighborsInVision) {
-      if (neighbor.cellAvailable()) {
-        if (neighbor.getCurrentState() > bestVal) {
-          bestVal = neighbor.getCurrentState();
-          bestOption = neighbor;
-        }
-        if (neighbor.getCurrentState() == bestVal && (distance(neighbor) < distance(bestOption) ||
-            (distance(neighbor) == distance(bestOption) && new Random().nextInt(2) == 1))) {
+    double bestDistance = 0;
+    int draw = 0;
+    for (int k = 0; k < numVisible; k++) {
+      SugarCell neighbor = myVisibleCells[k];
+      if (!neighbor.cellAvailable()) {
+        continue;
+      }
+      if (neighbor.getCurrentState() > bestVal) {
+        bestVal = neighbor.getCurrentState();
+        bestOption = neighbor;
+        bestDistance = distance(neighbor);
+      } else if (neighbor.getCurrentState() == bestVal) {
+        double neighborDistance = distance(neighbor);
+        if (neighborDistance < bestDistance || (neighborDistance == bestDistance
+            && nextRandomDouble(draw++) < COIN_FLIP)) {
           bestOption = neighbor;
+          bestDistance = neighborDistance;
         }
       }
     }
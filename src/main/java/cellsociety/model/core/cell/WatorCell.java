@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * Represents an extension of the Cell, and serves as the atomic unit of the Wator Simulation.
@@ -83,13 +84,14 @@ public class WatorCell extends Cell<WatorCell> {
   }
 
   /**
-   * Sets the values of a cell's next state, energy, and age.
+   * Sets the values of a cell's next state, energy, and age. Besides the transition of the cell,
+   * this is used to copy the state of a simulation stepped without cells back onto them.
    *
    * @param state  is the current occupant of the cell (Shark, Fish, or Empty)
    * @param energy is the energy remaining for a shark, or -1
    * @param age    is the number of timesteps since birth of the shark/fish, or -1
    */
-  private void updateStateEnergyAge(int state, int energy, int age) {
+  public void updateStateEnergyAge(int state, int energy, int age) {
     setNextState(state);
     setNextEnergy(energy);
     setNextAge(age);
@@ -100,7 +102,7 @@ public class WatorCell extends Cell<WatorCell> {
    *
    * @return the current energy remaining for a shark, or -1
    */
-  private int getEnergy() {
+  public int getEnergy() {
     return myCurrentEnergy;
   }
 
@@ -109,7 +111,7 @@ public class WatorCell extends Cell<WatorCell> {
    *
    * @return the number of timesteps since birth of the shark/fish, or -1
    */
-  private int getAge() {
+  public int getAge() {
     return myCurrentAge;
   }
 
@@ -232,7 +234,7 @@ public class WatorCell extends Cell<WatorCell> {
    */
   private void updateFish() {
     List<WatorCell> emptyNeighbors = getNeighborsOfState(WatorSimulation.EMPTY);
-    Collections.shuffle(emptyNeighbors);
+    Collections.shuffle(emptyNeighbors, getRandomStream());
     if (emptyNeighbors.isEmpty()) {
       increaseFishAge();
     } else {
@@ -260,8 +262,9 @@ public class WatorCell extends Cell<WatorCell> {
     List<WatorCell> emptyNeighbors = getNeighborsOfState(WatorSimulation.EMPTY);
     List<WatorCell> fishNeighbors = getNeighborsOfState(WatorSimulation.FISH);
 
-    Collections.shuffle(emptyNeighbors);
-    Collections.shuffle(fishNeighbors);
+    Random random = getRandomStream();
+    Collections.shuffle(emptyNeighbors, random);
+    Collections.shuffle(fishNeighbors, random);
 
     if (fishNeighbors.isEmpty() && emptyNeighbors.isEmpty()) {
       handleSharkCantMove();
@@ -2,9 +2,14 @@ package cellsociety.model.core.grid;
 
 import cellsociety.Point;
 import cellsociety.model.core.cell.Cell;
+import cellsociety.model.core.shape.Shape;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The Grid represents the Collection of Cells in our simulation, where each element in the grid
@@ -17,9 +22,16 @@ import java.util.List;
 
 public class Grid<T extends Cell> {
 
+  /**
+   * Number of index buckets per unit of distance. Every vertex produced by the available shapes
+   * lies on a multiple of a quarter unit, so rounding to this resolution is exact.
+   */
+  private static final int VERTEX_RESOLUTION = 4;
+  private static final long KEY_MIXER = 0x9E3779B97F4A7C15L;
   private final int myNumRows;
   private final int myNumCols;
   private final List<T> myGrid;
+  private Map<Long, List<T>> myVertexIndex;
 
   /**
    * Constructs a cell object
@@ -53,7 +65,184 @@ public class Grid<T extends Cell> {
     return myGrid.iterator();
   }
 
+  /**
+   * Retrieves the cell at the given row and column
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the cell at (row, col), or null if the location lies outside the grid
+   */
+  public T getCell(int row, int col) {
+    if (row < 0 || row >= myNumRows || col < 0 || col >= myNumCols) {
+      return null;
+    }
+    return myGrid.get(row * myNumCols + col);
+  }
+
   public boolean vertexEqual(Point vtx1, Point vtx2) {
     return vtx1.equals(vtx2);
   }
+
+  /**
+   * Determines whether two cells share a vertex under this grid's edge policy, that is whether
+   * vertexEqual holds for some vertex of cell1 and some vertex of cell2. Instead of comparing every
+   * pair of vertices, each translated vertex of cell1 is looked up in the vertex index.
+   *
+   * @param cell1 the cell whose vertices are translated
+   * @param cell2 the cell being looked for
+   * @return true if and only if cell1 and cell2 share a vertex
+   */
+  public boolean sharesVertex(T cell1, T cell2) {
+    List<Point> vertices = cell1.getVertices();
+    for (Point vtx : vertices) {
+      for (double[] translation : getTranslations(vtx.getColOffset())) {
+        List<T> bucket = getVertexIndex().get(
+            vertexKey(vtx.getRow() + translation[0], vtx.getCol() + translation[1]));
+        if (bucket != null && containsCell(bucket, cell2)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Retrieves every cell having a vertex that, once translated under this grid's edge policy, is
+   * equal to the given vertex, i.e. every cell with some vertex w such that vertexEqual(w, vtx).
+   * Cells are found by looking up the inverse translations of vtx in the vertex index, which
+   * assumes all cells in the grid share a shape.
+   *
+   * @param vtx the vertex being reached
+   * @return the cells with a vertex equal to vtx under the edge policy
+   */
+  public List<T> getCellsReachingVertex(Point vtx) {
+    double[][] translations = getTranslations(vtx.getColOffset());
+    if (translations.length == 1) {
+      return getVertexIndex().getOrDefault(vertexKey(vtx.getRow(), vtx.getCol()),
+          Collections.emptyList());
+    }
+    List<T> cells = new ArrayList<>();
+    for (double[] translation : translations) {
+      List<T> bucket = getVertexIndex().get(
+          vertexKey(vtx.getRow() - translation[0], vtx.getCol() - translation[1]));
+      if (bucket == null) {
+        continue;
+      }
+      for (T cell : bucket) {
+        if (!containsCell(cells, cell)) {
+          cells.add(cell);
+        }
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Retrieves the index from each vertex to the cells having that vertex, building it on first
+   * use. The index is built once per grid, since cells never move between locations.
+   *
+   * @return map from vertex key to the cells having that vertex
+   */
+  private Map<Long, List<T>> getVertexIndex() {
+    if (myVertexIndex == null) {
+      myVertexIndex = new HashMap<>();
+      for (T cell : myGrid) {
+        List<Point> vertices = cell.getVertices();
+        for (Point vtx : vertices) {
+          myVertexIndex.computeIfAbsent(vertexKey(vtx.getRow(), vtx.getCol()),
+              key -> new ArrayList<>()).add(cell);
+        }
+      }
+    }
+    return myVertexIndex;
+  }
+
+  /**
+   * Checks whether a list of cells holds the given cell object. Identity is used rather than equals
+   * since every location in the grid is held by exactly one cell object.
+   *
+   * @param cells the list of cells to search
+   * @param cell  the cell to look for
+   * @return true if and only if the cell object is in the list
+   */
+  private boolean containsCell(List<T> cells, T cell) {
+    for (T other : cells) {
+      if (other == cell) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Packs a vertex location into a single key, rounding both coordinates to the index resolution
+   * so that equal vertices always produce equal keys. The packed value is multiplied by an odd
+   * constant, which keeps keys unique while spreading nearby vertices across hash buckets.
+   *
+   * @param row the row coordinate of the vertex
+   * @param col the column coordinate of the vertex
+   * @return the key of the vertex in the vertex index
+   */
+  private static long vertexKey(double row, double col) {
+    long rowKey = Math.round(row * VERTEX_RESOLUTION);
+    long colKey = Math.round(col * VERTEX_RESOLUTION);
+    return ((rowKey << Integer.SIZE) | (colKey & 0xFFFFFFFFL)) * KEY_MIXER;
+  }
+
+  /**
+   * Retrieves the translations applied to a vertex when deciding whether it is equal to another
+   * vertex under this grid's edge policy. The first translation is always the identity. A finite
+   * grid has no other translations.
+   *
+   * @param colOffset the column offset stored in the vertex being translated
+   * @return an array of {deltaRow, deltaCol} translations
+   */
+  protected double[][] getTranslations(double colOffset) {
+    return new double[][]{{0, 0}};
+  }
+
+  /**
+   * Retrieves every other cell in the grid that shares a vertex with the given cell, as decided by
+   * vertexEqual. Rather than comparing vertices against every cell in the grid, this method places
+   * a copy of the cell at each translation of the edge policy and looks up the cells around each
+   * copy using the shape's neighbor offsets, so it runs in time proportional to the number of
+   * neighbors.
+   *
+   * @param cell the cell whose vertex-sharing cells are requested
+   * @return the cells sharing a vertex with the given cell, in row major order
+   */
+  public List<T> getCellsSharingVertex(T cell) {
+    Shape shape = cell.getShape();
+    int row = cell.getRow();
+    int col = cell.getCol();
+    int self = row * myNumCols + col;
+    Point anchor = (Point) cell.getVertices().get(0);
+    double[][] translations = getTranslations(anchor.getColOffset());
+    int[] indices = new int[translations.length * (shape.getNeighborOffsets(row).length + 1)];
+    int count = 0;
+    for (double[] translation : translations) {
+      int imageRow = row + (int) translation[0];
+      int imageCol = shape.getTranslatedCol(row, col, (int) translation[0], translation[1]);
+      count = addIndex(indices, count, imageRow, imageCol);
+      for (int[] offset : shape.getNeighborOffsets(imageRow)) {
+        count = addIndex(indices, count, imageRow + offset[0], imageCol + offset[1]);
+      }
+    }
+    Arrays.sort(indices, 0, count);
+    List<T> cells = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      if (indices[i] != self && (i == 0 || indices[i] != indices[i - 1])) {
+        cells.add(myGrid.get(indices[i]));
+      }
+    }
+    return cells;
+  }
+
+  private int addIndex(int[] indices, int count, int row, int col) {
+    if (row < 0 || row >= myNumRows || col < 0 || col >= myNumCols) {
+      return count;
+    }
+    indices[count] = row * myNumCols + col;
+    return count + 1;
+  }
 }
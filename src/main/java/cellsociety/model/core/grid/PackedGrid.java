@@ -0,0 +1,169 @@
+package cellsociety.model.core.grid;
+
+import cellsociety.model.core.cell.Cell;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The PackedGrid is a compact alternative to the Grid for simulations whose cells only read their
+ * neighbors' current states and write their own next state. Rather than storing a Cell object per
+ * location, it stores the current and next state of every location in two flat arrays (in row
+ * major order) that are swapped after each timestep, and stores the neighbors of every location as
+ * a compressed adjacency list: the neighbors of location i are the indices in
+ * myNeighborIndices[myNeighborStarts[i]] up to myNeighborIndices[myNeighborStarts[i + 1] - 1].
+ */
+
+public class PackedGrid {
+
+  private final int myNumRows;
+  private final int myNumCols;
+  private final int[] myNeighborStarts;
+  private final int[] myNeighborIndices;
+  private int[] myCurrentStates;
+  private int[] myNextStates;
+
+  /**
+   * Constructs a packed grid holding the same states and neighbors as an existing grid of cells.
+   * The neighbors of each cell must already be initialized.
+   *
+   * @param grid the grid of cells to copy
+   */
+  public PackedGrid(Grid<? extends Cell<?>> grid) {
+    myNumRows = grid.getNumRows();
+    myNumCols = grid.getNumCols();
+    int size = myNumRows * myNumCols;
+    myCurrentStates = new int[size];
+    myNextStates = new int[size];
+    Arrays.fill(myNextStates, Cell.PLACEHOLDER);
+    myNeighborStarts = new int[size + 1];
+    Iterator<? extends Cell<?>> iter = grid.iterator();
+    while (iter.hasNext()) {
+      Cell<?> cell = iter.next();
+      int index = getIndex(cell);
+      myCurrentStates[index] = cell.getCurrentState();
+      myNeighborStarts[index + 1] = cell.getNeighbors().size();
+    }
+    for (int i = 0; i < size; i++) {
+      myNeighborStarts[i + 1] += myNeighborStarts[i];
+    }
+    myNeighborIndices = new int[myNeighborStarts[size]];
+    iter = grid.iterator();
+    while (iter.hasNext()) {
+      Cell<?> cell = iter.next();
+      int position = myNeighborStarts[getIndex(cell)];
+      List<? extends Cell<?>> neighbors = cell.getNeighbors();
+      for (Cell<?> neighbor : neighbors) {
+        myNeighborIndices[position++] = getIndex(neighbor);
+      }
+    }
+  }
+
+  public int getNumRows() {
+    return myNumRows;
+  }
+
+  public int getNumCols() {
+    return myNumCols;
+  }
+
+  /**
+   * @return the number of locations in the grid
+   */
+  public int size() {
+    return myCurrentStates.length;
+  }
+
+  /**
+   * @param index the row major index of a location
+   * @return the current state of the location
+   */
+  public int getCurrentState(int index) {
+    return myCurrentStates[index];
+  }
+
+  /**
+   * @param index the row major index of a location
+   * @param state the new current state of the location
+   */
+  public void setCurrentState(int index, int state) {
+    myCurrentStates[index] = state;
+  }
+
+  /**
+   * @param index the row major index of a location
+   * @return the next state of the location, or Cell.PLACEHOLDER if it has not been set
+   */
+  public int getNextState(int index) {
+    return myNextStates[index];
+  }
+
+  /**
+   * @param index the row major index of a location
+   * @param state the state the location will take after the timestep
+   */
+  public void setNextState(int index, int state) {
+    myNextStates[index] = state;
+  }
+
+  /**
+   * Retrieves the array holding the current state of every location, in row major order. The array
+   * is owned by the grid and is replaced on every call to swapStates, so it must not be modified
+   * or kept across timesteps.
+   *
+   * @return the current states of all locations
+   */
+  public int[] getCurrentStates() {
+    return myCurrentStates;
+  }
+
+  /**
+   * @param index the row major index of a location
+   * @return the number of neighbors of the location
+   */
+  public int getNeighborCount(int index) {
+    return myNeighborStarts[index + 1] - myNeighborStarts[index];
+  }
+
+  /**
+   * @param index    the row major index of a location
+   * @param neighbor which of the location's neighbors to retrieve, from 0 to getNeighborCount - 1
+   * @return the row major index of the neighbor
+   */
+  public int getNeighbor(int index, int neighbor) {
+    return myNeighborIndices[myNeighborStarts[index] + neighbor];
+  }
+
+  /**
+   * Given an integer representing a target state, determines the number of neighbors of a location
+   * that have a current state matching the target state.
+   *
+   * @param index the row major index of a location
+   * @param state an integer, representing the state to check for
+   * @return the number of neighbors of the location whose current state is state
+   */
+  public int countNeighborsInState(int index, int state) {
+    int count = 0;
+    for (int i = myNeighborStarts[index]; i < myNeighborStarts[index + 1]; i++) {
+      if (myCurrentStates[myNeighborIndices[i]] == state) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Updates the states after a timestep by swapping the current and next state arrays, and resets
+   * every next state to the placeholder value.
+   */
+  public void swapStates() {
+    int[] temp = myCurrentStates;
+    myCurrentStates = myNextStates;
+    myNextStates = temp;
+    Arrays.fill(myNextStates, Cell.PLACEHOLDER);
+  }
+
+  private int getIndex(Cell<?> cell) {
+    return cell.getRow() * myNumCols + cell.getCol();
+  }
+}
@@ -26,7 +26,8 @@ public class WarpedGrid<T extends Cell<T>> extends Grid<T> {
    * This method first checks if the vertex is contained within the provided list of vertices using
    * the standard containsVertex method of the superclass. If the vertex is found, it returns true
    * immediately. If the vertex is not found within the original list, it applies translates the v
-   * vertex to simulate the toroidal behavior of the grid. This is especially useful for irregular
+   * vertex to simulate the toroidal behavior of the grid. The translated coordinates are compared
+   * directly, so no intermediate points are allocated. This is especially useful for irregular
    * lattice structures like hexagons, where the wrapping behavior may not be straightforward. The
    * shape-aspect is handled by employing an offset, stored within the vertex during its
    * initialization. If any of the translated vertices are found within the provided list of
@@ -42,17 +43,32 @@ public class WarpedGrid<T extends Cell<T>> extends Grid<T> {
     if (super.vertexEqual(vtx1, vtx2)) {
       return true;
     }
-    double colOffset = 0;
-    if (getNumRows() % 2 == 1) {
-      colOffset = vtx1.getColOffset();
-    }
-    final double[][] translations = {{getNumRows(), colOffset}, {-getNumRows(),
-        colOffset}, {0, getNumCols()}, {0, -getNumCols()}};
-    for (int i = 0; i < translations.length; i++) {
-      if (super.vertexEqual(vtx1.translate(translations[i][0], translations[i][1]), vtx2)) {
+    final double[][] translations = getTranslations(vtx1.getColOffset());
+    for (int i = 1; i < translations.length; i++) {
+      if (vtx1.getRow() + translations[i][0] == vtx2.getRow()
+          && vtx1.getCol() + translations[i][1] == vtx2.getCol()) {
         return true;
       }
     }
     return false;
   }
+
+  /**
+   * Retrieves the translations that simulate the toroidal behavior of the grid: the identity, a
+   * shift by the number of rows in either direction (with the vertex's column offset applied when
+   * the number of rows is odd, so staggered lattices line up), and a shift by the number of
+   * columns in either direction.
+   *
+   * @param colOffset the column offset stored in the vertex being translated
+   * @return an array of {deltaRow, deltaCol} translations
+   */
+  @Override
+  protected double[][] getTranslations(double colOffset) {
+    double rowColOffset = 0;
+    if (getNumRows() % 2 == 1) {
+      rowColOffset = colOffset;
+    }
+    return new double[][]{{0, 0}, {getNumRows(), rowColOffset}, {-getNumRows(), rowColOffset},
+        {0, getNumCols()}, {0, -getNumCols()}};
+  }
 }
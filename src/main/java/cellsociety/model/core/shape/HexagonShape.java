@@ -12,6 +12,11 @@ import java.util.List;
 
 public class HexagonShape implements Shape {
 
+  private static final int[][] EVEN_ROW_NEIGHBOR_OFFSETS = {{-1, -1}, {-1, 0}, {0, -1}, {0, 1},
+      {1, -1}, {1, 0}};
+  private static final int[][] ODD_ROW_NEIGHBOR_OFFSETS = {{-1, 0}, {-1, 1}, {0, -1}, {0, 1},
+      {1, 0}, {1, 1}};
+
   /**
    * Returns a list of vertices representing the corners of a hexagon shape on a grid. Hexagons are
    * latticed in a staggered pattern, where odd rows are shifted right. Each cell on the grid is
@@ -23,12 +28,7 @@ public class HexagonShape implements Shape {
    * @return a list of Point objects representing the vertices of the hexagon
    */
   public List<Point> getVertices(int row, int col) {
-    double currOffset;
-    if (row % 2 == 1) {
-      currOffset = .5;
-    } else {
-      currOffset = 0.0;
-    }
+    double currOffset = getShift(row);
     final double[][] offsets = {{.25, 0}, {0, .5}, {.25, 1}, {1, 1}, {1.25, .5}, {1, 0}};
     List<Point> vertices = new ArrayList<>();
     for (double[] offset : offsets) {
@@ -37,4 +37,45 @@ public class HexagonShape implements Shape {
     }
     return vertices;
   }
+
+  /**
+   * Returns the offsets of the six hexagons that share a vertex with a hexagon in the given row.
+   * Since odd rows are shifted right by half a cell, the diagonal neighbors of an even row lie one
+   * column to the left of those of an odd row.
+   *
+   * @param row the row index of the hexagon
+   * @return an array of {deltaRow, deltaCol} offsets
+   */
+  public int[][] getNeighborOffsets(int row) {
+    if (isShifted(row)) {
+      return ODD_ROW_NEIGHBOR_OFFSETS;
+    }
+    return EVEN_ROW_NEIGHBOR_OFFSETS;
+  }
+
+  /**
+   * Returns the column of the hexagon whose vertices are those of the hexagon at (row, col)
+   * translated by (deltaRow, deltaCol). The half-cell shift of odd rows is accounted for, so a
+   * translation by an odd number of rows and half a column lands on a whole column.
+   *
+   * @param row      the row index of the original hexagon
+   * @param col      the column index of the original hexagon
+   * @param deltaRow the translation in the row direction
+   * @param deltaCol the translation in the column direction
+   * @return the column index of the translated hexagon
+   */
+  public int getTranslatedCol(int row, int col, int deltaRow, double deltaCol) {
+    return (int) Math.round(col + deltaCol + getShift(row) - getShift(row + deltaRow));
+  }
+
+  private boolean isShifted(int row) {
+    return Math.floorMod(row, 2) == 1;
+  }
+
+  private double getShift(int row) {
+    if (isShifted(row)) {
+      return .5;
+    }
+    return 0.0;
+  }
 }
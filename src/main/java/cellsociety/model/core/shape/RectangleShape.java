@@ -11,6 +11,9 @@ import java.util.List;
  */
 public class RectangleShape implements Shape {
 
+  private static final int[][] NEIGHBOR_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1},
+      {1, -1}, {1, 0}, {1, 1}};
+
   /**
    * Returns a list of vertices representing the corners of a square on a grid. Each cell on the
    * grid is assumed to take up 1 square unit. The vertices are calculated based on the provided row
@@ -29,4 +32,30 @@ public class RectangleShape implements Shape {
     return vertices;
   }
 
+  /**
+   * Returns the offsets of the eight squares that share a corner or an edge with a square in the
+   * given row. Squares are not staggered, so the offsets are the same for every row.
+   *
+   * @param row the row index of the square
+   * @return an array of {deltaRow, deltaCol} offsets
+   */
+  public int[][] getNeighborOffsets(int row) {
+    return NEIGHBOR_OFFSETS;
+  }
+
+  /**
+   * Returns the column of the square whose vertices are those of the square at (row, col)
+   * translated by (deltaRow, deltaCol). Squares are not staggered, so this is simply col +
+   * deltaCol.
+   *
+   * @param row      the row index of the original square
+   * @param col      the column index of the original square
+   * @param deltaRow the translation in the row direction
+   * @param deltaCol the translation in the column direction
+   * @return the column index of the translated square
+   */
+  public int getTranslatedCol(int row, int col, int deltaRow, double deltaCol) {
+    return (int) Math.round(col + deltaCol);
+  }
+
 }
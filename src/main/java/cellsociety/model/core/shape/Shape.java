@@ -24,4 +24,27 @@ public interface Shape {
    */
   List<Point> getVertices(int row, int col);
 
+  /**
+   * Returns the row and column offsets of every cell that shares at least one vertex with a cell in
+   * the given row, assuming an unbounded plane tiled with this shape. Each offset is an array of
+   * the form {deltaRow, deltaCol}. The cell itself is not included.
+   *
+   * @param row the row index of the cell whose vertex-sharing neighbors are requested
+   * @return an array of {deltaRow, deltaCol} offsets
+   */
+  int[][] getNeighborOffsets(int row);
+
+  /**
+   * Returns the column of the cell whose vertices are exactly the vertices of the cell at (row,
+   * col) translated by deltaRow rows and deltaCol columns. For staggered lattices deltaCol may be
+   * fractional, as the column of a cell depends on the parity of its row.
+   *
+   * @param row      the row index of the original cell
+   * @param col      the column index of the original cell
+   * @param deltaRow the translation in the row direction
+   * @param deltaCol the translation in the column direction
+   * @return the column index of the translated cell
+   */
+  int getTranslatedCol(int row, int col, int deltaRow, double deltaCol);
+
 }
@@ -1,40 +1,267 @@
 package cellsociety.model.neighborhood;
 
+import cellsociety.Point;
+import cellsociety.exception.InvalidValueException;
 import cellsociety.model.core.cell.Cell;
 import cellsociety.model.core.grid.Grid;
-import java.util.Iterator;
+import cellsociety.model.core.shape.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a neighborhood where neighbors are characterized as points that share a common vertex
- * on the coordinate grid
+ * on the coordinate grid, or that can be reached from each other through a chain of such points.
+ * By default, two cells are neighbors if they share a vertex, or if both share a vertex with a
+ * common cell (a radius of 2). Larger radii extend the chain by one Moore neighbor per unit.
  *
  * @author Noah Loewy
  */
 
 public class ExtendedMooreNeighborhood extends MooreNeighborhood {
 
+  public static final int DEFAULT_RADIUS = 2;
+  private final int myRadius;
+  /**
+   * The stencil of every shape used so far. Stencils never change once built, and the map can be
+   * read and filled by several threads at once, so the neighborhood may be shared between threads
+   * stepping the same grid.
+   */
+  private final Map<Class<? extends Shape>, Stencil> myStencils;
+
+  /**
+   * Constructs an Extended Moore neighborhood with the default radius of 2
+   */
+  public ExtendedMooreNeighborhood() {
+    this(DEFAULT_RADIUS);
+  }
+
+  /**
+   * Constructs an Extended Moore neighborhood with the given radius
+   *
+   * @param radius the number of Moore neighbor steps that may separate two neighbors. A radius of 1
+   *               is equivalent to the Moore neighborhood.
+   */
+  public ExtendedMooreNeighborhood(int radius) {
+    if (radius < 1) {
+      throw new InvalidValueException("Neighborhood Radius Must Be Positive");
+    }
+    myRadius = radius;
+    myStencils = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return the number of Moore neighbor steps that may separate two neighbors
+   */
+  public int getRadius() {
+    return myRadius;
+  }
+
+  /**
+   * Retrieves all extended Moore neighbors of a cell: the cells whose Moore neighborhood contains
+   * the given cell, and the cells reached from those through radius - 1 more Moore steps. When
+   * every cell within radius Moore steps of the cell lies away from the edges of the grid, they are
+   * read from the stencil of the shape, which is computed once on an unbounded plane, so the cost
+   * per cell depends only on the radius and not on the size of the grid. Cells closer to an edge,
+   * where the edge policy decides which cells are neighbors, are searched through the Moore
+   * neighborhoods of the grid.
+   *
+   * @param grid the representation of the cells on the 2D plane
+   * @param cell the central cell whose neighbors we are aiming to get
+   * @return a list of cells, each cell representing a neighbor of the given cell, in row major
+   * order
+   */
+  @Override
+  public List<Cell> getNeighbors(Grid grid, Cell cell) {
+    if (myRadius == 1) {
+      return super.getNeighbors(grid, cell);
+    }
+    int numCols = grid.getNumCols();
+    Stencil stencil = getStencil(cell.getShape());
+    int[] indices;
+    if (stencil.staysInside(grid, cell.getRow(), cell.getCol())) {
+      int[][] offsets = stencil.getOffsets(cell.getRow());
+      indices = new int[offsets.length];
+      for (int i = 0; i < offsets.length; i++) {
+        indices[i] = (cell.getRow() + offsets[i][0]) * numCols + cell.getCol() + offsets[i][1];
+      }
+    } else {
+      indices = searchNeighbors(grid, cell);
+    }
+    Arrays.sort(indices);
+    List<Cell> neighbors = new ArrayList<>(indices.length);
+    for (int index : indices) {
+      neighbors.add(grid.getCell(index / numCols, index % numCols));
+    }
+    return neighbors;
+  }
+
   /**
    * Abstract method that determines if two cells are neighbors under a certain grid. This method
-   * uses the Moore criterion for neighbors, which requires that the two cells share a vertex
+   * uses the extended Moore criterion for neighbors, which requires that the two cells share a
+   * vertex, or be connected through at most radius - 1 intermediate Moore neighbors. Away from the
+   * edges of the grid, the offset from cell1 to cell2 is looked up in the stencil of the shape, so
+   * no other cell is visited.
    *
    * @param cell1 potential neighbor of cell 2
    * @param cell2 potential neighbor of cell 1
    * @param grid  grid object for the simulation
-   * @return true if and only if cell1 and cell2 are Moore Neighbors
+   * @return true if and only if cell1 and cell2 are Extended Moore Neighbors
    */
+  @Override
   public boolean isValidNeighbor(Cell cell1, Cell cell2, Grid grid) {
-    if (super.isValidNeighbor(cell1, cell2, grid)) {
-      return true;
-    }
-    Iterator<Cell> iter = grid.iterator();
-    while (iter.hasNext()) {
-      Cell neighbor = iter.next();
-      if (super.isValidNeighbor(neighbor, cell2, grid) && super.isValidNeighbor(neighbor, cell1,
-          grid)) {
+    if (myRadius == 1) {
+      return super.isValidNeighbor(cell1, cell2, grid);
+    }
+    Stencil stencil = getStencil(cell1.getShape());
+    if (stencil.staysInside(grid, cell1.getRow(), cell1.getCol())) {
+      return stencil.contains(cell1.getRow(), cell2.getRow() - cell1.getRow(),
+          cell2.getCol() - cell1.getCol());
+    }
+    int target = cell2.getRow() * grid.getNumCols() + cell2.getCol();
+    for (int index : searchNeighbors(grid, cell1)) {
+      if (index == target) {
         return true;
       }
     }
     return false;
   }
-}
 
+  private Stencil getStencil(Shape shape) {
+    return myStencils.computeIfAbsent(shape.getClass(), key -> new Stencil(shape, myRadius));
+  }
+
+  /**
+   * Searches the extended Moore neighbors of a cell through the Moore neighborhoods of the grid,
+   * starting from the cells having a vertex that the edge policy makes equal to a vertex of the
+   * cell, and taking radius - 1 more Moore steps from those
+   *
+   * @return the row major indices of the neighbors, in no particular order
+   */
+  private int[] searchNeighbors(Grid<?> grid, Cell<?> cell) {
+    int numCols = grid.getNumCols();
+    Set<Integer> reached = new HashSet<>();
+    List<Cell<?>> frontier = new ArrayList<>();
+    for (Point vertex : cell.getVertices()) {
+      for (Cell<?> hub : grid.getCellsReachingVertex(vertex)) {
+        if (reached.add(hub.getRow() * numCols + hub.getCol())) {
+          frontier.add(hub);
+        }
+      }
+    }
+    for (int step = 1; step < myRadius; step++) {
+      List<Cell<?>> nextFrontier = new ArrayList<>();
+      for (Cell<?> current : frontier) {
+        for (Cell<?> neighbor : super.getNeighbors(grid, current)) {
+          if (reached.add(neighbor.getRow() * numCols + neighbor.getCol())) {
+            nextFrontier.add(neighbor);
+          }
+        }
+      }
+      frontier = nextFrontier;
+    }
+    reached.remove(cell.getRow() * numCols + cell.getCol());
+    return reached.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * The offsets of the cells within a number of Moore steps of a cell, on an unbounded plane tiled
+   * with one shape. The neighbor offsets of every shape repeat every two rows, so a stencil holds
+   * the offsets of a cell in an even row and those of a cell in an odd row.
+   */
+  private static final class Stencil {
+
+    private final int[][][] myOffsets;
+    private final List<Set<Long>> myOffsetKeys;
+    private final int[][] myBounds;
+
+    /**
+     * Builds the stencil by expanding the neighbor offsets of the shape radius times from a cell
+     * in row 0 and from a cell in row 1
+     *
+     * @param shape  the shape tiling the plane
+     * @param radius the number of Moore steps
+     */
+    private Stencil(Shape shape, int radius) {
+      myOffsets = new int[2][][];
+      myOffsetKeys = new ArrayList<>();
+      myBounds = new int[2][];
+      for (int parity = 0; parity < 2; parity++) {
+        Set<Long> reached = new HashSet<>();
+        reached.add(getKey(0, 0));
+        List<int[]> frontier = List.of(new int[]{0, 0});
+        List<int[]> offsets = new ArrayList<>();
+        for (int step = 0; step < radius; step++) {
+          List<int[]> nextFrontier = new ArrayList<>();
+          for (int[] current : frontier) {
+            for (int[] move : shape.getNeighborOffsets(parity + current[0])) {
+              int[] next = {current[0] + move[0], current[1] + move[1]};
+              if (reached.add(getKey(next[0], next[1]))) {
+                nextFrontier.add(next);
+                offsets.add(next);
+              }
+            }
+          }
+          frontier = nextFrontier;
+        }
+        reached.remove(getKey(0, 0));
+        myOffsets[parity] = offsets.toArray(new int[0][]);
+        myOffsetKeys.add(Set.copyOf(reached));
+        myBounds[parity] = getBounds(offsets);
+      }
+    }
+
+    /**
+     * @return the smallest row, largest row, smallest column and largest column offsets
+     */
+    private static int[] getBounds(List<int[]> offsets) {
+      int[] bounds = {0, 0, 0, 0};
+      for (int[] offset : offsets) {
+        bounds[0] = Math.min(bounds[0], offset[0]);
+        bounds[1] = Math.max(bounds[1], offset[0]);
+        bounds[2] = Math.min(bounds[2], offset[1]);
+        bounds[3] = Math.max(bounds[3], offset[1]);
+      }
+      return bounds;
+    }
+
+    /**
+     * Checks whether every cell within the stencil's number of Moore steps of a cell lies inside
+     * the grid without touching its edges. Only those cells share no vertex with a cell across an
+     * edge, so only there does the stencil give the same neighbors as the grid under any edge
+     * policy.
+     *
+     * @return true if and only if the stencil around (row, col) stays off the outermost rows and
+     * columns of the grid
+     */
+    private boolean staysInside(Grid<?> grid, int row, int col) {
+      int[] bounds = myBounds[Math.floorMod(row, 2)];
+      return row + bounds[0] > 0 && row + bounds[1] < grid.getNumRows() - 1
+          && col + bounds[2] > 0 && col + bounds[3] < grid.getNumCols() - 1;
+    }
+
+    /**
+     * @return the offsets of the cells within the stencil's number of Moore steps of a cell in the
+     * given row
+     */
+    private int[][] getOffsets(int row) {
+      return myOffsets[Math.floorMod(row, 2)];
+    }
+
+    /**
+     * @return true if and only if the cell at (deltaRow, deltaCol) from a cell in the given row is
+     * within the stencil's number of Moore steps of it
+     */
+    private boolean contains(int row, int deltaRow, int deltaCol) {
+      return myOffsetKeys.get(Math.floorMod(row, 2)).contains(getKey(deltaRow, deltaCol));
+    }
+
+    private static long getKey(int deltaRow, int deltaCol) {
+      return ((long) deltaRow << Integer.SIZE) | (deltaCol & 0xFFFFFFFFL);
+    }
+  }
+}
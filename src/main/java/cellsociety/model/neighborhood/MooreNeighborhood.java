@@ -1,6 +1,5 @@
 package cellsociety.model.neighborhood;
 
-import cellsociety.Point;
 import cellsociety.model.core.cell.Cell;
 import cellsociety.model.core.grid.Grid;
 import java.util.List;
@@ -14,6 +13,20 @@ import java.util.List;
 
 public class MooreNeighborhood extends Neighborhood {
 
+  /**
+   * Retrieves all Moore neighbors of a cell. Since Moore neighbors are exactly the cells sharing a
+   * vertex with the given cell, they are looked up directly through the grid's neighbor offsets
+   * instead of being compared against every cell in the grid.
+   *
+   * @param grid the representation of the cells on the 2D plane
+   * @param cell the central cell whose neighbors we are aiming to get
+   * @return a list of cells, each cell representing a neighbor of the given cell
+   */
+  @Override
+  public List<Cell> getNeighbors(Grid grid, Cell cell) {
+    return grid.getCellsSharingVertex(cell);
+  }
+
   /**
    * Abstract method that determines if two cells are neighbors under a certain grid. This method
    * uses the Moore criterion for neighbors, which requires that the two cells share a vertex
@@ -25,12 +38,6 @@ public class MooreNeighborhood extends Neighborhood {
    */
   @Override
   public boolean isValidNeighbor(Cell cell1, Cell cell2, Grid grid) {
-    List<Point[]> verticesPairs = getPairwiseVertices(cell1, cell2);
-    for (Point[] verticesPair : verticesPairs) {
-      if (grid.vertexEqual(verticesPair[0], verticesPair[1])) {
-        return true;
-      }
-    }
-    return false;
+    return grid.sharesVertex(cell1, cell2);
   }
 }
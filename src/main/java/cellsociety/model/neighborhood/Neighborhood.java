@@ -26,6 +26,20 @@ public abstract class Neighborhood<T extends Cell> {
    * @return a list of cells, each cell representing a neighbor of the given cell
    */
   public List<T> getNeighbors(Grid grid, T cell) {
+    return scanNeighbors(grid, cell);
+  }
+
+  /**
+   * Retrieves all neighbors of a cell object by checking isValidNeighbor against every other cell
+   * in the grid. This works for any neighborhood definition, but takes time proportional to the
+   * size of the grid, so subclasses that can locate their neighbors directly should override
+   * getNeighbors.
+   *
+   * @param grid the representation of the cells on the 2D plane
+   * @param cell the central cell whose neighbors we are aiming to get
+   * @return a list of cells, each cell representing a neighbor of the given cell
+   */
+  protected List<T> scanNeighbors(Grid grid, T cell) {
     List<T> neighbors = new ArrayList<>();
     Iterator<T> iter = grid.iterator();
     while (iter.hasNext()) {
@@ -1,8 +1,8 @@
 package cellsociety.model.neighborhood;
 
-import cellsociety.Point;
 import cellsociety.model.core.cell.Cell;
 import cellsociety.model.core.grid.Grid;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -15,6 +15,25 @@ import java.util.List;
 
 public class VonNeumannNeighborhood extends Neighborhood {
 
+  /**
+   * Retrieves all Von Neumann neighbors of a cell. Only cells sharing a vertex with the given cell
+   * can be Von Neumann neighbors, so those are looked up directly through the grid's neighbor
+   * offsets and then filtered down to the ones that are vertically or horizontally adjacent.
+   *
+   * @param grid the representation of the cells on the 2D plane
+   * @param cell the central cell whose neighbors we are aiming to get
+   * @return a list of cells, each cell representing a neighbor of the given cell
+   */
+  @Override
+  public List<Cell> getNeighbors(Grid grid, Cell cell) {
+    List<Cell> neighbors = new ArrayList<>();
+    for (Object otherCell : grid.getCellsSharingVertex(cell)) {
+      if (isAligned(cell, (Cell) otherCell)) {
+        neighbors.add((Cell) otherCell);
+      }
+    }
+    return neighbors;
+  }
 
   /**
    * Abstract method that determines if two cells are neighbors under a certain grid. This method
@@ -28,14 +47,19 @@ public class VonNeumannNeighborhood extends Neighborhood {
    */
   @Override
   public boolean isValidNeighbor(Cell cell1, Cell cell2, Grid grid) {
-    List<Point[]> verticesPairs = getPairwiseVertices(cell1, cell2);
-    for (Point[] verticesPair : verticesPairs) {
-      if (grid.vertexEqual(verticesPair[0], verticesPair[1]) &&
-          (cell2.getCentroid().getCol() == cell1.getCentroid().getCol()
-              || cell2.getCentroid().getRow() == cell1.getCentroid().getRow())) {
-        return true;
-      }
-    }
-    return false;
+    return isAligned(cell1, cell2) && grid.sharesVertex(cell1, cell2);
+  }
+
+  /**
+   * Determines if two cells are directly vertically or horizontally adjacent, by comparing their
+   * centroids
+   *
+   * @param cell1 potential neighbor of cell 2
+   * @param cell2 potential neighbor of cell 1
+   * @return true if and only if the cells share a centroid row or a centroid column
+   */
+  private boolean isAligned(Cell cell1, Cell cell2) {
+    return cell2.getCentroid().getCol() == cell1.getCentroid().getCol()
+        || cell2.getCentroid().getRow() == cell1.getCentroid().getRow();
   }
 }
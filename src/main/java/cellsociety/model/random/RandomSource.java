@@ -0,0 +1,130 @@
+package cellsociety.model.random;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * The RandomSource provides all random numbers used by a simulation. Every random number is derived
+ * from the seed of the simulation, the current timestep, and a key naming who is drawing it (for
+ * example the location of a cell), rather than from a single shared generator. Two runs with the
+ * same seed therefore draw the same numbers no matter how many threads step the grid or in which
+ * order the cells are visited, and threads never contend over a generator.
+ */
+
+public class RandomSource {
+
+  /**
+   * Odd constant from the SplitMix64 generator, used to space out consecutive inputs before mixing
+   */
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final double DOUBLE_UNIT = 0x1.0p-53;
+  private final long mySeed;
+  private long myStep;
+
+  /**
+   * Constructs a random source starting at timestep 0
+   *
+   * @param seed the seed from which every random number is derived
+   */
+  public RandomSource(long seed) {
+    mySeed = seed;
+  }
+
+  /**
+   * @return a new unpredictable seed, for simulations that were not given one
+   */
+  public static long randomSeed() {
+    return new SplittableRandom().nextLong();
+  }
+
+  /**
+   * Computes the key naming the cell at a location, for use with getStream and nextDouble
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the key of the cell, which is never negative for non-negative rows and columns
+   */
+  public static long locationKey(int row, int col) {
+    return ((long) row << Integer.SIZE) | (col & 0xFFFFFFFFL);
+  }
+
+  public long getSeed() {
+    return mySeed;
+  }
+
+  /**
+   * @return the number of timesteps that have been completed
+   */
+  public long getStep() {
+    return myStep;
+  }
+
+  /**
+   * Moves on to the next timestep, so that every key draws new random numbers
+   */
+  public void advance() {
+    myStep++;
+  }
+
+  /**
+   * Skips ahead by several timesteps at once, drawing the same numbers afterwards as calling
+   * advance that many times
+   *
+   * @param steps the number of timesteps to skip
+   */
+  public void advance(long steps) {
+    myStep += steps;
+  }
+
+  /**
+   * Retrieves a random number generator for one key during the current timestep. Calling this
+   * twice with the same key in the same timestep yields generators producing the same sequence.
+   *
+   * @param key the key of the cell or task drawing the numbers
+   * @return a new generator, to be used by a single thread
+   */
+  public Random getStream(long key) {
+    return new Random(mix(key, 0));
+  }
+
+  /**
+   * Resets an existing generator so that it produces the same sequence as the generator getStream
+   * would return for the same key, which avoids creating a generator per key.
+   *
+   * @param random the generator to reset, to be used by a single thread
+   * @param key    the key of the cell or task drawing the numbers
+   */
+  public void resetStream(Random random, long key) {
+    random.setSeed(mix(key, 0));
+  }
+
+  /**
+   * Draws a single uniformly distributed number without creating a generator. The result depends
+   * only on the seed, the timestep, the key and the draw.
+   *
+   * @param key  the key of the cell or task drawing the number
+   * @param draw distinguishes several numbers drawn with the same key in the same timestep
+   * @return a number greater than or equal to 0 and less than 1
+   */
+  public double nextDouble(long key, int draw) {
+    return (mix(key, draw) >>> (Long.SIZE - 53)) * DOUBLE_UNIT;
+  }
+
+  /**
+   * Combines the seed, the current timestep, a key and a draw into a single well mixed value
+   */
+  private long mix(long key, int draw) {
+    long value = mix64(mySeed + myStep * GOLDEN_GAMMA);
+    value = mix64(value ^ key);
+    return mix64(value + (draw + 1) * GOLDEN_GAMMA);
+  }
+
+  /**
+   * Finalizer of the SplitMix64 generator, which maps similar inputs to unrelated outputs
+   */
+  private static long mix64(long value) {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return value ^ (value >>> 31);
+  }
+}
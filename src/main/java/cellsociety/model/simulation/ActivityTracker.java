@@ -0,0 +1,130 @@
+package cellsociety.model.simulation;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps track of which cells of a grid need to be transitioned in the next timestep. A cell whose
+ * next state depends only on its own state and its neighbors' states cannot change unless it or
+ * one of its neighbors changed in the previous timestep, so after each timestep only the cells that
+ * changed and the cells that have them as a neighbor remain active. Cells are referred to by their
+ * index in row major order.
+ */
+
+class ActivityTracker {
+
+  private static final int[] NO_CELLS = new int[0];
+
+  private final int mySize;
+  /**
+   * The cells that have cell i as a neighbor are myDependents[myDependentStarts[i]] up to
+   * myDependents[myDependentStarts[i + 1] - 1]
+   */
+  private final int[] myDependentStarts;
+  private final int[] myDependents;
+  private final boolean[] myMarked;
+  private int[] myActiveCells;
+  private int[] myChangedCells;
+
+  /**
+   * Constructs a tracker in which every cell is active
+   *
+   * @param size      the number of cells in the grid
+   * @param neighbors gives the indices of the neighbors of the cell at an index
+   */
+  ActivityTracker(int size, IntFunction<int[]> neighbors) {
+    mySize = size;
+    int[][] neighborLists = new int[size][];
+    myDependentStarts = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      neighborLists[i] = neighbors.apply(i);
+      for (int neighbor : neighborLists[i]) {
+        myDependentStarts[neighbor + 1]++;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      myDependentStarts[i + 1] += myDependentStarts[i];
+    }
+    myDependents = new int[myDependentStarts[size]];
+    int[] positions = Arrays.copyOf(myDependentStarts, size);
+    for (int i = 0; i < size; i++) {
+      for (int neighbor : neighborLists[i]) {
+        myDependents[positions[neighbor]++] = i;
+      }
+    }
+    myMarked = new boolean[size];
+    myChangedCells = NO_CELLS;
+    activateAll();
+  }
+
+  /**
+   * Makes every cell active, for when something other than a change of state (such as a change of
+   * parameters) may alter the next state of any cell
+   */
+  void activateAll() {
+    myActiveCells = new int[mySize];
+    Arrays.setAll(myActiveCells, i -> i);
+  }
+
+  /**
+   * @return the indices of the cells to transition in the next timestep, in increasing order
+   */
+  int[] getActiveCells() {
+    return myActiveCells;
+  }
+
+  /**
+   * @return the indices of the cells whose state changed in the last timestep, in increasing order
+   */
+  int[] getChangedCells() {
+    return myChangedCells;
+  }
+
+  /**
+   * Records which cells changed state in the timestep that just ended, activating them and every
+   * cell that has one of them as a neighbor
+   *
+   * @param changedCells an array starting with the indices of the changed cells, in increasing
+   *                     order
+   * @param count        the number of changed cells at the start of the array
+   */
+  void setChangedCells(int[] changedCells, int count) {
+    myChangedCells = Arrays.copyOf(changedCells, count);
+    int[] active = new int[Math.min(mySize, count * 2)];
+    int numActive = 0;
+    for (int cell : myChangedCells) {
+      active = ensureCapacity(active, numActive + 1 + myDependentStarts[cell + 1]
+          - myDependentStarts[cell]);
+      numActive = activate(cell, active, numActive);
+      for (int i = myDependentStarts[cell]; i < myDependentStarts[cell + 1]; i++) {
+        numActive = activate(myDependents[i], active, numActive);
+      }
+    }
+    myActiveCells = Arrays.copyOf(active, numActive);
+    for (int cell : myActiveCells) {
+      myMarked[cell] = false;
+    }
+    Arrays.sort(myActiveCells);
+  }
+
+  /**
+   * Adds a cell to the active cells if it is not already there
+   *
+   * @return the new number of active cells
+   */
+  private int activate(int cell, int[] active, int numActive) {
+    if (myMarked[cell]) {
+      return numActive;
+    }
+    myMarked[cell] = true;
+    active[numActive] = cell;
+    return numActive + 1;
+  }
+
+  private int[] ensureCapacity(int[] array, int capacity) {
+    if (capacity <= array.length) {
+      return array;
+    }
+    return Arrays.copyOf(array, Math.min(mySize, Math.max(capacity, array.length * 2)));
+  }
+}
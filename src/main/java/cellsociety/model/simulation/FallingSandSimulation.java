@@ -5,7 +5,6 @@ import cellsociety.model.core.cell.FallingSandCell;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.neighborhood.Neighborhood;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -22,6 +21,7 @@ public class FallingSandSimulation extends Simulation<FallingSandCell> {
   public static final int WATER = 2;
   public static final int METAL = 3;
   public static final int[] UPDATE_ORDER = {METAL, SAND, WATER, EMPTY};
+  private FallingSandCell[] myCells;
 
   /**
    * Initializes a FallingSandSimulation object
@@ -36,7 +36,7 @@ public class FallingSandSimulation extends Simulation<FallingSandCell> {
 
   public FallingSandSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
+    super(hoodType, r.gridType(), r.seed());
     createCellsAndGrid(row, col, stateList, getCellShape(r.cellShape()), hoodType);
   }
 
@@ -61,30 +61,38 @@ public class FallingSandSimulation extends Simulation<FallingSandCell> {
 
 
   /**
-   * Transition function for Falling Sand. Iterates through each cell, starting with sand then
-   * water, then other, and calls the cell's transition function.
+   * Initializes the grid, and keeps the cells in row major order so that they can be swept from the
+   * bottom of the grid up
+   *
+   * @param row,      number of rows in simulation
+   * @param col,      number of columns in simulation
+   * @param cellList, all cells in simulation, listed in row major order
+   */
+  @Override
+  public void initializeMyGrid(int row, int col, List<FallingSandCell> cellList) {
+    super.initializeMyGrid(row, col, cellList);
+    myCells = cellList.toArray(new FallingSandCell[0]);
+  }
+
+  /**
+   * Transition function for Falling Sand. Sweeps the grid once for each state, starting with metal
+   * then sand then water then empty, and calls the transition function of every cell in that state
+   * that has not been given a next state. Each sweep runs from the last cell up to the first, so
+   * cells lower in the grid move first and make room for the cells above them. A cell only changes
+   * the cells below or beside it, never a cell still waiting in the same sweep, so checking each
+   * cell as the sweep reaches it finds the same cells as collecting them beforehand.
    */
   @Override
   public void transitionFunction() {
     for (int cellToUpdate : UPDATE_ORDER) {
-      List<FallingSandCell> cellsToUpdate = new ArrayList<>();
-
-      // Collect cells to update in reverse order
-      Iterator<FallingSandCell> gridIterator = getIterator();
-      while (gridIterator.hasNext()) {
-        FallingSandCell currentCell = gridIterator.next();
+      for (int i = myCells.length - 1; i >= 0; i--) {
+        FallingSandCell currentCell = myCells[i];
         if (currentCell.getNextState() == Cell.PLACEHOLDER &&
             currentCell.getCurrentState() == cellToUpdate) {
-          cellsToUpdate.add(currentCell);
+          currentCell.transition();
         }
       }
-
-      // Update cells in reverse order
-      for (int i = cellsToUpdate.size() - 1; i >= 0; i--) {
-        FallingSandCell currentCell = cellsToUpdate.get(i);
-        currentCell.transition();
-      }
     }
   }
 
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package cellsociety.model.simulation;
 
 import cellsociety.model.core.cell.FireCell;
+import cellsociety.model.core.grid.PackedGrid;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.neighborhood.Neighborhood;
 import java.util.ArrayList;
@@ -14,16 +15,20 @@ import java.util.Map;
  * @author Noah Loewy
  */
 
-public class FireSimulation extends Simulation<FireCell> {
+public class FireSimulation extends Simulation<FireCell> implements PackedRule<FireCell> {
 
   public static final int EMPTY = 0;
   public static final int TREE = 1;
   public static final int BURNING = 2;
 
 
-  private final double probTreeIgnites;
-  private final double probTreeCreated;
-  private final int neighborsToIgnite;
+  private double probTreeIgnites;
+  private double probTreeCreated;
+  private int neighborsToIgnite;
+  /**
+   * Cell holding the current parameters, which applies the rules to every location of a packed grid
+   */
+  private FireCell myRuleCell;
 
 
   /**
@@ -38,11 +43,10 @@ public class FireSimulation extends Simulation<FireCell> {
    */
   public FireSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
-    this.neighborsToIgnite = (int) Math.floor(r.params().get("neighborsToIgnite"));
-    this.probTreeIgnites = r.params().get("probTreeIgnites");
-    this.probTreeCreated = r.params().get("probTreeCreated");
+    super(hoodType, r.gridType(), r.seed());
+    readParams(r.params());
     createCellsAndGrid(row, col, stateList, getCellShape(r.cellShape()), hoodType);
+    makeRuleCell();
   }
 
   /**
@@ -56,13 +60,75 @@ public class FireSimulation extends Simulation<FireCell> {
   @Override
   public List<FireCell> cellMaker(int col, List<Integer> stateList, Shape shape) {
     List<FireCell> cellList = new ArrayList<>();
+    for (int i = 0; i < stateList.size(); i++) {
+      cellList.add(makeCell(stateList.get(i), i / col, i % col, shape));
+    }
+    return cellList;
+  }
+
+  /**
+   * Creates a single FireCell with the parameters of this simulation
+   *
+   * @param state the integer representation of the cell's current state
+   * @param row   the row the cell is positioned at as represented on a 2D grid
+   * @param col   the column the cell is positioned at as represented on a 2D grid
+   * @param shape Shape object representing the shape of the cell as represented on 2d plane
+   * @return the initialized FireCell
+   */
+  @Override
+  public FireCell makeCell(int state, int row, int col, Shape shape) {
     Map<String, Double> params = new HashMap<>();
     params.put("neighborsToIgnite", (double) neighborsToIgnite);
     params.put("probTreeIgnites", probTreeIgnites);
     params.put("probTreeCreated", probTreeCreated);
-    for (int i = 0; i < stateList.size(); i++) {
-      cellList.add(new FireCell(stateList.get(i), i / col, i % col, shape, params));
-    }
-    return cellList;
+    return new FireCell(state, row, col, shape, params);
+  }
+
+  /**
+   * Computes the next state of a location in a packed grid with the current parameters, drawing
+   * the random number belonging to that location
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  @Override
+  public int computeNextState(PackedGrid grid, int index) {
+    return myRuleCell.computeNextState(grid, index);
+  }
+
+  /**
+   * Updates the parameters of the simulation, including those of the cells it creates from a
+   * packed grid
+   *
+   * @param newParameters, the updated parameter values
+   */
+  @Override
+  public void setParams(Map<String, Double> newParameters) {
+    readParams(newParameters);
+    makeRuleCell();
+    super.setParams(newParameters);
+  }
+
+  private void readParams(Map<String, Double> params) {
+    neighborsToIgnite = (int) Math.floor(params.get("neighborsToIgnite"));
+    probTreeIgnites = params.get("probTreeIgnites");
+    probTreeCreated = params.get("probTreeCreated");
+  }
+
+  private void makeRuleCell() {
+    myRuleCell = makeCell(EMPTY, 0, 0, getShape());
+    myRuleCell.setRandomSource(getRandomSource());
+  }
+
+  /**
+   * Fire cells only read the current states of their neighbors, so the grid can be stepped in
+   * parallel
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsParallelStepping() {
+    return true;
   }
 }
@@ -1,28 +1,63 @@
 package cellsociety.model.simulation;
 
+import cellsociety.exception.InvalidValueException;
 import cellsociety.model.core.cell.LifeCell;
+import cellsociety.model.core.grid.PackedGrid;
+import cellsociety.model.core.shape.RectangleShape;
 import cellsociety.model.core.shape.Shape;
+import cellsociety.model.neighborhood.MooreNeighborhood;
 import cellsociety.model.neighborhood.Neighborhood;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
- * This cellular automata simulation represents Conway's Game of Life.
+ * This cellular automata simulation represents Conway's Game of Life. Grids of square cells with
+ * Moore neighbors are stepped on a LifeBitBoard, which updates 64 cells at a time, unless bit board
+ * stepping is turned off; every other grid is stepped cell by cell. Such grids without warped edges
+ * can also jump ahead by millions of generations with HashLife.
  * <p>
  * author @Noah Loewy
  */
 
-public class GameOfLifeSimulation extends Simulation<LifeCell> {
+public class GameOfLifeSimulation extends Simulation<LifeCell> implements PackedRule<LifeCell> {
 
   public static final int DEAD = 0;
   public static final int ALIVE = 1;
 
-  private final int aliveToAliveMin;
-  private final int aliveToAliveMax;
-  private final int deadToAliveMin;
-  private final int deadToAliveMax;
+  /**
+   * Smallest number of rows or columns a warped grid needs for every cell to have eight distinct
+   * neighbors, as the bit board assumes
+   */
+  private static final int MIN_WARPED_SIZE = 3;
+  /**
+   * Approximate memory used by each quadtree node HashLife keeps, including its slot in the table
+   */
+  private static final int HASHLIFE_BYTES_PER_NODE = 100;
+  /**
+   * HashLife keeps as many nodes as fit in this fraction of the largest heap, within the bounds
+   * below. Chaotic patterns need millions of nodes to avoid recomputing the same regions.
+   */
+  private static final int HASHLIFE_HEAP_FRACTION = 4;
+  private static final int HASHLIFE_MIN_NODES = 1 << 16;
+  private static final int HASHLIFE_MAX_NODES = 1 << 24;
+  private int aliveToAliveMin;
+  private int aliveToAliveMax;
+  private int deadToAliveMin;
+  private int deadToAliveMax;
+  private boolean useBitBoard = true;
+  private LifeBitBoard myBitBoard;
+  private HashLife myHashLife;
+  private int myNumRows;
+  private int myNumCols;
+  /**
+   * Cell holding the current rules, which applies them to every location of a packed grid
+   */
+  private LifeCell myRuleCell;
 
   /**
    * Initializes a GameOfLifeSimulation object
@@ -36,13 +71,13 @@ public class GameOfLifeSimulation extends Simulation<LifeCell> {
    */
   public GameOfLifeSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
-    r.params().get("probTreeIgnites");
+    super(hoodType, r.gridType(), r.seed());
     this.aliveToAliveMin = (int) Math.floor(r.params().get("aliveToAliveMin"));
     this.aliveToAliveMax = (int) Math.floor(r.params().get("aliveToAliveMax"));
     this.deadToAliveMin = (int) Math.floor(r.params().get("deadToAliveMin"));
     this.deadToAliveMax = (int) Math.floor(r.params().get("deadToAliveMax"));
     createCellsAndGrid(row, col, stateList, getCellShape(r.cellShape()), hoodType);
+    myRuleCell = makeCell(DEAD, 0, 0, getShape());
   }
 
   /**
@@ -57,17 +92,294 @@ public class GameOfLifeSimulation extends Simulation<LifeCell> {
   @Override
   public List<LifeCell> cellMaker(int col, List<Integer> stateList, Shape shape) {
     List<LifeCell> cellList = new ArrayList<>();
+    for (int i = 0; i < stateList.size(); i++) {
+      cellList.add(makeCell(stateList.get(i), i / col, i % col, shape));
+    }
+    return cellList;
+  }
+
+  /**
+   * Creates a single LifeCell with the parameters of this simulation
+   *
+   * @param state the integer representation of the cell's current state
+   * @param row   the row the cell is positioned at as represented on a 2D grid
+   * @param col   the column the cell is positioned at as represented on a 2D grid
+   * @param shape Shape object representing the shape of the cell as represented on 2d plane
+   * @return the initialized LifeCell
+   */
+  @Override
+  public LifeCell makeCell(int state, int row, int col, Shape shape) {
     Map<String, Integer> params = new HashMap<>();
     params.put("aliveToAliveMin", aliveToAliveMin);
     params.put("aliveToAliveMax", aliveToAliveMax);
     params.put("deadToAliveMin", deadToAliveMin);
     params.put("deadToAliveMax", deadToAliveMax);
-    for (int i = 0; i < stateList.size(); i++) {
-      cellList.add(new LifeCell(stateList.get(i), i / col, i % col, shape, params));
+    return new LifeCell(state, row, col, shape, params);
+  }
+
+  /**
+   * Initializes the grid of cells, then moves the states onto a bit board if the grid has square
+   * cells with Moore neighbors and bit board stepping is enabled
+   *
+   * @param row,      number of rows in simulation
+   * @param col,      number of columns in simulation
+   * @param cellList, all cells in simulation, listed in row major order
+   */
+  @Override
+  public void initializeMyGrid(int row, int col, List<LifeCell> cellList) {
+    super.initializeMyGrid(row, col, cellList);
+    myNumRows = row;
+    myNumCols = col;
+    myBitBoard = null;
+    if (useBitBoard && canUseBitBoard(cellList)) {
+      myBitBoard = new LifeBitBoard(row, col, getGridType().equals("Warped"));
+      myBitBoard.setRule(aliveToAliveMin, aliveToAliveMax, deadToAliveMin, deadToAliveMax);
+      for (int i = 0; i < cellList.size(); i++) {
+        myBitBoard.setAlive(i / col, i % col, cellList.get(i).getCurrentState() == ALIVE);
+      }
+      myBitBoard.clearChanges();
     }
-    return cellList;
   }
 
+  /**
+   * Checks that a grid has exactly the neighbors a bit board assumes: square cells, the plain Moore
+   * neighborhood, at least three rows and columns if the edges wrap around, and only dead or alive
+   * cells
+   */
+  private boolean canUseBitBoard(List<LifeCell> cellList) {
+    if (!hasSquareMooreCells()) {
+      return false;
+    }
+    if (getGridType().equals("Warped")
+        && (myNumRows < MIN_WARPED_SIZE || myNumCols < MIN_WARPED_SIZE)) {
+      return false;
+    }
+    return cellList.stream()
+        .allMatch(cell -> cell.getCurrentState() == ALIVE || cell.getCurrentState() == DEAD);
+  }
+
+  private boolean hasSquareMooreCells() {
+    return getShape() instanceof RectangleShape
+        && getNeighborhood().getClass() == MooreNeighborhood.class;
+  }
+
+  /**
+   * Advances the simulation by many generations at once. Grids of square cells with Moore
+   * neighbors and edges that do not wrap around jump with HashLife, taking time that grows with
+   * the logarithm of the number of generations for most patterns; other grids step one generation
+   * at a time. The memory HashLife uses is kept between jumps, so that later jumps reuse the
+   * patterns found by earlier ones, until the rules change.
+   *
+   * @param generations the number of generations to advance
+   * @throws InvalidValueException if generations is negative
+   */
+  @Override
+  public void jumpGenerations(long generations) throws InvalidValueException {
+    int[] states = getCurrentStates();
+    if (generations < 0 || !hasSquareMooreCells() || !getGridType().equals("Normal")
+        || !Arrays.stream(states).allMatch(state -> state == ALIVE || state == DEAD)) {
+      super.jumpGenerations(generations);
+      return;
+    }
+    if (myHashLife == null) {
+      myHashLife = new HashLife(LifeBitBoard.countsInRange(aliveToAliveMin, aliveToAliveMax),
+          LifeBitBoard.countsInRange(deadToAliveMin, deadToAliveMax), getHashLifeNodeLimit());
+    }
+    int[] nextStates = myHashLife.jump(states, myNumRows, myNumCols, generations);
+    if (myBitBoard != null) {
+      myBitBoard.clearChanges();
+      for (int i = 0; i < nextStates.length; i++) {
+        myBitBoard.setAlive(i / myNumCols, i % myNumCols, nextStates[i] == ALIVE);
+      }
+    } else {
+      List<LifeCell> cellList = new ArrayList<>();
+      for (int i = 0; i < nextStates.length; i++) {
+        cellList.add(makeCell(nextStates[i], i / myNumCols, i % myNumCols, getShape()));
+      }
+      initializeMyGrid(myNumRows, myNumCols, cellList);
+    }
+    getRandomSource().advance(generations);
+  }
+
+  private static int getHashLifeNodeLimit() {
+    long nodes = Runtime.getRuntime().maxMemory() / HASHLIFE_HEAP_FRACTION
+        / HASHLIFE_BYTES_PER_NODE;
+    return (int) Math.max(HASHLIFE_MIN_NODES, Math.min(HASHLIFE_MAX_NODES, nodes));
+  }
+
+  /**
+   * Enables or disables bit board stepping, which is enabled by default. Disabling it moves the
+   * states back onto the cells, which are then stepped according to the other stepping options.
+   *
+   * @param enabled true to step grids of square Moore cells on a bit board
+   */
+  public void setBitBoardStepping(boolean enabled) {
+    if (enabled == useBitBoard) {
+      return;
+    }
+    List<LifeCell> cellList = new ArrayList<>();
+    getIterator().forEachRemaining(cellList::add);
+    useBitBoard = enabled;
+    initializeMyGrid(myNumRows, myNumCols, cellList);
+  }
+
+  /**
+   * @return true if and only if the simulation is currently stepped on a bit board
+   */
+  public boolean isBitBoardStepping() {
+    return myBitBoard != null;
+  }
+
+  /**
+   * Computes the next generation, on the bit board when there is one. Rows of the bit board are
+   * computed in parallel when parallel stepping is enabled.
+   */
+  @Override
+  public void transitionFunction() {
+    if (myBitBoard == null) {
+      super.transitionFunction();
+    } else if (isParallelStepping()) {
+      RowStripeTask.forEachRow(myNumRows, myBitBoard::computeNextRow);
+    } else {
+      for (int row = 0; row < myNumRows; row++) {
+        myBitBoard.computeNextRow(row);
+      }
+    }
+  }
+
+  @Override
+  public void processUpdate() {
+    if (myBitBoard == null) {
+      super.processUpdate();
+      return;
+    }
+    myBitBoard.swap();
+    getRandomSource().advance();
+  }
+
+  /**
+   * Retrieves the cells of the grid. When the simulation is stepped on a bit board, the cells are
+   * snapshots of the board, as with a packed grid.
+   *
+   * @return Iterator object that can iterate through the grid
+   */
+  @Override
+  public Iterator<LifeCell> getIterator() {
+    if (myBitBoard == null) {
+      return super.getIterator();
+    }
+    return makeSnapshotCells(IntStream.range(0, myNumRows * myNumCols));
+  }
+
+  /**
+   * On a bit board, the cells that changed are always known, whether or not incremental stepping is
+   * enabled
+   */
+  @Override
+  public int[] getChangedCells() {
+    if (myBitBoard == null) {
+      return super.getChangedCells();
+    }
+    return myBitBoard.getChangedCells();
+  }
+
+  @Override
+  public Iterator<LifeCell> getChangedCellIterator() {
+    if (myBitBoard == null) {
+      return super.getChangedCellIterator();
+    }
+    return makeSnapshotCells(Arrays.stream(myBitBoard.getChangedCells()));
+  }
+
+  private Iterator<LifeCell> makeSnapshotCells(IntStream indices) {
+    return indices.mapToObj(i -> makeCell(myBitBoard.isAlive(i / myNumCols, i % myNumCols)
+        ? ALIVE : DEAD, i / myNumCols, i % myNumCols, getShape())).iterator();
+  }
+
+  @Override
+  public void copyCurrentStates(int[] states) {
+    if (myBitBoard == null) {
+      super.copyCurrentStates(states);
+      return;
+    }
+    Arrays.setAll(states, this::getCurrentState);
+  }
+
+  @Override
+  public int getCurrentState(int index) {
+    if (myBitBoard == null) {
+      return super.getCurrentState(index);
+    }
+    return myBitBoard.isAlive(index / myNumCols, index % myNumCols) ? ALIVE : DEAD;
+  }
+
+  /**
+   * The states of a packed grid are out of date while the simulation is stepped on a bit board
+   *
+   * @return the packed grid, or null if the simulation is not using one or is stepped on a bit
+   * board
+   */
+  @Override
+  public PackedGrid getPackedGrid() {
+    if (myBitBoard != null) {
+      return null;
+    }
+    return super.getPackedGrid();
+  }
+
+  /**
+   * Updates the rules of every cell, of the cells created later on, and of the bit board, and
+   * discards the results HashLife remembered under the old rules
+   *
+   * @param newParameters, the updated parameter values
+   */
+  @Override
+  public void setParams(Map<String, Double> newParameters) {
+    aliveToAliveMin = (int) Math.floor(newParameters.get("aliveToAliveMin"));
+    aliveToAliveMax = (int) Math.floor(newParameters.get("aliveToAliveMax"));
+    deadToAliveMin = (int) Math.floor(newParameters.get("deadToAliveMin"));
+    deadToAliveMax = (int) Math.floor(newParameters.get("deadToAliveMax"));
+    myRuleCell = makeCell(DEAD, 0, 0, getShape());
+    super.setParams(newParameters);
+    myHashLife = null;
+    if (myBitBoard != null) {
+      myBitBoard.setRule(aliveToAliveMin, aliveToAliveMax, deadToAliveMin, deadToAliveMax);
+    }
+  }
+
+  /**
+   * Computes the next state of a location in a packed grid with the current rules
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  @Override
+  public int computeNextState(PackedGrid grid, int index) {
+    return myRuleCell.computeNextState(grid, index);
+  }
+
+  /**
+   * Life cells only read the current states of their neighbors, so the grid can be stepped in
+   * parallel
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsParallelStepping() {
+    return true;
+  }
+
+  /**
+   * The next state of a life cell is fully determined by its own state and the states of its
+   * neighbors, so a cell whose neighborhood did not change cannot change either
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsIncrementalStepping() {
+    return true;
+  }
 }
 
 
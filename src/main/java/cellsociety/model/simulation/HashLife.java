@@ -0,0 +1,348 @@
+package cellsociety.model.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Advances a Game of Life grid by any number of generations using Gosper's HashLife algorithm. The
+ * plane is divided into a quadtree whose nodes are canonicalized, so that identical regions are
+ * stored once, and each node remembers the region it becomes after a power of two generations, so
+ * that repeated patterns in space and time are only computed once. This is suited to jumps of
+ * millions of generations, which would take far too long one generation at a time.
+ * <p>
+ * The grid is surrounded by void cells, which are never alive and never change, so that cells past
+ * the edges of the grid count as dead neighbors and can never be born, as in a Grid. The
+ * canonical node table holds a bounded number of nodes; when it fills up, it is emptied and every
+ * remembered result is forgotten, which only costs the time to recompute them.
+ */
+
+class HashLife {
+
+  private static final int VOID = 2;
+  /**
+   * Largest power of two number of generations computed in one call of successor, keeping the
+   * coordinates of the universe within a long
+   */
+  private static final int MAX_STEP_EXPONENT = 56;
+
+  private final int mySurviveCounts;
+  private final int myBirthCounts;
+  private final int myMaxNodes;
+  private final Node[] myLeaves;
+  /**
+   * The node made entirely of void cells at each level, starting with the void leaf
+   */
+  private final List<Node> myVoidNodes;
+  private final Node[] myTable;
+  private int myNumNodes;
+
+  /**
+   * Constructs a HashLife engine for one rule
+   *
+   * @param surviveCounts bit n is set if an alive cell with n alive neighbors stays alive
+   * @param birthCounts   bit n is set if a dead cell with n alive neighbors becomes alive
+   * @param maxNodes      the largest number of nodes kept in the canonical node table
+   */
+  HashLife(int surviveCounts, int birthCounts, int maxNodes) {
+    mySurviveCounts = surviveCounts;
+    myBirthCounts = birthCounts;
+    myMaxNodes = maxNodes;
+    myTable = new Node[Integer.highestOneBit(maxNodes) * 4];
+    myLeaves = new Node[]{new Node(GameOfLifeSimulation.DEAD), new Node(GameOfLifeSimulation.ALIVE),
+        new Node(VOID)};
+    myVoidNodes = new ArrayList<>(List.of(myLeaves[VOID]));
+  }
+
+  /**
+   * Computes the states of a grid after a number of generations
+   *
+   * @param states      the current states of the grid in row major order, each dead or alive
+   * @param numRows     the number of rows in the grid
+   * @param numCols     the number of columns in the grid
+   * @param generations the number of generations to advance
+   * @return the states of the grid after the given number of generations, in row major order
+   */
+  int[] jump(int[] states, int numRows, int numCols, long generations) {
+    int level = 2;
+    while (1L << (level - 1) < Math.max(numRows, numCols)) {
+      level++;
+    }
+    long offset = 1L << (level - 2);
+    Node universe = build(level, -offset, -offset, states, numRows, numCols);
+    for (int exponent = 0; exponent < Long.SIZE - 1; exponent++) {
+      if ((generations >>> exponent & 1) == 0) {
+        continue;
+      }
+      int stepExponent = Math.min(exponent, MAX_STEP_EXPONENT);
+      for (long repeat = 0; repeat < 1L << (exponent - stepExponent); repeat++) {
+        while (universe.myLevel < stepExponent + 2) {
+          offset += 1L << (universe.myLevel - 1);
+          universe = centered(universe);
+        }
+        offset -= 1L << (universe.myLevel - 2);
+        universe = centered(successor(universe, stepExponent));
+        offset += 1L << (universe.myLevel - 2);
+      }
+    }
+    int[] result = new int[numRows * numCols];
+    read(universe, -offset, -offset, result, numRows, numCols);
+    return result;
+  }
+
+  /**
+   * Builds the node covering a square region of the grid, with void cells outside the grid
+   *
+   * @param level the level of the node, which covers 2^level by 2^level cells
+   * @param top   the row of the grid at the top of the node
+   * @param left  the column of the grid at the left of the node
+   */
+  private Node build(int level, long top, long left, int[] states, int numRows, int numCols) {
+    long size = 1L << level;
+    if (top >= numRows || left >= numCols || top + size <= 0 || left + size <= 0) {
+      return voidNode(level);
+    }
+    if (level == 0) {
+      return myLeaves[states[(int) top * numCols + (int) left]];
+    }
+    long half = size / 2;
+    return join(build(level - 1, top, left, states, numRows, numCols),
+        build(level - 1, top, left + half, states, numRows, numCols),
+        build(level - 1, top + half, left, states, numRows, numCols),
+        build(level - 1, top + half, left + half, states, numRows, numCols));
+  }
+
+  /**
+   * Writes the alive cells of a node that lie within the grid, leaving every other cell dead
+   *
+   * @param node the node to read
+   * @param top  the row of the grid at the top of the node
+   * @param left the column of the grid at the left of the node
+   */
+  private void read(Node node, long top, long left, int[] states, int numRows, int numCols) {
+    long size = 1L << node.myLevel;
+    if (node.isEmpty || top >= numRows || left >= numCols || top + size <= 0
+        || left + size <= 0) {
+      return;
+    }
+    if (node.myLevel == 0) {
+      states[(int) top * numCols + (int) left] = node.myState;
+      return;
+    }
+    long half = size / 2;
+    read(node.myNorthWest, top, left, states, numRows, numCols);
+    read(node.myNorthEast, top, left + half, states, numRows, numCols);
+    read(node.mySouthWest, top + half, left, states, numRows, numCols);
+    read(node.mySouthEast, top + half, left + half, states, numRows, numCols);
+  }
+
+  /**
+   * Computes the center half of a node after 2^stepExponent generations, which only depends on the
+   * cells of the node as long as stepExponent is at most the level of the node minus 2
+   *
+   * @param node         a node of level 2 or more
+   * @param stepExponent the base 2 logarithm of the number of generations
+   * @return the node one level down covering the center of the given node
+   */
+  private Node successor(Node node, int stepExponent) {
+    if (node.myResult != null && node.myResultStepExponent == stepExponent) {
+      return node.myResult;
+    }
+    Node result;
+    if (node.myLevel == 2) {
+      result = computeBaseCase(node);
+    } else if (node.isEmpty && (myBirthCounts & 1) == 0) {
+      result = center(node);
+    } else {
+      result = computeSuccessor(node, stepExponent);
+    }
+    node.myResult = result;
+    node.myResultStepExponent = stepExponent;
+    return result;
+  }
+
+  /**
+   * Splits a node into nine overlapping nodes one level down, advances each of them by half the
+   * generations (or none, when fewer generations are asked for than the node allows), then
+   * combines them into four nodes that are advanced by the remaining generations
+   */
+  private Node computeSuccessor(Node node, int stepExponent) {
+    Node[] parts = {node.myNorthWest, horizontalCenter(node.myNorthWest, node.myNorthEast),
+        node.myNorthEast, verticalCenter(node.myNorthWest, node.mySouthWest), center(node),
+        verticalCenter(node.myNorthEast, node.mySouthEast), node.mySouthWest,
+        horizontalCenter(node.mySouthWest, node.mySouthEast), node.mySouthEast};
+    boolean fullStep = stepExponent == node.myLevel - 2;
+    for (int i = 0; i < parts.length; i++) {
+      parts[i] = fullStep ? successor(parts[i], stepExponent - 1) : center(parts[i]);
+    }
+    int remaining = fullStep ? stepExponent - 1 : stepExponent;
+    return join(successor(join(parts[0], parts[1], parts[3], parts[4]), remaining),
+        successor(join(parts[1], parts[2], parts[4], parts[5]), remaining),
+        successor(join(parts[3], parts[4], parts[6], parts[7]), remaining),
+        successor(join(parts[4], parts[5], parts[7], parts[8]), remaining));
+  }
+
+  /**
+   * Advances the center four cells of a 4 by 4 node by one generation
+   */
+  private Node computeBaseCase(Node node) {
+    int[][] cells = new int[4][4];
+    Node[] quadrants = {node.myNorthWest, node.myNorthEast, node.mySouthWest, node.mySouthEast};
+    for (int q = 0; q < quadrants.length; q++) {
+      Node[] leaves = {quadrants[q].myNorthWest, quadrants[q].myNorthEast,
+          quadrants[q].mySouthWest, quadrants[q].mySouthEast};
+      for (int l = 0; l < leaves.length; l++) {
+        cells[q / 2 * 2 + l / 2][q % 2 * 2 + l % 2] = leaves[l].myState;
+      }
+    }
+    return join(myLeaves[nextState(cells, 1, 1)], myLeaves[nextState(cells, 1, 2)],
+        myLeaves[nextState(cells, 2, 1)], myLeaves[nextState(cells, 2, 2)]);
+  }
+
+  private int nextState(int[][] cells, int row, int col) {
+    if (cells[row][col] == VOID) {
+      return VOID;
+    }
+    int aliveNeighbors = 0;
+    for (int r = row - 1; r <= row + 1; r++) {
+      for (int c = col - 1; c <= col + 1; c++) {
+        if ((r != row || c != col) && cells[r][c] == GameOfLifeSimulation.ALIVE) {
+          aliveNeighbors++;
+        }
+      }
+    }
+    int counts = cells[row][col] == GameOfLifeSimulation.ALIVE ? mySurviveCounts : myBirthCounts;
+    return (counts >>> aliveNeighbors & 1) != 0 ? GameOfLifeSimulation.ALIVE
+        : GameOfLifeSimulation.DEAD;
+  }
+
+  /**
+   * @return the node one level down covering the center of a node
+   */
+  private Node center(Node node) {
+    return join(node.myNorthWest.mySouthEast, node.myNorthEast.mySouthWest,
+        node.mySouthWest.myNorthEast, node.mySouthEast.myNorthWest);
+  }
+
+  /**
+   * @return the node straddling the border between two side by side nodes
+   */
+  private Node horizontalCenter(Node west, Node east) {
+    return join(west.myNorthEast, east.myNorthWest, west.mySouthEast, east.mySouthWest);
+  }
+
+  /**
+   * @return the node straddling the border between two stacked nodes
+   */
+  private Node verticalCenter(Node north, Node south) {
+    return join(north.mySouthWest, north.mySouthEast, south.myNorthWest, south.myNorthEast);
+  }
+
+  /**
+   * @return the node one level up with the given node in its center and void cells around it
+   */
+  private Node centered(Node node) {
+    Node border = voidNode(node.myLevel - 1);
+    return join(join(border, border, border, node.myNorthWest),
+        join(border, border, node.myNorthEast, border),
+        join(border, node.mySouthWest, border, border),
+        join(node.mySouthEast, border, border, border));
+  }
+
+  private Node voidNode(int level) {
+    while (myVoidNodes.size() <= level) {
+      Node previous = myVoidNodes.get(myVoidNodes.size() - 1);
+      myVoidNodes.add(join(previous, previous, previous, previous));
+    }
+    return myVoidNodes.get(level);
+  }
+
+  /**
+   * Retrieves the canonical node with the given quadrants, creating it if needed. If the node table
+   * is full, it is emptied first.
+   */
+  private Node join(Node northWest, Node northEast, Node southWest, Node southEast) {
+    int hash = Node.hash(northWest, northEast, southWest, southEast);
+    int mask = myTable.length - 1;
+    int slot = hash & mask;
+    for (Node node = myTable[slot]; node != null; node = myTable[slot]) {
+      if (node.myNorthWest == northWest && node.myNorthEast == northEast
+          && node.mySouthWest == southWest && node.mySouthEast == southEast) {
+        return node;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (myNumNodes >= myMaxNodes) {
+      evict();
+      slot = hash & mask;
+    }
+    Node node = new Node(northWest, northEast, southWest, southEast, hash);
+    myTable[slot] = node;
+    myNumNodes++;
+    return node;
+  }
+
+  /**
+   * Empties the node table and forgets every remembered result. Nodes still in use remain valid,
+   * but may later be duplicated by new nodes with the same contents.
+   */
+  private void evict() {
+    for (Node node : myTable) {
+      if (node != null) {
+        node.myResult = null;
+      }
+    }
+    Arrays.fill(myTable, null);
+    myNumNodes = 0;
+  }
+
+  /**
+   * A square region of 2^level by 2^level cells, made of four regions one level down, or a single
+   * cell at level 0
+   */
+  private static class Node {
+
+    private final Node myNorthWest;
+    private final Node myNorthEast;
+    private final Node mySouthWest;
+    private final Node mySouthEast;
+    private final int myLevel;
+    private final int myState;
+    private final int myHash;
+    /**
+     * True if no cell of the region is alive
+     */
+    private final boolean isEmpty;
+    private Node myResult;
+    private int myResultStepExponent;
+
+    Node(int state) {
+      this(null, null, null, null, state, 0, state + 1, state != GameOfLifeSimulation.ALIVE);
+    }
+
+    Node(Node northWest, Node northEast, Node southWest, Node southEast, int hash) {
+      this(northWest, northEast, southWest, southEast, VOID, northWest.myLevel + 1, hash,
+          northWest.isEmpty && northEast.isEmpty && southWest.isEmpty && southEast.isEmpty);
+    }
+
+    private Node(Node northWest, Node northEast, Node southWest, Node southEast, int state,
+        int level, int hash, boolean empty) {
+      myNorthWest = northWest;
+      myNorthEast = northEast;
+      mySouthWest = southWest;
+      mySouthEast = southEast;
+      myState = state;
+      myLevel = level;
+      myHash = hash;
+      isEmpty = empty;
+    }
+
+    static int hash(Node northWest, Node northEast, Node southWest, Node southEast) {
+      int hash = northWest.myHash;
+      hash = hash * 0x9E3779B1 + northEast.myHash;
+      hash = hash * 0x9E3779B1 + southWest.myHash;
+      hash = hash * 0x9E3779B1 + southEast.myHash;
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
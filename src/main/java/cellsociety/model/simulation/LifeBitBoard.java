@@ -0,0 +1,278 @@
+package cellsociety.model.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Steps the Game of Life on a grid of square cells with Moore neighbors, storing 64 cells in each
+ * long so that the alive neighbors of 64 cells are counted at once with bitwise adders. Each row of
+ * the grid starts a new long, and bit j of the k-th long of a row is the cell in column 64k + j.
+ * The bits past the last column are always zero. Any rule where an alive cell survives, and a dead
+ * cell is born, when its number of alive neighbors lies in a range is supported. Like WarpedGrid,
+ * a board whose edges wrap around does not make the corner cells neighbors of the opposite corner,
+ * since the grid only wraps across one edge at a time.
+ */
+
+class LifeBitBoard {
+
+  private static final int MAX_NEIGHBORS = 8;
+  private static final int BITS_PER_WORD = Long.SIZE;
+
+  private final int myNumRows;
+  private final int myNumCols;
+  private final int myWordsPerRow;
+  private final boolean isWarped;
+  private final long myLastWordMask;
+  private long[] myCurrent;
+  private long[] myNext;
+  /**
+   * Bit n is set if an alive cell with n alive neighbors stays alive
+   */
+  private int mySurviveCounts;
+  /**
+   * Bit n is set if a dead cell with n alive neighbors becomes alive
+   */
+  private int myBirthCounts;
+
+  /**
+   * Constructs a board with every cell dead
+   *
+   * @param numRows the number of rows in the grid
+   * @param numCols the number of columns in the grid
+   * @param warped  true if the edges of the grid wrap around, false if the cells past the edges are
+   *                treated as dead
+   */
+  LifeBitBoard(int numRows, int numCols, boolean warped) {
+    myNumRows = numRows;
+    myNumCols = numCols;
+    myWordsPerRow = (numCols + BITS_PER_WORD - 1) / BITS_PER_WORD;
+    isWarped = warped;
+    int lastWordBits = numCols - (myWordsPerRow - 1) * BITS_PER_WORD;
+    myLastWordMask = lastWordBits == BITS_PER_WORD ? -1L : (1L << lastWordBits) - 1;
+    myCurrent = new long[numRows * myWordsPerRow];
+    myNext = new long[numRows * myWordsPerRow];
+  }
+
+  /**
+   * Sets the rule of the board, using the same inclusive ranges as LifeCell
+   *
+   * @param aliveToAliveMin minimum number of alive neighbors for an alive cell to stay alive
+   * @param aliveToAliveMax maximum number of alive neighbors for an alive cell to stay alive
+   * @param deadToAliveMin  minimum number of alive neighbors for a dead cell to become alive
+   * @param deadToAliveMax  maximum number of alive neighbors for a dead cell to become alive
+   */
+  void setRule(int aliveToAliveMin, int aliveToAliveMax, int deadToAliveMin, int deadToAliveMax) {
+    mySurviveCounts = countsInRange(aliveToAliveMin, aliveToAliveMax);
+    myBirthCounts = countsInRange(deadToAliveMin, deadToAliveMax);
+  }
+
+  /**
+   * @return a set of neighbor counts with bit n set if n lies between min and max, inclusive
+   */
+  static int countsInRange(int min, int max) {
+    int counts = 0;
+    for (int n = Math.max(min, 0); n <= Math.min(max, MAX_NEIGHBORS); n++) {
+      counts |= 1 << n;
+    }
+    return counts;
+  }
+
+  boolean isAlive(int row, int col) {
+    return (myCurrent[wordIndex(row, col)] >>> col & 1) != 0;
+  }
+
+  void setAlive(int row, int col, boolean alive) {
+    long bit = 1L << col;
+    if (alive) {
+      myCurrent[wordIndex(row, col)] |= bit;
+    } else {
+      myCurrent[wordIndex(row, col)] &= ~bit;
+    }
+  }
+
+  private int wordIndex(int row, int col) {
+    return row * myWordsPerRow + col / BITS_PER_WORD;
+  }
+
+  /**
+   * Computes the next generation of a row, writing it to the next board. Rows only read the current
+   * board and write their own words of the next board, so different rows can be computed
+   * concurrently.
+   *
+   * @param row the index of the row
+   */
+  void computeNextRow(int row) {
+    int above = neighborRowStart(row - 1);
+    int middle = row * myWordsPerRow;
+    int below = neighborRowStart(row + 1);
+    for (int k = 0; k < myWordsPerRow; k++) {
+      long north = above < 0 ? 0 : myCurrent[above + k];
+      long center = myCurrent[middle + k];
+      long south = below < 0 ? 0 : myCurrent[below + k];
+      long next = nextWord(
+          above < 0 ? 0 : west(above, k), north, above < 0 ? 0 : east(above, k),
+          west(middle, k), center, east(middle, k),
+          below < 0 ? 0 : west(below, k), south, below < 0 ? 0 : east(below, k));
+      myNext[middle + k] = k == myWordsPerRow - 1 ? next & myLastWordMask : next;
+    }
+    if (isWarped && (row == 0 || row == myNumRows - 1)) {
+      computeNextCorner(row, 0);
+      computeNextCorner(row, myNumCols - 1);
+    }
+  }
+
+  /**
+   * Recomputes the next state of a corner cell of a warped board one neighbor at a time, leaving
+   * out the opposite corner that the word computation counted as a neighbor
+   */
+  private void computeNextCorner(int row, int col) {
+    int aliveNeighbors = 0;
+    for (int rowOffset = -1; rowOffset <= 1; rowOffset++) {
+      for (int colOffset = -1; colOffset <= 1; colOffset++) {
+        if ((rowOffset != 0 || colOffset != 0) && isAlive(Math.floorMod(row + rowOffset, myNumRows),
+            Math.floorMod(col + colOffset, myNumCols))) {
+          aliveNeighbors++;
+        }
+      }
+    }
+    if (isAlive(myNumRows - 1 - row, myNumCols - 1 - col)) {
+      aliveNeighbors--;
+    }
+    int counts = isAlive(row, col) ? mySurviveCounts : myBirthCounts;
+    long bit = 1L << col;
+    if ((counts >>> aliveNeighbors & 1) != 0) {
+      myNext[wordIndex(row, col)] |= bit;
+    } else {
+      myNext[wordIndex(row, col)] &= ~bit;
+    }
+  }
+
+  /**
+   * @return the index of the first word of a row next to the current one, or -1 if the row is past
+   * the edge of a grid that does not wrap around
+   */
+  private int neighborRowStart(int row) {
+    if (row < 0 || row >= myNumRows) {
+      if (!isWarped) {
+        return -1;
+      }
+      row = Math.floorMod(row, myNumRows);
+    }
+    return row * myWordsPerRow;
+  }
+
+  /**
+   * @return word k of a row shifted so that each bit holds the cell to the left of its column
+   */
+  private long west(int rowStart, int k) {
+    long word = myCurrent[rowStart + k] << 1;
+    if (k > 0) {
+      return word | myCurrent[rowStart + k - 1] >>> (BITS_PER_WORD - 1);
+    }
+    if (isWarped) {
+      int lastCol = myNumCols - 1;
+      return word | myCurrent[rowStart + lastCol / BITS_PER_WORD] >>> lastCol & 1;
+    }
+    return word;
+  }
+
+  /**
+   * @return word k of a row shifted so that each bit holds the cell to the right of its column
+   */
+  private long east(int rowStart, int k) {
+    long word = myCurrent[rowStart + k] >>> 1;
+    if (k < myWordsPerRow - 1) {
+      return word | myCurrent[rowStart + k + 1] << (BITS_PER_WORD - 1);
+    }
+    if (isWarped) {
+      return word | (myCurrent[rowStart] & 1) << ((myNumCols - 1) % BITS_PER_WORD);
+    }
+    return word;
+  }
+
+  /**
+   * Adds up the eight neighbor words bit by bit into a four bit count per cell, then applies the
+   * rule to every cell of the word
+   */
+  private long nextWord(long northWest, long north, long northEast, long west, long center,
+      long east, long southWest, long south, long southEast) {
+    long sumA = northWest ^ north ^ northEast;
+    long carryA = (northWest & north) | (northEast & (northWest ^ north));
+    long sumB = west ^ east ^ southWest;
+    long carryB = (west & east) | (southWest & (west ^ east));
+    long sumC = south ^ southEast;
+    long carryC = south & southEast;
+    long ones = sumA ^ sumB ^ sumC;
+    long carryOnes = (sumA & sumB) | (sumC & (sumA ^ sumB));
+    long twosSum = carryA ^ carryB ^ carryC;
+    long twosCarry = (carryA & carryB) | (carryC & (carryA ^ carryB));
+    long twos = twosSum ^ carryOnes;
+    long foursFromTwos = twosSum & carryOnes;
+    long fours = twosCarry ^ foursFromTwos;
+    long eights = twosCarry & foursFromTwos;
+    long survive = 0;
+    long birth = 0;
+    for (int n = 0; n <= MAX_NEIGHBORS; n++) {
+      if (((mySurviveCounts | myBirthCounts) >>> n & 1) == 0) {
+        continue;
+      }
+      long hasCount = matchBit(n, 1, ones) & matchBit(n, 2, twos) & matchBit(n, 4, fours)
+          & matchBit(n, 8, eights);
+      if ((mySurviveCounts >>> n & 1) != 0) {
+        survive |= hasCount;
+      }
+      if ((myBirthCounts >>> n & 1) != 0) {
+        birth |= hasCount;
+      }
+    }
+    return (center & survive) | (~center & birth);
+  }
+
+  /**
+   * @return the bits of a count word that agree with one bit of n
+   */
+  private static long matchBit(int n, int bit, long countWord) {
+    return (n & bit) != 0 ? countWord : ~countWord;
+  }
+
+  /**
+   * Makes the next generation current. The previous generation is kept until the next one is
+   * computed, so the cells that changed can still be found.
+   */
+  void swap() {
+    long[] previous = myCurrent;
+    myCurrent = myNext;
+    myNext = previous;
+  }
+
+  /**
+   * Forgets the previous generation, so that no cell is reported as changed
+   */
+  void clearChanges() {
+    myNext = Arrays.copyOf(myCurrent, myCurrent.length);
+  }
+
+  /**
+   * Finds the cells whose state differs between the current generation and the previous one. Only
+   * valid right after swap, before the next generation is computed.
+   *
+   * @return the row major indices of the changed cells, in increasing order
+   */
+  int[] getChangedCells() {
+    int count = 0;
+    for (int i = 0; i < myCurrent.length; i++) {
+      count += Long.bitCount(myCurrent[i] ^ myNext[i]);
+    }
+    int[] changedCells = new int[count];
+    int numChanged = 0;
+    for (int i = 0; i < myCurrent.length; i++) {
+      long changed = myCurrent[i] ^ myNext[i];
+      int firstCol = (i % myWordsPerRow) * BITS_PER_WORD;
+      int rowStart = (i / myWordsPerRow) * myNumCols;
+      while (changed != 0) {
+        changedCells[numChanged++] = rowStart + firstCol + Long.numberOfTrailingZeros(changed);
+        changed &= changed - 1;
+      }
+    }
+    return changedCells;
+  }
+}
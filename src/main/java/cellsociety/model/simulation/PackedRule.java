@@ -0,0 +1,39 @@
+package cellsociety.model.simulation;
+
+import cellsociety.model.core.cell.Cell;
+import cellsociety.model.core.grid.PackedGrid;
+import cellsociety.model.core.shape.Shape;
+
+/**
+ * The rules of a simulation that can be stepped on a PackedGrid, which keeps the state of every
+ * location in flat arrays instead of a Cell object per location. Only simulations whose cells read
+ * nothing but the current states of their neighbors and write nothing but their own next state
+ * implement this. Implementations must apply the parameters given to setParams to both methods, as
+ * the simulation holds no cells of its own to update once the grid is packed.
+ *
+ * @param <T> the type of cell of the simulation
+ */
+public interface PackedRule<T extends Cell<T>> {
+
+  /**
+   * Computes the next state of a location in a packed grid with the current parameters of the
+   * simulation. This may be called for several locations at once from different threads.
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  int computeNextState(PackedGrid grid, int index);
+
+  /**
+   * Creates a single cell with the current parameters of the simulation, which is used to recreate
+   * cells from the packed states when the grid is iterated
+   *
+   * @param state the integer representation of the cell's current state
+   * @param row   the row the cell is positioned at as represented on a 2D grid
+   * @param col   the column the cell is positioned at as represented on a 2D grid
+   * @param shape the shape of the cell, as represented on a 2D coordinate grid
+   * @return the new cell
+   */
+  T makeCell(int state, int row, int col, Shape shape);
+}
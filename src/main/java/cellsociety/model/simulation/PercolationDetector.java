@@ -0,0 +1,298 @@
+package cellsociety.model.simulation;
+
+import cellsociety.model.core.grid.PackedGrid;
+import java.util.Arrays;
+
+/**
+ * Answers percolation questions about a grid without stepping a PercolationSimulation, which only
+ * spreads percolation by one ring of neighbors per timestep. The open and percolated cells are
+ * grouped into clusters of cells connected through their neighbors with a weighted union-find, in
+ * time close to linear in the size of the grid, and each cluster remembers whether it holds a
+ * percolated cell and whether it touches the top or bottom row. Cells can then be opened one at a
+ * time, each merging its cluster with those of its open neighbors, so that the answers stay up to
+ * date as the grid fills. Any state other than OPEN and PERCOLATED blocks a cell. Cells are
+ * referred to by their index in row major order.
+ * <p>
+ * Two cells are connected if either is a neighbor of the other. For the neighborhoods where this is
+ * not always mutual (the Moore neighborhood of hexagons on a warped grid of some sizes), a cell can
+ * be reported reachable even though percolation only flows into it the other way around.
+ */
+
+public class PercolationDetector {
+
+  private static final byte HAS_PERCOLATED = 1;
+  private static final byte TOUCHES_TOP = 2;
+  private static final byte TOUCHES_BOTTOM = 4;
+  private static final byte SPANS = TOUCHES_TOP | TOUCHES_BOTTOM;
+
+  private final PackedGrid myGrid;
+  private final int myNumCols;
+  /**
+   * The state of every cell, where any state other than OPEN and PERCOLATED is blocked
+   */
+  private final int[] myStates;
+  /**
+   * The parent of each cell in the union-find, or for the root of a cluster, minus the number of
+   * cells in the cluster
+   */
+  private final int[] myParents;
+  /**
+   * The HAS_PERCOLATED, TOUCHES_TOP and TOUCHES_BOTTOM flags of the cluster of each root
+   */
+  private final byte[] myClusterFlags;
+  /**
+   * The cells that have cell i as a neighbor without being one of its neighbors are
+   * myExtraNeighbors[myExtraStarts[i]] up to myExtraNeighbors[myExtraStarts[i + 1] - 1], or both
+   * are null if every neighbor relation of the grid is mutual
+   */
+  private int[] myExtraStarts;
+  private int[] myExtraNeighbors;
+  private int myNumOpen;
+  private boolean isSpanning;
+
+  /**
+   * Groups the open and percolated cells of a grid into clusters. The states are copied, so later
+   * changes to the grid are not seen until reset, but its neighbors are read whenever a cell is
+   * opened.
+   *
+   * @param grid the states and neighbors of the grid to analyze
+   */
+  public PercolationDetector(PackedGrid grid) {
+    myGrid = grid;
+    myNumCols = grid.getNumCols();
+    int size = grid.size();
+    myStates = new int[size];
+    myParents = new int[size];
+    myClusterFlags = new byte[size];
+    findExtraNeighbors();
+    reset();
+  }
+
+  /**
+   * Copies the current states of the grid again and regroups its open and percolated cells into
+   * clusters, undoing every cell opened since. This reuses the detector's arrays, so that one
+   * detector can analyze many grids with the same neighbors in turn.
+   */
+  public void reset() {
+    Arrays.fill(myParents, -1);
+    myNumOpen = 0;
+    isSpanning = false;
+    for (int i = 0; i < myStates.length; i++) {
+      myStates[i] = myGrid.getCurrentState(i);
+      if (isOpen(i)) {
+        myClusterFlags[i] = getOwnFlags(i);
+        myNumOpen++;
+      }
+    }
+    for (int i = 0; i < myStates.length; i++) {
+      if (isOpen(i)) {
+        joinOutgoingNeighbors(i);
+      }
+    }
+  }
+
+  /**
+   * Lists the neighbor relations that only go one way, so that clusters can be joined through them
+   * from either side
+   */
+  private void findExtraNeighbors() {
+    int size = myGrid.size();
+    int[] starts = new int[size + 2];
+    int numExtra = 0;
+    for (int i = 0; i < size; i++) {
+      for (int k = 0; k < myGrid.getNeighborCount(i); k++) {
+        int neighbor = myGrid.getNeighbor(i, k);
+        if (!isNeighbor(neighbor, i)) {
+          starts[neighbor + 2]++;
+          numExtra++;
+        }
+      }
+    }
+    if (numExtra == 0) {
+      return;
+    }
+    for (int i = 2; i < starts.length; i++) {
+      starts[i] += starts[i - 1];
+    }
+    myExtraNeighbors = new int[numExtra];
+    for (int i = 0; i < size; i++) {
+      for (int k = 0; k < myGrid.getNeighborCount(i); k++) {
+        int neighbor = myGrid.getNeighbor(i, k);
+        if (!isNeighbor(neighbor, i)) {
+          myExtraNeighbors[starts[neighbor + 1]++] = i;
+        }
+      }
+    }
+    myExtraStarts = Arrays.copyOf(starts, size + 1);
+  }
+
+  private boolean isNeighbor(int cell, int candidate) {
+    for (int k = 0; k < myGrid.getNeighborCount(cell); k++) {
+      if (myGrid.getNeighbor(cell, k) == candidate) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Opens a blocked cell, joining it to the clusters of its open and percolated neighbors. Opening
+   * a cell that is already open or percolated does nothing.
+   *
+   * @param index the row major index of the cell
+   */
+  public void open(int index) {
+    if (isOpen(index)) {
+      return;
+    }
+    myStates[index] = PercolationSimulation.OPEN;
+    myClusterFlags[index] = getOwnFlags(index);
+    myNumOpen++;
+    joinOutgoingNeighbors(index);
+    if (myExtraStarts != null) {
+      for (int k = myExtraStarts[index]; k < myExtraStarts[index + 1]; k++) {
+        joinIfOpen(index, myExtraNeighbors[k]);
+      }
+    }
+  }
+
+  private void joinOutgoingNeighbors(int index) {
+    for (int k = 0; k < myGrid.getNeighborCount(index); k++) {
+      joinIfOpen(index, myGrid.getNeighbor(index, k));
+    }
+  }
+
+  private void joinIfOpen(int index, int neighbor) {
+    if (isOpen(neighbor)) {
+      union(index, neighbor);
+    }
+  }
+
+  private byte getOwnFlags(int index) {
+    int row = index / myNumCols;
+    byte flags = myStates[index] == PercolationSimulation.PERCOLATED ? HAS_PERCOLATED : 0;
+    if (row == 0) {
+      flags |= TOUCHES_TOP;
+    }
+    if (row == myGrid.getNumRows() - 1) {
+      flags |= TOUCHES_BOTTOM;
+    }
+    if ((flags & SPANS) == SPANS) {
+      isSpanning = true;
+    }
+    return flags;
+  }
+
+  /**
+   * Merges two clusters, hanging the smaller one under the root of the larger one
+   */
+  private void union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+    if (firstRoot == secondRoot) {
+      return;
+    }
+    if (myParents[firstRoot] > myParents[secondRoot]) {
+      int smaller = firstRoot;
+      firstRoot = secondRoot;
+      secondRoot = smaller;
+    }
+    myParents[firstRoot] += myParents[secondRoot];
+    myParents[secondRoot] = firstRoot;
+    myClusterFlags[firstRoot] |= myClusterFlags[secondRoot];
+    if ((myClusterFlags[firstRoot] & SPANS) == SPANS) {
+      isSpanning = true;
+    }
+  }
+
+  /**
+   * Finds the root of the cluster of a cell, pointing each cell on the way at its grandparent so
+   * that later searches are shorter
+   */
+  private int find(int index) {
+    while (myParents[index] >= 0) {
+      int parent = myParents[index];
+      if (myParents[parent] >= 0) {
+        myParents[index] = myParents[parent];
+      }
+      index = parent;
+    }
+    return index;
+  }
+
+  /**
+   * Determines whether the open and percolated cells span the grid from top to bottom. This is
+   * only meaningful when the grid's neighbors do not wrap around from the top row to the bottom
+   * row, which is why PercolationSimulation only creates detectors for grids with normal edges.
+   *
+   * @return true if and only if some open or percolated cell of the top row is connected to one of
+   * the bottom row through open and percolated cells
+   */
+  public boolean percolates() {
+    return isSpanning;
+  }
+
+  /**
+   * Determines whether percolation reaches a cell, which is the case for the open and percolated
+   * cells connected to a percolated cell. These are the cells that will eventually be percolated
+   * in a PercolationSimulation where one percolated neighbor is enough for an open cell.
+   *
+   * @param index the row major index of the cell
+   * @return true if and only if the cell is connected to a percolated cell
+   */
+  public boolean isReachable(int index) {
+    return isOpen(index) && (myClusterFlags[find(index)] & HAS_PERCOLATED) != 0;
+  }
+
+  /**
+   * @param index the row major index of the cell
+   * @return true if and only if the cell is open or percolated
+   */
+  public boolean isOpen(int index) {
+    return myStates[index] == PercolationSimulation.OPEN
+        || myStates[index] == PercolationSimulation.PERCOLATED;
+  }
+
+  /**
+   * @return the number of open and percolated cells
+   */
+  public int getNumOpen() {
+    return myNumOpen;
+  }
+
+  /**
+   * @return the number of open and percolated cells connected to a percolated cell
+   */
+  public int getNumReachable() {
+    int count = 0;
+    for (int i = 0; i < myStates.length; i++) {
+      if (isReachable(i)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @param index the row major index of the cell
+   * @return the number of cells in the cluster of an open or percolated cell, or 0 for a blocked
+   * cell
+   */
+  public int getClusterSize(int index) {
+    return isOpen(index) ? -myParents[find(index)] : 0;
+  }
+
+  /**
+   * Computes the states the grid settles in once percolation has spread as far as it can: every
+   * reachable cell is PERCOLATED and every other cell keeps its state, where opened cells are OPEN
+   *
+   * @return the settled state of every cell, in row major order
+   */
+  public int[] getReachableStates() {
+    int[] states = new int[myStates.length];
+    for (int i = 0; i < states.length; i++) {
+      states[i] = isReachable(i) ? PercolationSimulation.PERCOLATED : myStates[i];
+    }
+    return states;
+  }
+}
@@ -1,6 +1,8 @@
 package cellsociety.model.simulation;
 
+import cellsociety.exception.InvalidValueException;
 import cellsociety.model.core.cell.PercolationCell;
+import cellsociety.model.core.grid.PackedGrid;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.neighborhood.Neighborhood;
 import java.util.ArrayList;
@@ -14,11 +16,17 @@ import java.util.Map;
  * author @noah loewy
  */
 
-public class PercolationSimulation extends Simulation<PercolationCell> {
+public class PercolationSimulation extends Simulation<PercolationCell> implements
+    PackedRule<PercolationCell> {
 
   public static final int OPEN = 0;
   public static final int PERCOLATED = 1;
-  private final int percolatedNeighbors;
+  public static final int BLOCKED = 2;
+  private int percolatedNeighbors;
+  /**
+   * Cell holding the current parameters, which applies the rules to every location of a packed grid
+   */
+  private PercolationCell myRuleCell;
 
 
   /**
@@ -33,9 +41,10 @@ public class PercolationSimulation extends Simulation<PercolationCell> {
    */
   public PercolationSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
+    super(hoodType, r.gridType(), r.seed());
     this.percolatedNeighbors = (int) Math.floor(r.params().get("percolatedNeighbors"));
     createCellsAndGrid(row, col, stateList, getCellShape(r.cellShape()), hoodType);
+    myRuleCell = makeCell(OPEN, 0, 0, getShape());
   }
 
   /**
@@ -50,11 +59,97 @@ public class PercolationSimulation extends Simulation<PercolationCell> {
   @Override
   public List<PercolationCell> cellMaker(int col, List<Integer> stateList, Shape shape) {
     List<PercolationCell> cellList = new ArrayList<>();
-    Map<String, Integer> params = new HashMap<>();
-    params.put("percolatedNeighbors", percolatedNeighbors);
     for (int i = 0; i < stateList.size(); i++) {
-      cellList.add(new PercolationCell(stateList.get(i), i / col, i % col, shape, params));
+      cellList.add(makeCell(stateList.get(i), i / col, i % col, shape));
     }
     return cellList;
   }
+
+  /**
+   * Creates a single PercolationCell with the parameters of this simulation
+   *
+   * @param state the integer representation of the cell's current state
+   * @param row   the row the cell is positioned at as represented on a 2D grid
+   * @param col   the column the cell is positioned at as represented on a 2D grid
+   * @param shape Shape object representing the shape of the cell as represented on 2d plane
+   * @return the initialized PercolationCell
+   */
+  @Override
+  public PercolationCell makeCell(int state, int row, int col, Shape shape) {
+    Map<String, Integer> params = new HashMap<>();
+    params.put("percolatedNeighbors", percolatedNeighbors);
+    return new PercolationCell(state, row, col, shape, params);
+  }
+
+  /**
+   * Computes the next state of a location in a packed grid with the current parameters
+   *
+   * @param grid  the packed grid holding the states and neighbors of every location
+   * @param index the row major index of the location being updated
+   * @return the next state of the location
+   */
+  @Override
+  public int computeNextState(PackedGrid grid, int index) {
+    return myRuleCell.computeNextState(grid, index);
+  }
+
+  /**
+   * Updates the parameters of the simulation, including those of the cells it creates from a
+   * packed grid
+   *
+   * @param newParameters, the updated parameter values
+   */
+  @Override
+  public void setParams(Map<String, Double> newParameters) {
+    percolatedNeighbors = (int) Math.floor(newParameters.get("percolatedNeighbors"));
+    myRuleCell = makeCell(OPEN, 0, 0, getShape());
+    super.setParams(newParameters);
+  }
+
+  /**
+   * @return the number of percolated neighbors an open cell needs to become percolated
+   */
+  public int getPercolatedNeighbors() {
+    return percolatedNeighbors;
+  }
+
+  /**
+   * Creates a detector for the current grid, which tells whether the grid percolates and which
+   * cells percolation will reach without stepping the simulation, and can be updated as cells are
+   * opened. Its reachable cells are those this simulation eventually percolates when one
+   * percolated neighbor is enough. Only grids with normal edges can be analyzed, since a warped
+   * grid joins its top row to its bottom row, so that every cluster along that edge would span it.
+   *
+   * @return a new detector holding a copy of the current states
+   * @throws InvalidValueException if the grid does not have normal edges
+   */
+  public PercolationDetector createPercolationDetector() {
+    if (!getGridType().equals("Normal")) {
+      throw new InvalidValueException(
+          "Percolation can only be detected on grids with normal edges");
+    }
+    return new PercolationDetector(toPackedGrid());
+  }
+
+  /**
+   * Percolation cells only read the current states of their neighbors, so the grid can be stepped
+   * in parallel
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsParallelStepping() {
+    return true;
+  }
+
+  /**
+   * The next state of a percolation cell is fully determined by its own state and the states of its
+   * neighbors, so a cell whose neighborhood did not change cannot change either
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsIncrementalStepping() {
+    return true;
+  }
 }
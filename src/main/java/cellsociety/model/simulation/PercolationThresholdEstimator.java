@@ -0,0 +1,208 @@
+package cellsociety.model.simulation;
+
+import cellsociety.exception.InvalidValueException;
+import cellsociety.model.core.grid.PackedGrid;
+import cellsociety.model.neighborhood.Neighborhood;
+import cellsociety.model.random.RandomSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Estimates the percolation threshold of a grid by Monte Carlo: the density of open cells above
+ * which a random grid percolates from its top row to its bottom row. Each trial starts from a fully
+ * blocked grid and opens cells in a random order until a PercolationDetector reports that the grid
+ * percolates, recording how many cells were open. The open cells of a trial are then a uniformly
+ * random set of that size, so the same trials also tell how likely a grid with any given number of
+ * open cells is to percolate.
+ * <p>
+ * Trials run in parallel, each drawing its order from its own stream of a RandomSource keyed by the
+ * number of the trial, so that a seed gives the same estimate whatever the number of threads.
+ */
+
+public class PercolationThresholdEstimator {
+
+  /**
+   * Number of standard errors on either side of a mean spanned by a 95% confidence interval
+   */
+  public static final double Z_95 = 1.959964;
+
+  private final PackedGrid myGrid;
+  private final RandomSource myRandomSource;
+  private final ThreadLocal<Trial> myTrials;
+  private int[] myThresholds;
+
+  /**
+   * Constructs an estimator for grids of a given size, edge type, cell shape and neighborhood. Only
+   * grids with normal edges are supported: a warped grid joins its top row to its bottom row, so
+   * it would count as percolating as soon as two cells across that edge are open.
+   *
+   * @param numRows   the number of rows in the grid
+   * @param numCols   the number of columns in the grid
+   * @param hoodType  the definition of neighbors
+   * @param gridType  the edge type of the grid, which must be Normal
+   * @param cellShape the shape of the cells, square or hexagon
+   * @param seed      the seed from which every random order is derived
+   * @throws InvalidValueException if the edge type is not Normal
+   */
+  public PercolationThresholdEstimator(int numRows, int numCols, Neighborhood<?> hoodType,
+      String gridType, String cellShape, long seed) {
+    if (!gridType.equals("Normal")) {
+      throw new InvalidValueException(
+          "Percolation thresholds can only be estimated on grids with normal edges");
+    }
+    List<Integer> blocked = new ArrayList<>(
+        Collections.nCopies(numRows * numCols, PercolationSimulation.BLOCKED));
+    Map<String, Double> params = new HashMap<>();
+    params.put("percolatedNeighbors", 1.0);
+    PercolationSimulation simulation = new PercolationSimulation(numRows, numCols, hoodType,
+        blocked, new SimulationRecord(params, gridType, cellShape, seed));
+    myGrid = simulation.toPackedGrid();
+    myRandomSource = new RandomSource(seed);
+    myTrials = ThreadLocal.withInitial(Trial::new);
+    myThresholds = new int[0];
+  }
+
+  /**
+   * Runs trials in parallel on every available core, replacing the results of any earlier run
+   *
+   * @param numTrials the number of trials to run, which must be at least 2
+   */
+  public void run(int numTrials) {
+    if (numTrials < 2) {
+      throw new IllegalArgumentException("At least 2 trials are needed but got " + numTrials);
+    }
+    myThresholds = new int[numTrials];
+    RowStripeTask.forEachRow(numTrials,
+        trial -> myThresholds[trial] = myTrials.get().run(trial));
+  }
+
+  public int getNumTrials() {
+    return myThresholds.length;
+  }
+
+  /**
+   * @return the number of cells in the grid
+   */
+  public int getNumCells() {
+    return myGrid.size();
+  }
+
+  /**
+   * @return the number of open cells at which each trial first percolated, in order of the trials
+   */
+  public int[] getThresholds() {
+    return myThresholds.clone();
+  }
+
+  /**
+   * @return the mean over the trials of the density of open cells at which the grid first
+   * percolated, which estimates the percolation threshold
+   */
+  public double getMean() {
+    double total = 0;
+    for (int threshold : myThresholds) {
+      total += threshold;
+    }
+    return total / myThresholds.length / myGrid.size();
+  }
+
+  /**
+   * @return the sample standard deviation over the trials of the density at which the grid first
+   * percolated
+   */
+  public double getStandardDeviation() {
+    double mean = getMean();
+    double total = 0;
+    for (int threshold : myThresholds) {
+      double deviation = (double) threshold / myGrid.size() - mean;
+      total += deviation * deviation;
+    }
+    return Math.sqrt(total / (myThresholds.length - 1));
+  }
+
+  /**
+   * @return the lower end of a 95% confidence interval for the percolation threshold
+   */
+  public double getConfidenceLow() {
+    return getMean() - getHalfWidth();
+  }
+
+  /**
+   * @return the upper end of a 95% confidence interval for the percolation threshold
+   */
+  public double getConfidenceHigh() {
+    return getMean() + getHalfWidth();
+  }
+
+  private double getHalfWidth() {
+    return Z_95 * getStandardDeviation() / Math.sqrt(myThresholds.length);
+  }
+
+  /**
+   * Estimates the probability that a grid percolates when a given proportion of its cells, chosen
+   * uniformly at random, are open. This is the proportion of trials that had percolated by the time
+   * that many cells were open.
+   *
+   * @param density the proportion of open cells, from 0 to 1
+   * @return the estimated probability
+   */
+  public double getPercolationProbability(double density) {
+    int numOpen = (int) Math.round(density * myGrid.size());
+    int numPercolating = 0;
+    for (int threshold : myThresholds) {
+      if (threshold <= numOpen) {
+        numPercolating++;
+      }
+    }
+    return (double) numPercolating / myThresholds.length;
+  }
+
+  /**
+   * Computes the half width of a 95% confidence interval for a percolation probability, with the
+   * normal approximation to the binomial distribution
+   *
+   * @param probability a probability returned by getPercolationProbability
+   * @return the half width of the interval around the probability
+   */
+  public double getProbabilityHalfWidth(double probability) {
+    return Z_95 * Math.sqrt(probability * (1 - probability) / myThresholds.length);
+  }
+
+  /**
+   * The detector and order of cells used by one thread, reused across the trials it runs
+   */
+  private class Trial {
+
+    private final PercolationDetector myDetector = new PercolationDetector(myGrid);
+    private final int[] myOrder = new int[myGrid.size()];
+    private final Random myRandom = new Random();
+
+    /**
+     * Opens the cells of a blocked grid in a random order, drawing each next cell as it is needed
+     * so that the order is only shuffled as far as the grid is opened
+     *
+     * @param trial the number of the trial, which keys its random stream
+     * @return the number of open cells when the grid first percolated
+     */
+    int run(int trial) {
+      myDetector.reset();
+      Arrays.setAll(myOrder, index -> index);
+      myRandomSource.resetStream(myRandom, trial);
+      int numOpen = 0;
+      while (!myDetector.percolates()) {
+        int swap = numOpen + myRandom.nextInt(myOrder.length - numOpen);
+        int cell = myOrder[swap];
+        myOrder[swap] = myOrder[numOpen];
+        myOrder[numOpen] = cell;
+        myDetector.open(cell);
+        numOpen++;
+      }
+      return numOpen;
+    }
+  }
+}
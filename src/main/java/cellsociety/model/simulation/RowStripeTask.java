@@ -0,0 +1,58 @@
+package cellsociety.model.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Applies an action to every row in a range of rows, splitting the range in half into stripes of
+ * adjacent rows that run in parallel on a fork-join pool. The action must only write to the row it
+ * is given, so that the stripes can run in any order.
+ */
+
+@SuppressWarnings("serial")
+class RowStripeTask extends RecursiveAction {
+
+  /**
+   * Number of stripes given to each worker thread of the pool, so that threads finishing early can
+   * take work from slower ones
+   */
+  private static final int STRIPES_PER_THREAD = 4;
+
+  private final int myStartRow;
+  private final int myEndRow;
+  private final int myStripeRows;
+  private final IntConsumer myRowAction;
+
+  private RowStripeTask(int startRow, int endRow, int stripeRows, IntConsumer rowAction) {
+    myStartRow = startRow;
+    myEndRow = endRow;
+    myStripeRows = stripeRows;
+    myRowAction = rowAction;
+  }
+
+  /**
+   * Applies an action to rows 0 to numRows - 1 in parallel, returning once every row is done
+   *
+   * @param numRows   the number of rows in the grid
+   * @param rowAction the action to apply, given the index of a row
+   */
+  static void forEachRow(int numRows, IntConsumer rowAction) {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    int stripeRows = Math.max(1, numRows / (pool.getParallelism() * STRIPES_PER_THREAD));
+    pool.invoke(new RowStripeTask(0, numRows, stripeRows, rowAction));
+  }
+
+  @Override
+  protected void compute() {
+    if (myEndRow - myStartRow <= myStripeRows) {
+      for (int row = myStartRow; row < myEndRow; row++) {
+        myRowAction.accept(row);
+      }
+      return;
+    }
+    int middleRow = (myStartRow + myEndRow) >>> 1;
+    invokeAll(new RowStripeTask(myStartRow, middleRow, myStripeRows, myRowAction),
+        new RowStripeTask(middleRow, myEndRow, myStripeRows, myRowAction));
+  }
+}
@@ -0,0 +1,270 @@
+package cellsociety.model.simulation;
+
+import cellsociety.model.core.cell.SchellingCell;
+import cellsociety.model.random.RandomSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Steps a Schelling simulation on flat arrays instead of cell objects. Every cell keeps a running
+ * count of its neighbors in each group, which is updated whenever a neighbor moves, and belongs to
+ * one of a few pools: the agents of group A or B that want to move, the empty cells that would
+ * satisfy group A or else group B, or none. A timestep pairs random movers with random vacancies of
+ * their group by removing both from their pools, then moves them and recounts only the neighbors of
+ * the cells that changed, so it costs time proportional to the number of movers rather than the
+ * size of the grid. Cells are referred to by their index in row major order.
+ * <p>
+ * The pairs are drawn uniformly, as in SchellingSimulation, but with different random numbers, so a
+ * seeded run differs from the same run stepped on cells.
+ */
+
+class SchellingCity {
+
+  private static final int NO_POOL = -1;
+  private static final int MOVERS_A = 0;
+  private static final int MOVERS_B = 1;
+  private static final int VACANCIES_A = 2;
+  private static final int VACANCIES_B = 3;
+  private static final int NUM_POOLS = 4;
+
+  private final RandomSource myRandomSource;
+  private final long myStreamKey;
+  private final Random myRandom = new Random();
+  private final int[] myStates;
+  /**
+   * The neighbors of cell i are myNeighbors[myNeighborStarts[i]] up to
+   * myNeighbors[myNeighborStarts[i + 1] - 1], and the cells that have cell i as a neighbor are
+   * listed in the same way in myObservers, as many times as they have it as a neighbor
+   */
+  private final int[] myNeighborStarts;
+  private final int[] myObserverStarts;
+  private final int[] myObservers;
+  private final int[] myCountA;
+  private final int[] myCountB;
+  private final int[][] myPools;
+  private final int[] myPoolSizes;
+  private final int[] myPoolOf;
+  private final int[] mySlotOf;
+  private double myProportionNeededToStay;
+  private int myNumMoves;
+  private int[] myMovesFrom;
+  private int[] myMovesTo;
+  private int myNumChanged;
+  private int[] myChanged;
+
+  /**
+   * Copies the states and neighbors of a grid of SchellingCells, whose states must all be EMPTY,
+   * GROUP_A or GROUP_B
+   *
+   * @param cells                  every cell of the grid in row major order, with their neighbors
+   *                               set
+   * @param numCols                the number of columns in the grid
+   * @param randomSource           the random source of the simulation, from which pairs are drawn
+   * @param streamKey              the key of the random stream pairing movers with vacancies
+   * @param proportionNeededToStay the proportion of occupied neighbors in its own group an agent
+   *                               needs to stay
+   */
+  SchellingCity(List<SchellingCell> cells, int numCols, RandomSource randomSource, long streamKey,
+      double proportionNeededToStay) {
+    myRandomSource = randomSource;
+    myStreamKey = streamKey;
+    myProportionNeededToStay = proportionNeededToStay;
+    int size = cells.size();
+    myStates = new int[size];
+    myNeighborStarts = new int[size + 1];
+    myObserverStarts = new int[size + 2];
+    for (int i = 0; i < size; i++) {
+      myStates[i] = cells.get(i).getCurrentState();
+      List<SchellingCell> neighbors = cells.get(i).getNeighbors();
+      myNeighborStarts[i + 1] = myNeighborStarts[i] + neighbors.size();
+      for (SchellingCell neighbor : neighbors) {
+        myObserverStarts[getIndex(neighbor, numCols) + 2]++;
+      }
+    }
+    for (int i = 2; i < myObserverStarts.length; i++) {
+      myObserverStarts[i] += myObserverStarts[i - 1];
+    }
+    myObservers = new int[myNeighborStarts[size]];
+    myCountA = new int[size];
+    myCountB = new int[size];
+    for (int i = 0; i < size; i++) {
+      for (SchellingCell neighbor : cells.get(i).getNeighbors()) {
+        int index = getIndex(neighbor, numCols);
+        myObservers[myObserverStarts[index + 1]++] = i;
+        countNeighbor(i, myStates[index], 1);
+      }
+    }
+    myPools = new int[NUM_POOLS][size];
+    myPoolSizes = new int[NUM_POOLS];
+    myPoolOf = new int[size];
+    mySlotOf = new int[size];
+    Arrays.fill(myPoolOf, NO_POOL);
+    myMovesFrom = new int[0];
+    myMovesTo = new int[0];
+    myChanged = new int[0];
+    classifyAll();
+  }
+
+  private static int getIndex(SchellingCell cell, int numCols) {
+    return cell.getRow() * numCols + cell.getCol();
+  }
+
+  void setProportionNeededToStay(double proportionNeededToStay) {
+    myProportionNeededToStay = proportionNeededToStay;
+    classifyAll();
+  }
+
+  /**
+   * Pairs movers of each group with vacancies satisfying that group, both drawn at random, as many
+   * as the smaller of the two pools holds. The moves are only made by update.
+   */
+  void computeNext() {
+    myRandomSource.resetStream(myRandom, myStreamKey);
+    int maxMoves = Math.min(myPoolSizes[MOVERS_A], myPoolSizes[VACANCIES_A])
+        + Math.min(myPoolSizes[MOVERS_B], myPoolSizes[VACANCIES_B]);
+    if (myMovesFrom.length < maxMoves) {
+      myMovesFrom = new int[maxMoves];
+      myMovesTo = new int[maxMoves];
+    }
+    myNumMoves = 0;
+    pairMovers(MOVERS_A, VACANCIES_A);
+    pairMovers(MOVERS_B, VACANCIES_B);
+  }
+
+  private void pairMovers(int moverPool, int vacancyPool) {
+    int numPairs = Math.min(myPoolSizes[moverPool], myPoolSizes[vacancyPool]);
+    for (int i = 0; i < numPairs; i++) {
+      myMovesFrom[myNumMoves] = removeRandom(moverPool);
+      myMovesTo[myNumMoves] = removeRandom(vacancyPool);
+      myNumMoves++;
+    }
+  }
+
+  /**
+   * Makes the moves paired by computeNext, then updates the neighbor counts and pools of every cell
+   * that moved or has a neighbor that moved
+   */
+  void update() {
+    if (myChanged.length < 2 * myNumMoves) {
+      myChanged = new int[2 * myNumMoves];
+    }
+    myNumChanged = 0;
+    for (int i = 0; i < myNumMoves; i++) {
+      int from = myMovesFrom[i];
+      int to = myMovesTo[i];
+      //as in SchellingSimulation, empty cells that would satisfy neither group are paired with
+      //vacancies of group B as if they were agents, which leaves both cells empty
+      setState(to, myStates[from]);
+      setState(from, SchellingSimulation.EMPTY);
+      classify(from);
+      classify(to);
+    }
+    for (int i = 0; i < myNumChanged; i++) {
+      int cell = myChanged[i];
+      for (int k = myObserverStarts[cell]; k < myObserverStarts[cell + 1]; k++) {
+        classify(myObservers[k]);
+      }
+    }
+    myNumMoves = 0;
+  }
+
+  /**
+   * Changes the state of a cell and the neighbor counts of the cells that have it as a neighbor
+   */
+  private void setState(int cell, int state) {
+    if (myStates[cell] == state) {
+      return;
+    }
+    for (int k = myObserverStarts[cell]; k < myObserverStarts[cell + 1]; k++) {
+      countNeighbor(myObservers[k], myStates[cell], -1);
+      countNeighbor(myObservers[k], state, 1);
+    }
+    myStates[cell] = state;
+    myChanged[myNumChanged++] = cell;
+  }
+
+  private void countNeighbor(int cell, int neighborState, int change) {
+    if (neighborState == SchellingSimulation.GROUP_A) {
+      myCountA[cell] += change;
+    } else if (neighborState == SchellingSimulation.GROUP_B) {
+      myCountB[cell] += change;
+    }
+  }
+
+  private void classifyAll() {
+    for (int cell = 0; cell < myStates.length; cell++) {
+      classify(cell);
+    }
+  }
+
+  /**
+   * Moves a cell into the pool matching its state and neighbor counts, following
+   * SchellingCell.transition
+   */
+  private void classify(int cell) {
+    int pool = switch (myStates[cell]) {
+      case SchellingSimulation.GROUP_A -> isSatisfied(cell, myCountA[cell]) ? NO_POOL : MOVERS_A;
+      case SchellingSimulation.GROUP_B -> isSatisfied(cell, myCountB[cell]) ? NO_POOL : MOVERS_B;
+      default -> {
+        if (isSatisfied(cell, myCountA[cell])) {
+          yield VACANCIES_A;
+        }
+        yield isSatisfied(cell, myCountB[cell]) ? VACANCIES_B : MOVERS_B;
+      }
+    };
+    if (pool == myPoolOf[cell]) {
+      return;
+    }
+    if (myPoolOf[cell] != NO_POOL) {
+      remove(myPoolOf[cell], mySlotOf[cell]);
+    }
+    if (pool != NO_POOL) {
+      mySlotOf[cell] = myPoolSizes[pool];
+      myPools[pool][myPoolSizes[pool]++] = cell;
+    }
+    myPoolOf[cell] = pool;
+  }
+
+  /**
+   * @return true if and only if every neighbor of a cell is empty, or the proportion of its
+   * occupied neighbors in a group is no less than myProportionNeededToStay
+   */
+  private boolean isSatisfied(int cell, int numSameGroup) {
+    int numOccupied = myCountA[cell] + myCountB[cell];
+    return numOccupied == 0 || (double) numSameGroup / numOccupied >= myProportionNeededToStay;
+  }
+
+  /**
+   * Removes a random cell from a pool in constant time
+   *
+   * @return the removed cell
+   */
+  private int removeRandom(int pool) {
+    int cell = myPools[pool][myRandom.nextInt(myPoolSizes[pool])];
+    remove(pool, mySlotOf[cell]);
+    myPoolOf[cell] = NO_POOL;
+    return cell;
+  }
+
+  /**
+   * Removes the cell at a slot of a pool by moving the last cell of the pool into its place
+   */
+  private void remove(int pool, int slot) {
+    int last = myPools[pool][--myPoolSizes[pool]];
+    myPools[pool][slot] = last;
+    mySlotOf[last] = slot;
+  }
+
+  int getState(int index) {
+    return myStates[index];
+  }
+
+  /**
+   * Copies the current state of every cell, in row major order, into an array of one entry per
+   * cell
+   */
+  void copyStates(int[] states) {
+    System.arraycopy(myStates, 0, states, 0, myStates.length);
+  }
+}
@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * This cellular automata simulation represents the Schelling Segregation Model.
@@ -24,11 +25,26 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
   public static final int TEMP_TO_MOVE = 3;
   public static final int TEMP_EMPTY_A = 4;
   public static final int TEMP_EMPTY_B = 5;
+  /**
+   * Key of the random stream used to pair movers with vacancies, chosen to be negative so that it
+   * never matches the key of a cell
+   */
+  private static final long MOVE_STREAM = -1;
   private final List<SchellingCell> myCellsToMoveA;
   private final List<SchellingCell> myCellsToMoveB;
   private final List<SchellingCell> myEmptyCellsA;
   private final List<SchellingCell> myEmptyCellsB;
-  private final double proportionNeededToStay;
+  private double proportionNeededToStay;
+  private boolean useVacancyPools = true;
+  private SchellingCity myCity;
+  /**
+   * True if the simulation was stepped on the city since its states were last copied onto the
+   * cells
+   */
+  private boolean areCellsOutdated;
+  private List<SchellingCell> myCells;
+  private int myNumRows;
+  private int myNumCols;
 
   /**
    * Initializes a SchellingSimulation object
@@ -42,7 +58,7 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
    */
   public SchellingSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
+    super(hoodType, r.gridType(), r.seed());
     myCellsToMoveA = new ArrayList<>();
     myCellsToMoveB = new ArrayList<>();
     myEmptyCellsA = new ArrayList<>();
@@ -72,6 +88,51 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
     return cellList;
   }
 
+  /**
+   * Initializes the grid. Unless vacancy pool stepping is turned off, the agents are then moved
+   * onto a SchellingCity, provided every cell is empty or holds an agent of group A or B.
+   *
+   * @param row,      number of rows in simulation
+   * @param col,      number of columns in simulation
+   * @param cellList, all cells in simulation, listed in row major order
+   */
+  @Override
+  public void initializeMyGrid(int row, int col, List<SchellingCell> cellList) {
+    super.initializeMyGrid(row, col, cellList);
+    myCells = cellList;
+    myNumRows = row;
+    myNumCols = col;
+    myCity = null;
+    if (useVacancyPools && cellList.stream().allMatch(
+        cell -> cell.getCurrentState() >= EMPTY && cell.getCurrentState() <= GROUP_B)) {
+      myCity = new SchellingCity(cellList, col, getRandomSource(), MOVE_STREAM,
+          proportionNeededToStay);
+    }
+  }
+
+  /**
+   * Enables or disables vacancy pool stepping, which is enabled by default. Disabling it moves the
+   * agents back onto the cells, which are then scored one by one every timestep.
+   *
+   * @param enabled true to step the simulation on a SchellingCity
+   */
+  public void setVacancyPoolStepping(boolean enabled) {
+    if (enabled == useVacancyPools) {
+      return;
+    }
+    List<SchellingCell> cellList = new ArrayList<>();
+    getIterator().forEachRemaining(cellList::add);
+    useVacancyPools = enabled;
+    initializeMyGrid(myNumRows, myNumCols, cellList);
+  }
+
+  /**
+   * @return true if and only if the simulation is currently stepped on a SchellingCity
+   */
+  public boolean isVacancyPoolStepping() {
+    return myCity != null;
+  }
+
   /**
    * Updates next state of cells so that in a random order, cells that are not satisfied can move to
    * empty cells that will satisfy them.
@@ -79,10 +140,12 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
    * @param emptyList,  a list of empty cells which would satisfy the agents in toMoveList.
    * @param toMoveList, a list of cells that would be satisfied if they move to a cell in empty
    *                    list
+   * @param random,     the generator deciding the random order
    */
-  private void moveCells(List<SchellingCell> emptyList, List<SchellingCell> toMoveList) {
-    Collections.shuffle(emptyList);
-    Collections.shuffle(toMoveList);
+  private void moveCells(List<SchellingCell> emptyList, List<SchellingCell> toMoveList,
+      Random random) {
+    Collections.shuffle(emptyList, random);
+    Collections.shuffle(toMoveList, random);
     int shorterListLength = Math.min(toMoveList.size(), emptyList.size());
     List<SchellingCell> remainingList =
         (toMoveList.size() < emptyList.size()) ? emptyList : toMoveList;
@@ -96,13 +159,20 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
   }
 
   /**
-   * Transition function for Segregation Model. Iterates through each cell and calls the transition
-   * function, which will update the cell's next state to highlight if it would like to move to a
-   * vacant location. Then it calls private helper function moveCells which actually update the next
-   * states to their true values.
+   * Transition function for Segregation Model. Calls the transition function of each cell, which
+   * will update the cell's next state to highlight if it would like to move to a vacant location.
+   * This scoring only reads the current states of neighbors, so it may run in parallel. Then it
+   * iterates through each cell in row major order to gather the movers and vacancies, and calls
+   * private helper function moveCells which actually update the next states to their true values.
+   * On a SchellingCity, movers are instead paired with vacancies straight from its pools.
    */
   @Override
   public void transitionFunction() {
+    if (myCity != null) {
+      myCity.computeNext();
+      return;
+    }
+    forEachCell(cell -> cell.transition());
     Iterator<SchellingCell> gridIterator = getIterator();
     myCellsToMoveA.clear();
     myCellsToMoveB.clear();
@@ -110,7 +180,6 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
     myEmptyCellsB.clear();
     while (gridIterator.hasNext()) {
       SchellingCell currentCell = gridIterator.next();
-      currentCell.transition();
       if (currentCell.getNextState() == TEMP_EMPTY_A) {
         currentCell.setCurrentState(EMPTY);
         myEmptyCellsA.add(currentCell);
@@ -127,7 +196,81 @@ public class SchellingSimulation extends Simulation<SchellingCell> {
 
       }
     }
-    moveCells(myEmptyCellsA, myCellsToMoveA);
-    moveCells(myEmptyCellsB, myCellsToMoveB);
+    Random random = getRandomSource().getStream(MOVE_STREAM);
+    moveCells(myEmptyCellsA, myCellsToMoveA, random);
+    moveCells(myEmptyCellsB, myCellsToMoveB, random);
+  }
+
+  /**
+   * Schelling cells only read the current states of their neighbors while being scored, and the
+   * moves are then made serially, so the scoring can run in parallel. A SchellingCity keeps its
+   * scores up to date as agents move, so it always steps serially.
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsParallelStepping() {
+    return true;
+  }
+
+  @Override
+  public void processUpdate() {
+    if (myCity == null) {
+      super.processUpdate();
+      return;
+    }
+    myCity.update();
+    getRandomSource().advance();
+    areCellsOutdated = true;
+  }
+
+  /**
+   * Retrieves the cells of the grid. When the simulation is stepped on a SchellingCity, the states
+   * of the city are first copied onto the cells, which are otherwise left out of date.
+   *
+   * @return Iterator object that can iterate through the grid
+   */
+  @Override
+  public Iterator<SchellingCell> getIterator() {
+    if (myCity != null && areCellsOutdated) {
+      for (int i = 0; i < myCells.size(); i++) {
+        myCells.get(i).setNextState(myCity.getState(i));
+        myCells.get(i).updateStates();
+      }
+      areCellsOutdated = false;
+    }
+    return super.getIterator();
+  }
+
+  @Override
+  public void copyCurrentStates(int[] states) {
+    if (myCity == null) {
+      super.copyCurrentStates(states);
+      return;
+    }
+    myCity.copyStates(states);
+  }
+
+  @Override
+  public int getCurrentState(int index) {
+    if (myCity == null) {
+      return super.getCurrentState(index);
+    }
+    return myCity.getState(index);
+  }
+
+  /**
+   * Updates the proportion needed to stay of every cell, of the cells created later on, and of the
+   * city
+   *
+   * @param newParameters, the updated parameter values
+   */
+  @Override
+  public void setParams(Map<String, Double> newParameters) {
+    proportionNeededToStay = newParameters.get("proportionNeededToStay");
+    super.setParams(newParameters);
+    if (myCity != null) {
+      myCity.setProportionNeededToStay(proportionNeededToStay);
+    }
   }
 }
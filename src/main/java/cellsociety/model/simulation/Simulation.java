@@ -3,15 +3,20 @@ package cellsociety.model.simulation;
 import cellsociety.exception.InvalidValueException;
 import cellsociety.model.core.cell.Cell;
 import cellsociety.model.core.grid.Grid;
+import cellsociety.model.core.grid.PackedGrid;
 import cellsociety.model.core.grid.WarpedGrid;
 import cellsociety.model.core.shape.HexagonShape;
 import cellsociety.model.core.shape.RectangleShape;
 import cellsociety.model.core.shape.Shape;
 import cellsociety.model.neighborhood.Neighborhood;
+import cellsociety.model.random.RandomSource;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * Abstract Class that runs the simulation of a cellular automata. Subclasses will implement
@@ -20,15 +25,23 @@ import java.util.Map;
  * @author Noah Loewy
  */
 
-public abstract class Simulation<T extends Cell> {
+public abstract class Simulation<T extends Cell<T>> {
 
   private Neighborhood myNeighborhood;
-  private Grid myGrid;
+  private Grid<T> myGrid;
   private String myGridType;
   private int myRow;
   private int myCol;
+  private Shape myShape;
+  private boolean usePackedGrid;
+  private PackedGrid myPackedGrid;
+  private PackedRule<T> myPackedRule;
+  private boolean useParallelStepping;
+  private RandomSource myRandomSource;
+  private ActivityTracker myActivityTracker;
 
   public Simulation() {
+    myRandomSource = new RandomSource(RandomSource.randomSeed());
   }
 
   /**
@@ -39,8 +52,21 @@ public abstract class Simulation<T extends Cell> {
    */
 
   public Simulation(Neighborhood hoodType, String gridType) {
+    this(hoodType, gridType, RandomSource.randomSeed());
+  }
+
+  /**
+   * Constructs a basic Simulation object whose random numbers are all derived from a seed, so that
+   * two simulations built from the same seed and configuration evolve identically
+   *
+   * @param hoodType, the definition of neighbors
+   * @param gridType  type of grid used in simulation
+   * @param seed      the seed of the simulation's random source
+   */
+  public Simulation(Neighborhood hoodType, String gridType, long seed) {
     myNeighborhood = hoodType;
     myGridType = gridType;
+    myRandomSource = new RandomSource(seed);
   }
 
   /**
@@ -70,14 +96,272 @@ public abstract class Simulation<T extends Cell> {
     myRow = row;
     myCol = col;
     myGrid = switch (myGridType) {
-      case "Normal" -> new Grid(row, col, cellList);
-      case "Warped" -> new WarpedGrid(row, col, cellList);
+      case "Normal" -> new Grid<>(row, col, cellList);
+      case "Warped" -> new WarpedGrid<>(row, col, cellList);
       default -> throw new InvalidValueException("Edge Type Does Not Exist");
     };
-    Iterator<Cell> iterator = myGrid.iterator();
+    Iterator<T> iterator = myGrid.iterator();
     while (iterator.hasNext()) {
-      Cell cell = iterator.next();
+      T cell = iterator.next();
       cell.setNeighborhood(myNeighborhood.getNeighbors(myGrid, cell));
+      cell.setRandomSource(myRandomSource);
+    }
+    if (usePackedGrid) {
+      packGrid();
+    }
+    if (myActivityTracker != null) {
+      myActivityTracker = createActivityTracker();
+    }
+  }
+
+  /**
+   * Switches the simulation to a PackedGrid, which stores the state of every cell in flat arrays
+   * and the neighbors of every cell in a compressed adjacency list, instead of keeping a Cell
+   * object per location. The simulation itself then applies its rules and parameters, as a
+   * PackedRule. The packed grid is rebuilt whenever the grid is reinitialized.
+   *
+   * @throws InvalidValueException if this simulation does not implement PackedRule
+   */
+  public void usePackedGrid() {
+    if (usePackedGrid) {
+      return;
+    }
+    if (!(this instanceof PackedRule)) {
+      throw new InvalidValueException(
+          getClass().getSimpleName() + " cannot be used with a packed grid");
+    }
+    @SuppressWarnings("unchecked")
+    PackedRule<T> packedRule = (PackedRule<T>) this;
+    myPackedRule = packedRule;
+    usePackedGrid = true;
+    packGrid();
+    if (myActivityTracker != null) {
+      myActivityTracker = createActivityTracker();
+    }
+  }
+
+  /**
+   * Retrieves the packed grid holding the states of the simulation
+   *
+   * @return the packed grid, or null if the simulation is not using one
+   */
+  public PackedGrid getPackedGrid() {
+    return myPackedGrid;
+  }
+
+  /**
+   * Retrieves the current states and neighbors of the grid in a packed grid, which is a new copy of
+   * the grid unless the simulation is already using a packed grid
+   *
+   * @return a packed grid holding the current states of the simulation
+   */
+  protected PackedGrid toPackedGrid() {
+    return myPackedGrid != null ? myPackedGrid : new PackedGrid(myGrid);
+  }
+
+  /**
+   * Copies the states and neighbors of the current grid into a packed grid, and releases the cells
+   */
+  private void packGrid() {
+    myPackedGrid = new PackedGrid(myGrid);
+    myGrid = null;
+  }
+
+  /**
+   * Indicates whether the cells of this simulation can be transitioned and updated in parallel.
+   * This is only the case when the transition of a cell reads nothing but the current states of
+   * cells and writes nothing but its own next state, so that the order in which cells are visited
+   * cannot change the result. Subclasses meeting this requirement should override this method.
+   *
+   * @return true if and only if parallel stepping may be enabled for this simulation
+   */
+  public boolean supportsParallelStepping() {
+    return false;
+  }
+
+  /**
+   * Enables or disables parallel stepping. When enabled, the rows of the grid are split into
+   * stripes that are transitioned and updated on a fork-join pool, producing the same states as
+   * serial stepping.
+   *
+   * @param parallel true to step in parallel, false to step serially
+   * @throws InvalidValueException if parallel is true and the simulation does not support parallel
+   *                               stepping
+   */
+  public void setParallelStepping(boolean parallel) {
+    if (parallel && !supportsParallelStepping()) {
+      throw new InvalidValueException(
+          getClass().getSimpleName() + " cannot be stepped in parallel");
+    }
+    useParallelStepping = parallel;
+  }
+
+  /**
+   * @return true if and only if the simulation is currently stepping in parallel
+   */
+  public boolean isParallelStepping() {
+    return useParallelStepping;
+  }
+
+  /**
+   * Indicates whether this simulation can be stepped incrementally. This is only the case when the
+   * next state of a cell is fully determined by its own current state and the current states of its
+   * neighbors, without any randomness, so that a cell whose neighborhood did not change in the last
+   * timestep is certain to keep its state. Subclasses meeting this requirement should override this
+   * method.
+   *
+   * @return true if and only if incremental stepping may be enabled for this simulation
+   */
+  public boolean supportsIncrementalStepping() {
+    return false;
+  }
+
+  /**
+   * Enables or disables incremental stepping. When enabled, each timestep only transitions the
+   * cells that changed in the previous timestep and the cells that have them as neighbors, and the
+   * cells that changed are published through getChangedCells. Incremental stepping visits the
+   * active cells serially, taking precedence over parallel stepping, and produces the same states
+   * as stepping every cell.
+   *
+   * @param incremental true to step incrementally, false to transition every cell
+   * @throws InvalidValueException if incremental is true and the simulation does not support
+   *                               incremental stepping
+   */
+  public void setIncrementalStepping(boolean incremental) {
+    if (incremental && !supportsIncrementalStepping()) {
+      throw new InvalidValueException(
+          getClass().getSimpleName() + " cannot be stepped incrementally");
+    }
+    if (!incremental) {
+      myActivityTracker = null;
+    } else if (myActivityTracker == null) {
+      myActivityTracker = createActivityTracker();
+    }
+  }
+
+  /**
+   * @return true if and only if the simulation is currently stepping incrementally
+   */
+  public boolean isIncrementalStepping() {
+    return myActivityTracker != null;
+  }
+
+  /**
+   * Retrieves the cells whose state changed in the last timestep, so that views and statistics can
+   * update only those cells
+   *
+   * @return the row major indices of the changed cells in increasing order, or null if the
+   * simulation does not track which cells changed
+   */
+  public int[] getChangedCells() {
+    if (myActivityTracker == null) {
+      return null;
+    }
+    return myActivityTracker.getChangedCells().clone();
+  }
+
+  /**
+   * Retrieves the cells whose state changed in the last timestep. Like getIterator, the cells are
+   * snapshots when the simulation uses a packed grid.
+   *
+   * @return Iterator object over the changed cells in row major order, or null if the simulation
+   * does not track which cells changed
+   */
+  public Iterator<T> getChangedCellIterator() {
+    if (myActivityTracker == null) {
+      return null;
+    }
+    int[] changedCells = myActivityTracker.getChangedCells();
+    if (myPackedGrid != null) {
+      return new PackedCellIterator(changedCells);
+    }
+    return Arrays.stream(changedCells).mapToObj(this::getCell).iterator();
+  }
+
+  /**
+   * Builds a tracker for the current grid in which every cell is active
+   */
+  private ActivityTracker createActivityTracker() {
+    if (myPackedGrid != null) {
+      return new ActivityTracker(myPackedGrid.size(), index -> {
+        int[] neighbors = new int[myPackedGrid.getNeighborCount(index)];
+        Arrays.setAll(neighbors, k -> myPackedGrid.getNeighbor(index, k));
+        return neighbors;
+      });
+    }
+    return new ActivityTracker(myRow * myCol, index -> {
+      List<T> neighbors = getCell(index).getNeighbors();
+      return neighbors.stream().mapToInt(this::getIndex).toArray();
+    });
+  }
+
+  /**
+   * Transitions the active cells of an incremental timestep
+   */
+  private void transitionActiveCells() {
+    for (int index : myActivityTracker.getActiveCells()) {
+      if (myPackedGrid != null) {
+        myPackedGrid.setNextState(index, myPackedRule.computeNextState(myPackedGrid, index));
+      } else {
+        getCell(index).transition();
+      }
+    }
+  }
+
+  /**
+   * Updates the states of the active cells of an incremental timestep, recording which changed
+   */
+  private void updateActiveCells() {
+    int[] activeCells = myActivityTracker.getActiveCells();
+    int[] changedCells = new int[activeCells.length];
+    int numChanged = 0;
+    for (int index : activeCells) {
+      int previousState;
+      int newState;
+      if (myPackedGrid != null) {
+        previousState = myPackedGrid.getCurrentState(index);
+        newState = myPackedGrid.getNextState(index);
+        myPackedGrid.setCurrentState(index, newState);
+        myPackedGrid.setNextState(index, Cell.PLACEHOLDER);
+      } else {
+        T cell = getCell(index);
+        previousState = cell.getCurrentState();
+        cell.updateStates();
+        newState = cell.getCurrentState();
+      }
+      if (newState != previousState) {
+        changedCells[numChanged++] = index;
+      }
+    }
+    myActivityTracker.setChangedCells(changedCells, numChanged);
+  }
+
+  private T getCell(int index) {
+    return myGrid.getCell(index / myCol, index % myCol);
+  }
+
+  private int getIndex(Cell<?> cell) {
+    return cell.getRow() * myCol + cell.getCol();
+  }
+
+  /**
+   * Applies an action to every cell of the grid. When parallel stepping is enabled, rows of cells
+   * are handled concurrently, so the action must only modify the cell it is given.
+   *
+   * @param action the action to apply to each cell
+   */
+  protected void forEachCell(Consumer<T> action) {
+    if (useParallelStepping) {
+      RowStripeTask.forEachRow(myRow, row -> {
+        for (int col = 0; col < myCol; col++) {
+          action.accept(myGrid.getCell(row, col));
+        }
+      });
+      return;
+    }
+    Iterator<T> iterator = myGrid.iterator();
+    while (iterator.hasNext()) {
+      action.accept(iterator.next());
     }
   }
 
@@ -87,20 +371,104 @@ public abstract class Simulation<T extends Cell> {
    * transition function
    */
   public void processUpdate() {
-    Iterator<T> iterator = myGrid.iterator();
-    while (iterator.hasNext()) {
-      T cell = iterator.next();
-      cell.updateStates();
+    if (myActivityTracker != null) {
+      updateActiveCells();
+    } else if (myPackedGrid != null) {
+      myPackedGrid.swapStates();
+    } else {
+      forEachCell(cell -> cell.updateStates());
     }
+    myRandomSource.advance();
+  }
+
+  /**
+   * Advances the simulation by many timesteps at once. By default this runs one timestep after
+   * another; subclasses with a faster way to skip ahead override it.
+   *
+   * @param generations the number of timesteps to advance
+   * @throws InvalidValueException if generations is negative
+   */
+  public void jumpGenerations(long generations) throws InvalidValueException {
+    if (generations < 0) {
+      throw new InvalidValueException("Cannot jump a negative number of generations");
+    }
+    for (long i = 0; i < generations; i++) {
+      transitionFunction();
+      processUpdate();
+    }
+  }
+
+  /**
+   * Retrieves the current state of every cell without creating any cell objects when the states
+   * are stored in flat arrays
+   *
+   * @return the current states in row major order
+   */
+  public int[] getCurrentStates() {
+    int[] states = new int[myRow * myCol];
+    copyCurrentStates(states);
+    return states;
+  }
+
+  /**
+   * Copies the current state of every cell into an array the caller owns, so that a caller reading
+   * the states after every step can reuse the same array
+   *
+   * @param states an array with one entry per cell, filled with the current states in row major
+   *               order
+   */
+  public void copyCurrentStates(int[] states) {
+    if (myPackedGrid != null) {
+      System.arraycopy(myPackedGrid.getCurrentStates(), 0, states, 0, states.length);
+      return;
+    }
+    Iterator<T> iterator = getIterator();
+    for (int i = 0; iterator.hasNext(); i++) {
+      states[i] = iterator.next().getCurrentState();
+    }
+  }
+
+  /**
+   * Retrieves the current state of a single cell without creating a cell object when the states
+   * are stored in flat arrays
+   *
+   * @param index the row major index of the cell
+   * @return the current state of the cell
+   */
+  public int getCurrentState(int index) {
+    if (myPackedGrid != null) {
+      return myPackedGrid.getCurrentState(index);
+    }
+    return getCell(index).getCurrentState();
+  }
+
+  /**
+   * Retrieves the source of every random number drawn by this simulation and its cells
+   *
+   * @return the random source of the simulation
+   */
+  public RandomSource getRandomSource() {
+    return myRandomSource;
   }
 
   public void createCellsAndGrid(int row, int col, List<Integer> stateList,
       Shape shape, Neighborhood hoodType) {
     List<T> cellList = cellMaker(col, stateList, shape);
+    myNeighborhood = hoodType;
+    myShape = shape;
     initializeMyGrid(row, col, cellList);
-    for (T cell : cellList) {
-      cell.initializeNeighbors(hoodType, myGrid);
-    }
+  }
+
+  protected Neighborhood getNeighborhood() {
+    return myNeighborhood;
+  }
+
+  protected String getGridType() {
+    return myGridType;
+  }
+
+  protected Shape getShape() {
+    return myShape;
   }
 
   public abstract List<T> cellMaker(int col, List<Integer> stateList, Shape cellShape);
@@ -119,10 +487,31 @@ public abstract class Simulation<T extends Cell> {
    * in which the cell is passed into the helper function handleOpenCell for transitioning
    */
   public void transitionFunction() {
-    Iterator<T> gridIterator = getIterator();
-    while (gridIterator.hasNext()) {
-      T currentCell = gridIterator.next();
-      currentCell.transition();
+    if (myActivityTracker != null) {
+      transitionActiveCells();
+      return;
+    }
+    if (myPackedGrid != null) {
+      if (useParallelStepping) {
+        RowStripeTask.forEachRow(myRow,
+            row -> transitionPackedRange(row * myCol, (row + 1) * myCol));
+      } else {
+        transitionPackedRange(0, myPackedGrid.size());
+      }
+      return;
+    }
+    forEachCell(cell -> cell.transition());
+  }
+
+  /**
+   * Computes the next state of a range of locations in the packed grid
+   *
+   * @param start the row major index of the first location in the range
+   * @param end   the row major index after the last location in the range
+   */
+  private void transitionPackedRange(int start, int end) {
+    for (int i = start; i < end; i++) {
+      myPackedGrid.setNextState(i, myPackedRule.computeNextState(myPackedGrid, i));
     }
   }
 
@@ -135,16 +524,26 @@ public abstract class Simulation<T extends Cell> {
    */
 
   public Iterator<T> getIterator() {
+    if (myPackedGrid != null) {
+      return new PackedCellIterator(null);
+    }
     return myGrid.iterator();
   }
 
 
   /**
-   * Calls the update parameters method for each individual cell in the simulation
+   * Calls the update parameters method for each individual cell in the simulation. A packed grid
+   * has no cells to update, so a simulation using one applies the parameters as its PackedRule.
    *
    * @param newParameters, the updated parameter values
    */
   public void setParams(Map<String, Double> newParameters) {
+    if (myActivityTracker != null) {
+      myActivityTracker.activateAll();
+    }
+    if (myPackedGrid != null) {
+      return;
+    }
     Iterator<T> iterator = myGrid.iterator();
     while (iterator.hasNext()) {
       T cell = iterator.next();
@@ -152,4 +551,39 @@ public abstract class Simulation<T extends Cell> {
     }
 
   }
+
+  /**
+   * Iterates over the locations of a packed grid in row major order, creating a new cell holding
+   * the current state of each location. The cells are snapshots meant for reading: they have no
+   * neighbors, and changing them does not affect the simulation.
+   */
+  private class PackedCellIterator implements Iterator<T> {
+
+    private final int[] myIndices;
+    private int myPosition;
+
+    /**
+     * @param indices the row major indices of the locations to iterate over, or null for every
+     *                location
+     */
+    PackedCellIterator(int[] indices) {
+      myIndices = indices;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return myPosition < (myIndices == null ? myPackedGrid.size() : myIndices.length);
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int index = myIndices == null ? myPosition : myIndices[myPosition];
+      myPosition++;
+      return myPackedRule.makeCell(myPackedGrid.getCurrentState(index), index / myCol,
+          index % myCol, myShape);
+    }
+  }
 }
@@ -1,8 +1,20 @@
 package cellsociety.model.simulation;
 
 
+import cellsociety.model.random.RandomSource;
 import java.util.Map;
 
-public record SimulationRecord(Map<String, Double> params, String gridType, String cellShape) {
+public record SimulationRecord(Map<String, Double> params, String gridType, String cellShape,
+    long seed) {
 
+  /**
+   * Creates a record for a simulation that was not given a seed, choosing an unpredictable one
+   *
+   * @param params    the parameters of the simulation
+   * @param gridType  type of grid used in simulation
+   * @param cellShape the shape of each cell
+   */
+  public SimulationRecord(Map<String, Double> params, String gridType, String cellShape) {
+    this(params, gridType, cellShape, RandomSource.randomSeed());
+  }
 }
@@ -0,0 +1,272 @@
+package cellsociety.model.simulation;
+
+import cellsociety.model.core.cell.Cell;
+import cellsociety.model.core.cell.SugarCell;
+import cellsociety.model.random.RandomSource;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Steps a Sugarscape simulation on flat arrays instead of cell objects. The sugar and capacity of
+ * every cell are kept in int arrays, and the agents in a registry of parallel arrays holding the
+ * position, sugar, vision and metabolism of each agent, sorted by position. A timestep moves the
+ * agents one after another in row major order of their positions, with the same rules as
+ * SugarCell, so moving them costs time proportional to the number of agents rather than the size
+ * of the grid. Only the regrowth of sugar touches every cell, in a single pass over the arrays.
+ * Cells are referred to by their index in row major order.
+ */
+
+class SugarLandscape {
+
+  private static final int NO_AGENT = -1;
+  /**
+   * Marks a cell an agent moved onto during the current timestep, which no other agent may move
+   * onto
+   */
+  private static final int CLAIMED = -2;
+  private static final int NO_CELL = -1;
+  private static final double COIN_FLIP = .5;
+
+  private final int myNumCols;
+  private final SugarVisionTable myVisionTable;
+  private final RandomSource myRandomSource;
+  private final int[] myCapacity;
+  private final double[] myCentroidRows;
+  private final double[] myCentroidCols;
+  /**
+   * The position in the registry of the agent on each cell, NO_AGENT, or CLAIMED
+   */
+  private final int[] myAgentAt;
+  private int[] mySugar;
+  private int[] myNextSugar;
+  private int myGrowBackRate;
+  private int myNumAgents;
+  private int[] myPositions;
+  private int[] myAgentSugar;
+  private int[] myVision;
+  private int[] myMetabolism;
+  private int myNumNextAgents;
+  private int[] myNextPositions;
+  private int[] myNextAgentSugar;
+  private int[] myNextVision;
+  private int[] myNextMetabolism;
+  private long[] mySortKeys;
+
+  /**
+   * Copies the sugar, capacities and agents of a grid of SugarCells
+   *
+   * @param cells        every cell of the grid in row major order
+   * @param numCols      the number of columns in the grid
+   * @param visionTable  the cells visible from every cell of the grid
+   * @param randomSource the random source of the simulation, from which coin flips are drawn
+   * @param growBackRate the amount of sugar that grows back on each cell every timestep
+   */
+  SugarLandscape(List<SugarCell> cells, int numCols, SugarVisionTable visionTable,
+      RandomSource randomSource, int growBackRate) {
+    myNumCols = numCols;
+    myVisionTable = visionTable;
+    myRandomSource = randomSource;
+    myGrowBackRate = growBackRate;
+    int size = cells.size();
+    myCapacity = new int[size];
+    myCentroidRows = new double[size];
+    myCentroidCols = new double[size];
+    myAgentAt = new int[size];
+    mySugar = new int[size];
+    myNextSugar = new int[size];
+    for (int i = 0; i < size; i++) {
+      SugarCell cell = cells.get(i);
+      myCapacity[i] = cell.getCapacity();
+      mySugar[i] = cell.getCurrentState();
+      myCentroidRows[i] = cell.getCentroid().getRow();
+      myCentroidCols[i] = cell.getCentroid().getCol();
+      myAgentAt[i] = NO_AGENT;
+      if (cell.agentHere()) {
+        myNumAgents++;
+      }
+    }
+    myPositions = new int[myNumAgents];
+    myAgentSugar = new int[myNumAgents];
+    myVision = new int[myNumAgents];
+    myMetabolism = new int[myNumAgents];
+    myNextPositions = new int[myNumAgents];
+    myNextAgentSugar = new int[myNumAgents];
+    myNextVision = new int[myNumAgents];
+    myNextMetabolism = new int[myNumAgents];
+    mySortKeys = new long[myNumAgents];
+    int agent = 0;
+    for (int i = 0; i < size; i++) {
+      SugarCell cell = cells.get(i);
+      if (cell.agentHere()) {
+        myPositions[agent] = i;
+        myAgentSugar[agent] = cell.getAgentSugar();
+        myVision[agent] = cell.getVision();
+        myMetabolism[agent] = cell.getMetabolism();
+        myAgentAt[i] = agent;
+        agent++;
+      }
+    }
+  }
+
+  void setGrowBackRate(int growBackRate) {
+    myGrowBackRate = growBackRate;
+  }
+
+  /**
+   * Computes the next timestep: sugar grows back on every cell, then each agent, in row major
+   * order, moves to the visible free cell with the most sugar and eats it
+   */
+  void computeNext() {
+    for (int i = 0; i < mySugar.length; i++) {
+      myNextSugar[i] = Math.min(mySugar[i] + myGrowBackRate, myCapacity[i]);
+    }
+    myNumNextAgents = 0;
+    for (int agent = 0; agent < myNumAgents; agent++) {
+      moveAgent(agent);
+    }
+  }
+
+  /**
+   * Moves an agent, or keeps it in place if no visible cell is free. An agent that moves leaves
+   * behind a cell regrowing from empty, and an agent that runs out of sugar dies where it ends up.
+   */
+  private void moveAgent(int agent) {
+    int position = myPositions[agent];
+    int target = findTarget(agent);
+    if (target == NO_CELL) {
+      myNextSugar[position] = 0;
+      addNextAgent(agent, position,
+          myAgentSugar[agent] + myGrowBackRate - myMetabolism[agent]);
+      return;
+    }
+    int newAgentSugar = myAgentSugar[agent] + mySugar[target] - myMetabolism[agent];
+    if (newAgentSugar > 0) {
+      myNextSugar[target] = 0;
+      myAgentAt[target] = CLAIMED;
+      addNextAgent(agent, target, newAgentSugar);
+    } else {
+      //as in SugarCell, sugar regrows on the cell where an agent died with the capacity of the cell
+      //the agent came from, and another agent may still move there
+      myNextSugar[target] = Math.min(myCapacity[position], mySugar[target] + myGrowBackRate);
+    }
+    myNextSugar[position] = Math.min(myGrowBackRate, myCapacity[position]);
+  }
+
+  /**
+   * Finds the visible cell with the most sugar that no agent is on or has moved onto, with ties
+   * broken by distance, then by a coin flip
+   *
+   * @return the index of the cell, or NO_CELL if every visible cell is taken
+   */
+  private int findTarget(int agent) {
+    int position = myPositions[agent];
+    int numVisible = myVisionTable.getVisibleCount(position, myVision[agent]);
+    long randomKey = RandomSource.locationKey(position / myNumCols, position % myNumCols);
+    int bestOption = NO_CELL;
+    int bestVal = -1;
+    double bestDistance = 0;
+    int draw = 0;
+    for (int k = 0; k < numVisible; k++) {
+      int cell = myVisionTable.getVisibleCell(position, k);
+      if (myAgentAt[cell] != NO_AGENT) {
+        continue;
+      }
+      if (mySugar[cell] > bestVal) {
+        bestVal = mySugar[cell];
+        bestOption = cell;
+        bestDistance = distance(position, cell);
+      } else if (mySugar[cell] == bestVal) {
+        double cellDistance = distance(position, cell);
+        if (cellDistance < bestDistance || (cellDistance == bestDistance
+            && myRandomSource.nextDouble(randomKey, draw++) < COIN_FLIP)) {
+          bestOption = cell;
+          bestDistance = cellDistance;
+        }
+      }
+    }
+    return bestOption;
+  }
+
+  /**
+   * @return the same squared distance between centroids as Cell.distance
+   */
+  private double distance(int from, int to) {
+    double colDelta = myCentroidCols[from] - myCentroidCols[to];
+    double rowDelta = myCentroidRows[from] - myCentroidRows[to];
+    return colDelta * colDelta + rowDelta * rowDelta;
+  }
+
+  /**
+   * Adds an agent to the registry of the next timestep if it has sugar left
+   */
+  private void addNextAgent(int agent, int position, int agentSugar) {
+    if (agentSugar <= 0) {
+      return;
+    }
+    myNextPositions[myNumNextAgents] = position;
+    myNextAgentSugar[myNumNextAgents] = agentSugar;
+    myNextVision[myNumNextAgents] = myVision[agent];
+    myNextMetabolism[myNumNextAgents] = myMetabolism[agent];
+    myNumNextAgents++;
+  }
+
+  /**
+   * Makes the next timestep current, sorting the surviving agents by their new positions. Every
+   * claimed cell is the new position of an agent, so no cell is left claimed.
+   */
+  void update() {
+    int[] previousSugar = mySugar;
+    mySugar = myNextSugar;
+    myNextSugar = previousSugar;
+    for (int agent = 0; agent < myNumAgents; agent++) {
+      myAgentAt[myPositions[agent]] = NO_AGENT;
+    }
+    for (int agent = 0; agent < myNumNextAgents; agent++) {
+      mySortKeys[agent] = (long) myNextPositions[agent] << Integer.SIZE | agent;
+    }
+    Arrays.sort(mySortKeys, 0, myNumNextAgents);
+    for (int agent = 0; agent < myNumNextAgents; agent++) {
+      int next = (int) mySortKeys[agent];
+      myPositions[agent] = myNextPositions[next];
+      myAgentSugar[agent] = myNextAgentSugar[next];
+      myVision[agent] = myNextVision[next];
+      myMetabolism[agent] = myNextMetabolism[next];
+      myAgentAt[myPositions[agent]] = agent;
+    }
+    myNumAgents = myNumNextAgents;
+  }
+
+  /**
+   * Copies the amount of sugar on every cell, in row major order, into an array of one entry per
+   * cell
+   */
+  void copySugar(int[] sugar) {
+    System.arraycopy(mySugar, 0, sugar, 0, mySugar.length);
+  }
+
+  int getSugar(int index) {
+    return mySugar[index];
+  }
+
+  /**
+   * @return the sugar of the agent on a cell, or Cell.PLACEHOLDER if there is none or an agent is
+   * only moving there during the current timestep
+   */
+  int getAgentSugar(int index) {
+    return myAgentAt[index] < 0 ? Cell.PLACEHOLDER : myAgentSugar[myAgentAt[index]];
+  }
+
+  /**
+   * @return the vision of the agent on a cell, or Cell.PLACEHOLDER if there is none
+   */
+  int getVision(int index) {
+    return myAgentAt[index] < 0 ? Cell.PLACEHOLDER : myVision[myAgentAt[index]];
+  }
+
+  /**
+   * @return the metabolism of the agent on a cell, or Cell.PLACEHOLDER if there is none
+   */
+  int getMetabolism(int index) {
+    return myAgentAt[index] < 0 ? Cell.PLACEHOLDER : myMetabolism[myAgentAt[index]];
+  }
+}
@@ -21,6 +21,11 @@ import java.util.Random;
 
 public class SugarSimulation extends Simulation<SugarCell> {
 
+  /**
+   * Key of the random stream used to place agents and draw their attributes, chosen to be negative
+   * so that it never matches the key of a cell
+   */
+  private static final long PLACEMENT_STREAM = -1;
   private final int minVision;
   private final int maxVision;
   private final int minInitialSugar;
@@ -28,7 +33,17 @@ public class SugarSimulation extends Simulation<SugarCell> {
   private final int minMetabolism;
   private final int maxMetabolism;
   private final int numAgents;
-  private final int growBackRate;
+  private int growBackRate;
+  private boolean useAgentList = true;
+  private SugarLandscape myLandscape;
+  /**
+   * True if the simulation was stepped on the landscape since its state was last copied onto the
+   * cells
+   */
+  private boolean areCellsOutdated;
+  private List<SugarCell> myCells;
+  private int myNumRows;
+  private int myNumCols;
 
   /**
    * Initializes a SugarSimulation object
@@ -44,7 +59,7 @@ public class SugarSimulation extends Simulation<SugarCell> {
 
   public SugarSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
+    super(hoodType, r.gridType(), r.seed());
     minVision = (int) Math.floor(r.params().get("minVision"));
     maxVision = (int) Math.floor(r.params().get("maxVision"));
     minInitialSugar = (int) Math.floor(r.params().get("minInitialSugar"));
@@ -73,16 +88,17 @@ public class SugarSimulation extends Simulation<SugarCell> {
 
     List<Boolean> agentList = new ArrayList<>(Collections.nCopies(stateList.size(), false));
     Collections.fill(agentList.subList(0, numAgents), true);
-    Collections.shuffle(agentList);
+    Random random = getRandomSource().getStream(PLACEMENT_STREAM);
+    Collections.shuffle(agentList, random);
 
     for (int i = 0; i < stateList.size(); i++) {
       Map<String, Integer> params = new HashMap<>();
       if (agentList.get(i)) {
-        params.put("vision", new Random().nextInt(maxVision + 1 - minVision) + minVision);
+        params.put("vision", random.nextInt(maxVision + 1 - minVision) + minVision);
         params.put("sugar",
-            new Random().nextInt(maxInitialSugar + 1 - minInitialSugar) + minInitialSugar);
+            random.nextInt(maxInitialSugar + 1 - minInitialSugar) + minInitialSugar);
         params.put("metabolism",
-            new Random().nextInt(maxMetabolism + 1 - minMetabolism) + minMetabolism);
+            random.nextInt(maxMetabolism + 1 - minMetabolism) + minMetabolism);
       }
       params.put("growBackRate", growBackRate);
       cellList.add(new SugarCell(stateList.get(i), i / col, i % col, shape, params));
@@ -92,11 +108,74 @@ public class SugarSimulation extends Simulation<SugarCell> {
 
 
   /**
-   * Transition function for Sugar Scape. Iterates through each cell, starting with all the agents,
-   * then empty cells, and calls the cell's transition function.
+   * Initializes the grid, then finds the cells visible from each cell with the largest vision an
+   * agent may have. Unless agent list stepping is turned off, the sugar and agents are then moved
+   * onto a SugarLandscape.
+   *
+   * @param row,      number of rows in simulation
+   * @param col,      number of columns in simulation
+   * @param cellList, all cells in simulation, listed in row major order
+   */
+  @Override
+  public void initializeMyGrid(int row, int col, List<SugarCell> cellList) {
+    super.initializeMyGrid(row, col, cellList);
+    myCells = cellList;
+    myNumRows = row;
+    myNumCols = col;
+    SugarVisionTable visionTable = new SugarVisionTable(cellList, col, maxVision);
+    myLandscape = null;
+    if (useAgentList) {
+      myLandscape = new SugarLandscape(cellList, col, visionTable, getRandomSource(),
+          growBackRate);
+      return;
+    }
+    for (int i = 0; i < cellList.size(); i++) {
+      SugarCell[] visibleCells = new SugarCell[visionTable.getVisibleCount(i, maxVision)];
+      for (int k = 0; k < visibleCells.length; k++) {
+        visibleCells[k] = cellList.get(visionTable.getVisibleCell(i, k));
+      }
+      int[] visionCounts = new int[Math.max(maxVision, 0) + 1];
+      for (int vision = 0; vision < visionCounts.length; vision++) {
+        visionCounts[vision] = visionTable.getVisibleCount(i, vision);
+      }
+      cellList.get(i).setVisibleCells(visibleCells, visionCounts);
+    }
+  }
+
+  /**
+   * Enables or disables agent list stepping, which is enabled by default. Disabling it moves the
+   * sugar and agents back onto the cells, which then transition one by one.
+   *
+   * @param enabled true to step the simulation on a SugarLandscape
+   */
+  public void setAgentListStepping(boolean enabled) {
+    if (enabled == useAgentList) {
+      return;
+    }
+    List<SugarCell> cellList = new ArrayList<>();
+    getIterator().forEachRemaining(cellList::add);
+    useAgentList = enabled;
+    initializeMyGrid(myNumRows, myNumCols, cellList);
+  }
+
+  /**
+   * @return true if and only if the simulation is currently stepped on a SugarLandscape
+   */
+  public boolean isAgentListStepping() {
+    return myLandscape != null;
+  }
+
+  /**
+   * Transition function for Sugar Scape. On a SugarLandscape, the agents move in row major order
+   * and then sugar grows back everywhere else. Otherwise, iterates through each cell, starting with
+   * all the agents, then empty cells, and calls the cell's transition function.
    */
   @Override
   public void transitionFunction() {
+    if (myLandscape != null) {
+      myLandscape.computeNext();
+      return;
+    }
     for (int i = 0; i < 2; i++) {
       Iterator<SugarCell> gridIterator = getIterator();
       while (gridIterator.hasNext()) {
@@ -107,4 +186,68 @@ public class SugarSimulation extends Simulation<SugarCell> {
       }
     }
   }
+
+  @Override
+  public void processUpdate() {
+    if (myLandscape == null) {
+      super.processUpdate();
+      return;
+    }
+    myLandscape.update();
+    getRandomSource().advance();
+    areCellsOutdated = true;
+  }
+
+  /**
+   * Retrieves the cells of the grid. When the simulation is stepped on a SugarLandscape, the sugar
+   * and agents of the landscape are first copied onto the cells, which are otherwise left out of
+   * date.
+   *
+   * @return Iterator object that can iterate through the grid
+   */
+  @Override
+  public Iterator<SugarCell> getIterator() {
+    if (myLandscape != null && areCellsOutdated) {
+      for (int i = 0; i < myCells.size(); i++) {
+        SugarCell cell = myCells.get(i);
+        cell.setNextStateAgentSugarVisionMetabolism(myLandscape.getSugar(i),
+            myLandscape.getAgentSugar(i), myLandscape.getVision(i),
+            myLandscape.getMetabolism(i));
+        cell.updateStates();
+      }
+      areCellsOutdated = false;
+    }
+    return super.getIterator();
+  }
+
+  @Override
+  public void copyCurrentStates(int[] states) {
+    if (myLandscape == null) {
+      super.copyCurrentStates(states);
+      return;
+    }
+    myLandscape.copySugar(states);
+  }
+
+  @Override
+  public int getCurrentState(int index) {
+    if (myLandscape == null) {
+      return super.getCurrentState(index);
+    }
+    return myLandscape.getSugar(index);
+  }
+
+  /**
+   * Updates the grow back rate of every cell, of the cells created later on, and of the landscape
+   *
+   * @param newParameters, the updated parameter values
+   */
+  @Override
+  public void setParams(Map<String, Double> newParameters) {
+    growBackRate = (int) Math.floor(newParameters.get("growBackRate"));
+    super.setParams(newParameters);
+    if (myLandscape != null) {
+      myLandscape.setGrowBackRate(growBackRate);
+    }
+  }
 }
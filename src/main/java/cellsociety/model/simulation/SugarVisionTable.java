@@ -0,0 +1,144 @@
+package cellsociety.model.simulation;
+
+import cellsociety.model.core.cell.SugarCell;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lists, for every cell of a Sugarscape grid, the cells an agent standing there can see. Agents see
+ * in straight lines: along the direction to each of its neighbors, an agent sees that neighbor, the
+ * neighbor in the same direction from there, and so on, one cell further for each unit of vision.
+ * A line ends where no neighbor lies in the same direction, such as at the edge of the grid. The
+ * lines are followed once, up to the largest vision an agent may have, so that finding the cells
+ * visible with a given vision only reads the start of an int array. Cells are referred to by their
+ * index in row major order.
+ */
+
+class SugarVisionTable {
+
+  private final int myMaxVision;
+  /**
+   * The cells visible from cell i are myVisible[myStarts[i]] up to myVisible[myStarts[i + 1] - 1],
+   * sorted by the vision needed to see them
+   */
+  private final int[] myStarts;
+  private int[] myVisible;
+  /**
+   * myVisionCounts[i * (myMaxVision + 1) + v] is the number of cells visible from cell i with
+   * vision v
+   */
+  private final int[] myVisionCounts;
+  /**
+   * The vision needed to see each cell from the cell whose lines are being followed, or 0 if it has
+   * not been seen
+   */
+  private final int[] myVisionNeeded;
+  private final int[] mySeen;
+  private int myNumSeen;
+
+  /**
+   * Follows the lines of sight from every cell of a grid
+   *
+   * @param cells     every cell of the grid in row major order, with their neighbors set
+   * @param numCols   the number of columns in the grid
+   * @param maxVision the largest vision of any agent
+   */
+  SugarVisionTable(List<SugarCell> cells, int numCols, int maxVision) {
+    myMaxVision = Math.max(maxVision, 0);
+    myStarts = new int[cells.size() + 1];
+    myVisible = new int[cells.size()];
+    myVisionCounts = new int[cells.size() * (myMaxVision + 1)];
+    myVisionNeeded = new int[cells.size()];
+    mySeen = new int[cells.size()];
+    for (int i = 0; i < cells.size(); i++) {
+      SugarCell origin = cells.get(i);
+      myNumSeen = 0;
+      if (myMaxVision > 0) {
+        for (SugarCell neighbor : origin.getNeighbors()) {
+          if (neighbor != origin) {
+            followLine(origin, neighbor, getRowDelta(origin, neighbor),
+                getColDelta(origin, neighbor), 1, numCols);
+          }
+        }
+      }
+      addVisibleCells(i);
+    }
+  }
+
+  /**
+   * @return the number of cells visible from a cell with the given vision
+   */
+  int getVisibleCount(int index, int vision) {
+    return myVisionCounts[index * (myMaxVision + 1) + Math.max(0, Math.min(vision, myMaxVision))];
+  }
+
+  /**
+   * @param index the index of the cell the agent stands on
+   * @param k     less than the number of visible cells, for the largest vision
+   * @return the index of the k-th cell visible from the cell. The first getVisibleCount(index, v)
+   * cells are exactly those visible with vision v.
+   */
+  int getVisibleCell(int index, int k) {
+    return myVisible[myStarts[index] + k];
+  }
+
+  /**
+   * Records a cell as seen from the origin with the given vision, then continues the line of sight
+   * through every neighbor of the cell in the same direction
+   */
+  private void followLine(SugarCell origin, SugarCell cell, double rowDelta, double colDelta,
+      int vision, int numCols) {
+    int index = cell.getRow() * numCols + cell.getCol();
+    if (myVisionNeeded[index] == 0) {
+      mySeen[myNumSeen++] = index;
+      myVisionNeeded[index] = vision;
+    } else {
+      myVisionNeeded[index] = Math.min(myVisionNeeded[index], vision);
+    }
+    if (vision == myMaxVision) {
+      return;
+    }
+    for (SugarCell next : cell.getNeighbors()) {
+      if (next != origin && getRowDelta(cell, next) == rowDelta
+          && getColDelta(cell, next) == colDelta) {
+        followLine(origin, next, rowDelta, colDelta, vision + 1, numCols);
+      }
+    }
+  }
+
+  /**
+   * Appends the cells seen from a cell to the table, sorted by the vision needed to see them, and
+   * forgets them for the next cell
+   */
+  private void addVisibleCells(int index) {
+    int start = myStarts[index];
+    if (myVisible.length < start + myNumSeen) {
+      myVisible = Arrays.copyOf(myVisible, Math.max(start + myNumSeen, myVisible.length * 2));
+    }
+    int countsStart = index * (myMaxVision + 1);
+    for (int k = 0; k < myNumSeen; k++) {
+      myVisionCounts[countsStart + myVisionNeeded[mySeen[k]]]++;
+    }
+    for (int vision = 1; vision <= myMaxVision; vision++) {
+      myVisionCounts[countsStart + vision] += myVisionCounts[countsStart + vision - 1];
+    }
+    int[] positions = new int[myMaxVision + 1];
+    for (int vision = 1; vision <= myMaxVision; vision++) {
+      positions[vision] = start + myVisionCounts[countsStart + vision - 1];
+    }
+    for (int k = 0; k < myNumSeen; k++) {
+      int seen = mySeen[k];
+      myVisible[positions[myVisionNeeded[seen]]++] = seen;
+      myVisionNeeded[seen] = 0;
+    }
+    myStarts[index + 1] = start + myNumSeen;
+  }
+
+  private static double getRowDelta(SugarCell from, SugarCell to) {
+    return to.getCentroid().getRow() - from.getCentroid().getRow();
+  }
+
+  private static double getColDelta(SugarCell from, SugarCell to) {
+    return to.getCentroid().getCol() - from.getCentroid().getCol();
+  }
+}
@@ -0,0 +1,432 @@
+package cellsociety.model.simulation;
+
+import cellsociety.model.core.cell.Cell;
+import cellsociety.model.core.cell.WatorCell;
+import cellsociety.model.random.RandomSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Steps a Wa-Tor simulation on flat arrays instead of cell objects. Which cells hold a fish or a
+ * shark is kept in two bitsets, the age and energy of every cell in int arrays, and the positions of
+ * the fish and of the sharks in two arrays sorted in row major order, so that a timestep only
+ * visits the animals rather than every cell. The sharks move first and then the fish, each in row
+ * major order and with the same rules and random numbers as WatorCell. The next state of every
+ * cell is recorded in a byte array, from which a single pass over the grid builds the bitsets of
+ * the next timestep. Cells are referred to by their index in row major order.
+ * <p>
+ * Moves may also be computed in parallel. The rows are then split into stripes a little over twice
+ * the reach of a neighborhood high, and every row is colored by its position in its stripe, so that
+ * no two animals in different rows of the same color share a neighbor. The sharks of one color
+ * after another move in parallel, each row on one thread in row major order, and then the fish in
+ * the same way, which never lets two threads claim the same cell. Animals thus move in a different
+ * order than row major order, but the outcome of a timestep does not depend on the number of
+ * threads.
+ */
+
+class WatorOcean {
+
+  private static final int BITS_PER_WORD = Long.SIZE;
+
+  private final int myNumCols;
+  /**
+   * The neighbors of cell i are myNeighbors[myNeighborStarts[i]] up to
+   * myNeighbors[myNeighborStarts[i + 1] - 1], in the order of the cell's neighbor list
+   */
+  private final int[] myNeighborStarts;
+  private final int[] myNeighbors;
+  private final RandomSource myRandomSource;
+  private final Scratch mySerialScratch;
+  private final ThreadLocal<Scratch> myParallelScratch;
+  /**
+   * The rows of each color, so that the rows of one color can be handed out to threads
+   */
+  private final int[][] myRowsOfColor;
+  private final long[] myFish;
+  private final long[] mySharks;
+  /**
+   * The state each cell takes after the timestep, where EMPTY also stands for a cell no animal has
+   * claimed yet
+   */
+  private final byte[] myNextStates;
+  private int[] myAge;
+  private int[] myEnergy;
+  private int[] myNextAge;
+  private int[] myNextEnergy;
+  private int[] myFishPositions;
+  private int myNumFish;
+  private int[] mySharkPositions;
+  private int myNumSharks;
+  /**
+   * Where the positions of the fish or the sharks in row r start, at myRowStarts[r]
+   */
+  private final int[] myRowStarts;
+  private int myFishAgeOfReproduction;
+  private int mySharkAgeOfReproduction;
+  private int myInitialEnergy;
+  private int myEnergyBoost;
+
+  /**
+   * Copies the states, ages, energies and neighbors of a grid of WatorCells, whose states must all
+   * be EMPTY, FISH or SHARK
+   *
+   * @param cells        every cell of the grid in row major order, with their neighbors set
+   * @param numCols      the number of columns in the grid
+   * @param randomSource the random source of the simulation, from which moves are drawn
+   */
+  WatorOcean(List<WatorCell> cells, int numCols, RandomSource randomSource) {
+    myNumCols = numCols;
+    myRandomSource = randomSource;
+    int size = cells.size();
+    myNeighborStarts = new int[size + 1];
+    int maxNeighbors = 0;
+    for (int i = 0; i < size; i++) {
+      int numNeighbors = cells.get(i).getNeighbors().size();
+      myNeighborStarts[i + 1] = myNeighborStarts[i] + numNeighbors;
+      maxNeighbors = Math.max(maxNeighbors, numNeighbors);
+    }
+    myNeighbors = new int[myNeighborStarts[size]];
+    int neighborCount = maxNeighbors;
+    mySerialScratch = new Scratch(neighborCount);
+    myParallelScratch = ThreadLocal.withInitial(() -> new Scratch(neighborCount));
+    int words = (size + BITS_PER_WORD - 1) / BITS_PER_WORD;
+    myFish = new long[words];
+    mySharks = new long[words];
+    myNextStates = new byte[size];
+    myAge = new int[size];
+    myEnergy = new int[size];
+    myNextAge = new int[size];
+    myNextEnergy = new int[size];
+    for (int i = 0; i < size; i++) {
+      WatorCell cell = cells.get(i);
+      int position = myNeighborStarts[i];
+      for (WatorCell neighbor : cell.getNeighbors()) {
+        myNeighbors[position++] = neighbor.getRow() * numCols + neighbor.getCol();
+      }
+      setNext(i, cell.getCurrentState(), cell.getEnergy(), cell.getAge());
+    }
+    int numRows = size / numCols;
+    int[] rowColors = colorRows(numRows, 2 * getReach(numRows) + 1);
+    myRowsOfColor = new int[Arrays.stream(rowColors).max().orElse(-1) + 1][];
+    for (int color = 0; color < myRowsOfColor.length; color++) {
+      int rowColor = color;
+      myRowsOfColor[color] = IntStream.range(0, numRows)
+          .filter(row -> rowColors[row] == rowColor).toArray();
+    }
+    myRowStarts = new int[numRows + 1];
+    myFishPositions = new int[0];
+    mySharkPositions = new int[0];
+    update();
+  }
+
+  /**
+   * @return the largest number of rows or columns between a cell and one of its neighbors, counting
+   * across the edges of the grid where that is shorter
+   */
+  private int getReach(int numRows) {
+    int reach = 0;
+    for (int i = 0; i < myNeighborStarts.length - 1; i++) {
+      for (int k = myNeighborStarts[i]; k < myNeighborStarts[i + 1]; k++) {
+        int rowDelta = Math.abs(myNeighbors[k] / myNumCols - i / myNumCols);
+        int colDelta = Math.abs(myNeighbors[k] % myNumCols - i % myNumCols);
+        reach = Math.max(reach, Math.min(rowDelta, numRows - rowDelta));
+        reach = Math.max(reach, Math.min(colDelta, myNumCols - colDelta));
+      }
+    }
+    return reach;
+  }
+
+  /**
+   * Colors the rows of a grid by their position in a stripe. Rows left over after the last whole
+   * stripe get colors of their own, so that rows of the same color are at least a stripe apart even
+   * across the edges of the grid. Columns need no colors: the animals of a row all move on the same
+   * thread, and rows of the same color are too far apart for their animals to share a neighbor.
+   */
+  private static int[] colorRows(int numRows, int stripeSize) {
+    int stripedRows = numRows / stripeSize * stripeSize;
+    int[] colors = new int[numRows];
+    for (int row = 0; row < numRows; row++) {
+      colors[row] = row < stripedRows ? row % stripeSize : row - stripedRows + stripeSize;
+    }
+    return colors;
+  }
+
+  /**
+   * Sets the parameters of the simulation, with the same meaning as in WatorCell
+   */
+  void setParams(int fishAgeOfReproduction, int sharkAgeOfReproduction, int initialEnergy,
+      int energyBoost) {
+    myFishAgeOfReproduction = fishAgeOfReproduction;
+    mySharkAgeOfReproduction = sharkAgeOfReproduction;
+    myInitialEnergy = initialEnergy;
+    myEnergyBoost = energyBoost;
+  }
+
+  /**
+   * Computes the next timestep, moving every shark and then every fish that was not eaten
+   *
+   * @param parallel true to move the animals of each color in parallel, false to move all animals
+   *                 in row major order on the calling thread
+   */
+  void computeNext(boolean parallel) {
+    if (parallel) {
+      computeNextInColors();
+      return;
+    }
+    for (int i = 0; i < myNumSharks; i++) {
+      updateShark(mySharkPositions[i], mySerialScratch);
+    }
+    for (int i = 0; i < myNumFish; i++) {
+      updateFish(myFishPositions[i], mySerialScratch);
+    }
+  }
+
+  /**
+   * Moves the sharks of one color after another, then the fish, each color in parallel by rows.
+   * Every phase ends before the next begins, so the fish only move once every shark has eaten.
+   */
+  private void computeNextInColors() {
+    for (boolean sharks : new boolean[]{true, false}) {
+      int[] positions = sharks ? mySharkPositions : myFishPositions;
+      findRowStarts(positions, sharks ? myNumSharks : myNumFish);
+      for (int[] rows : myRowsOfColor) {
+        RowStripeTask.forEachRow(rows.length, i -> moveRow(positions, rows[i], sharks));
+      }
+    }
+  }
+
+  /**
+   * Moves the sharks or the fish of one row, in row major order
+   */
+  private void moveRow(int[] positions, int row, boolean sharks) {
+    Scratch scratch = myParallelScratch.get();
+    for (int i = myRowStarts[row]; i < myRowStarts[row + 1]; i++) {
+      if (sharks) {
+        updateShark(positions[i], scratch);
+      } else {
+        updateFish(positions[i], scratch);
+      }
+    }
+  }
+
+  /**
+   * Finds where the positions of each row start in positions sorted in row major order
+   */
+  private void findRowStarts(int[] positions, int count) {
+    Arrays.fill(myRowStarts, 0);
+    for (int i = 0; i < count; i++) {
+      myRowStarts[positions[i] / myNumCols + 1]++;
+    }
+    for (int row = 1; row < myRowStarts.length; row++) {
+      myRowStarts[row] += myRowStarts[row - 1];
+    }
+  }
+
+  /**
+   * Moves a shark onto a random neighboring fish, or else onto a random empty neighbor, following
+   * WatorCell.updateShark
+   */
+  private void updateShark(int position, Scratch scratch) {
+    int[] emptyNeighbors = scratch.myEmptyNeighbors;
+    int[] fishNeighbors = scratch.myFishNeighbors;
+    int numEmpty = 0;
+    int numFish = 0;
+    for (int k = myNeighborStarts[position]; k < myNeighborStarts[position + 1]; k++) {
+      int neighbor = myNeighbors[k];
+      if (isSet(myFish, neighbor)) {
+        fishNeighbors[numFish++] = neighbor;
+      } else if (!isSet(mySharks, neighbor)) {
+        emptyNeighbors[numEmpty++] = neighbor;
+      }
+    }
+    if (numEmpty > 1 || numFish > 1) {
+      myRandomSource.resetStream(scratch.myRandom, getRandomKey(position));
+      shuffle(emptyNeighbors, numEmpty, scratch.myRandom);
+      shuffle(fishNeighbors, numFish, scratch.myRandom);
+    }
+    int energy = myEnergy[position];
+    int age = myAge[position];
+    if (numFish == 0 && numEmpty == 0) {
+      if (energy > 1) {
+        setNext(position, WatorSimulation.SHARK, energy - 1, age + 1);
+      }
+    } else if (numFish > 0) {
+      int nextCell = fishNeighbors[0];
+      if (myNextStates[nextCell] != WatorSimulation.EMPTY) {
+        setNext(position, WatorSimulation.SHARK, energy - 1, age + 1);
+      } else if (age >= mySharkAgeOfReproduction) {
+        setNext(position, WatorSimulation.SHARK, myInitialEnergy, 0);
+        setNext(nextCell, WatorSimulation.SHARK, energy + myEnergyBoost, 0);
+      } else {
+        setNext(nextCell, WatorSimulation.SHARK, energy + myEnergyBoost, age + 1);
+      }
+    } else if (energy > 1) {
+      int nextCell = emptyNeighbors[0];
+      if (myNextStates[nextCell] == WatorSimulation.SHARK) {
+        setNext(position, WatorSimulation.SHARK, energy - 1, age + 1);
+      } else if (age >= mySharkAgeOfReproduction) {
+        setNext(position, WatorSimulation.SHARK, myInitialEnergy, 0);
+        setNext(nextCell, WatorSimulation.SHARK, energy - 1, 0);
+      } else {
+        setNext(nextCell, WatorSimulation.SHARK, energy - 1, age + 1);
+      }
+    }
+  }
+
+  /**
+   * Moves a fish that was not eaten onto a random empty neighbor, following WatorCell.updateFish
+   */
+  private void updateFish(int position, Scratch scratch) {
+    if (myNextStates[position] == WatorSimulation.SHARK) {
+      return;
+    }
+    int[] emptyNeighbors = scratch.myEmptyNeighbors;
+    int numEmpty = 0;
+    for (int k = myNeighborStarts[position]; k < myNeighborStarts[position + 1]; k++) {
+      int neighbor = myNeighbors[k];
+      if (!isSet(myFish, neighbor) && !isSet(mySharks, neighbor)) {
+        emptyNeighbors[numEmpty++] = neighbor;
+      }
+    }
+    if (numEmpty > 1) {
+      myRandomSource.resetStream(scratch.myRandom, getRandomKey(position));
+      shuffle(emptyNeighbors, numEmpty, scratch.myRandom);
+    }
+    int age = myAge[position];
+    if (numEmpty == 0 || myNextStates[emptyNeighbors[0]] != WatorSimulation.EMPTY) {
+      setNext(position, WatorSimulation.FISH, Cell.PLACEHOLDER, age + 1);
+    } else if (age < myFishAgeOfReproduction) {
+      setNext(emptyNeighbors[0], WatorSimulation.FISH, Cell.PLACEHOLDER, age + 1);
+    } else {
+      setNext(position, WatorSimulation.FISH, Cell.PLACEHOLDER, 0);
+      setNext(emptyNeighbors[0], WatorSimulation.FISH, Cell.PLACEHOLDER, 0);
+    }
+  }
+
+  /**
+   * Shuffles the start of an array exactly as Collections.shuffle shuffles a list of that length
+   */
+  private static void shuffle(int[] cells, int count, Random random) {
+    for (int i = count; i > 1; i--) {
+      int j = random.nextInt(i);
+      int swap = cells[i - 1];
+      cells[i - 1] = cells[j];
+      cells[j] = swap;
+    }
+  }
+
+  private long getRandomKey(int position) {
+    return RandomSource.locationKey(position / myNumCols, position % myNumCols);
+  }
+
+  private void setNext(int position, int state, int energy, int age) {
+    myNextStates[position] = (byte) state;
+    myNextEnergy[position] = energy;
+    myNextAge[position] = age;
+  }
+
+  /**
+   * Makes the next timestep current in a single pass over the grid, which rebuilds the bitsets and
+   * the sorted positions of the animals and clears the next states
+   */
+  void update() {
+    int[] previousAge = myAge;
+    myAge = myNextAge;
+    myNextAge = previousAge;
+    int[] previousEnergy = myEnergy;
+    myEnergy = myNextEnergy;
+    myNextEnergy = previousEnergy;
+    myNumFish = 0;
+    myNumSharks = 0;
+    for (int word = 0; word < myFish.length; word++) {
+      long fish = 0;
+      long sharks = 0;
+      int first = word * BITS_PER_WORD;
+      int last = Math.min(first + BITS_PER_WORD, myNextStates.length);
+      for (int i = first; i < last; i++) {
+        int state = myNextStates[i];
+        fish |= (long) (state & WatorSimulation.FISH) << i;
+        sharks |= (long) (state >>> 1) << i;
+        myNextStates[i] = WatorSimulation.EMPTY;
+      }
+      myFish[word] = fish;
+      mySharks[word] = sharks;
+      myNumFish += Long.bitCount(fish);
+      myNumSharks += Long.bitCount(sharks);
+    }
+    myFishPositions = listPositions(myFish, myNumFish, myFishPositions);
+    mySharkPositions = listPositions(mySharks, myNumSharks, mySharkPositions);
+  }
+
+  /**
+   * @return an array starting with the indices of the set bits, in increasing order, reusing the
+   * given array if it is large enough
+   */
+  private static int[] listPositions(long[] bits, int count, int[] positions) {
+    if (positions.length < count) {
+      positions = new int[Math.max(count, positions.length * 2)];
+    }
+    int numListed = 0;
+    for (int word = 0; word < bits.length; word++) {
+      long remaining = bits[word];
+      while (remaining != 0) {
+        positions[numListed++] = word * BITS_PER_WORD + Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+      }
+    }
+    return positions;
+  }
+
+  private static boolean isSet(long[] bits, int index) {
+    return (bits[index / BITS_PER_WORD] >>> index & 1) != 0;
+  }
+
+  /**
+   * @return the current state of a cell
+   */
+  int getState(int index) {
+    if (isSet(myFish, index)) {
+      return WatorSimulation.FISH;
+    }
+    return isSet(mySharks, index) ? WatorSimulation.SHARK : WatorSimulation.EMPTY;
+  }
+
+  /**
+   * @return the age of the animal on a cell, or Cell.PLACEHOLDER if the cell is empty
+   */
+  int getAge(int index) {
+    return getState(index) == WatorSimulation.EMPTY ? Cell.PLACEHOLDER : myAge[index];
+  }
+
+  /**
+   * @return the energy of the shark on a cell, or Cell.PLACEHOLDER if there is none
+   */
+  int getEnergy(int index) {
+    return getState(index) == WatorSimulation.SHARK ? myEnergy[index] : Cell.PLACEHOLDER;
+  }
+
+  /**
+   * Copies the current state of every cell, in row major order, into an array of one entry per
+   * cell
+   */
+  void copyStates(int[] states) {
+    Arrays.setAll(states, this::getState);
+  }
+
+  /**
+   * The generator and neighbor lists used to move animals, of which each thread needs its own
+   */
+  private static class Scratch {
+
+    private final Random myRandom = new Random();
+    private final int[] myEmptyNeighbors;
+    private final int[] myFishNeighbors;
+
+    private Scratch(int maxNeighbors) {
+      myEmptyNeighbors = new int[maxNeighbors];
+      myFishNeighbors = new int[maxNeighbors];
+    }
+  }
+}
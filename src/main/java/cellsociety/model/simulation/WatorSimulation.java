@@ -23,10 +23,19 @@ public class WatorSimulation extends Simulation<WatorCell> {
   public static final int FISH = 1;
   public static final int SHARK = 2;
   public static final int[] UPDATE_ORDER = {SHARK, FISH, EMPTY};
-  private final int fishAgeOfReproduction;
-  private final int sharkAgeOfReproduction;
-  private final int energyBoost;
-  private final int initialEnergy;
+  private int fishAgeOfReproduction;
+  private int sharkAgeOfReproduction;
+  private int energyBoost;
+  private int initialEnergy;
+  private boolean useAgentList = true;
+  private WatorOcean myOcean;
+  /**
+   * True if the simulation was stepped on the ocean since its state was last copied onto the cells
+   */
+  private boolean areCellsOutdated;
+  private List<WatorCell> myCells;
+  private int myNumRows;
+  private int myNumCols;
 
   /**
    * Initializes a WatorSimulation object
@@ -41,7 +50,7 @@ public class WatorSimulation extends Simulation<WatorCell> {
 
   public WatorSimulation(int row, int col, Neighborhood hoodType, List<Integer> stateList,
       SimulationRecord r) {
-    super(hoodType, r.gridType());
+    super(hoodType, r.gridType(), r.seed());
     this.fishAgeOfReproduction = (int) Math.floor(r.params().get("fishAgeOfReproduction"));
     this.sharkAgeOfReproduction = (int) Math.floor(r.params().get("sharkAgeOfReproduction"));
     this.initialEnergy = (int) Math.floor(r.params().get("initialEnergy"));
@@ -74,13 +83,80 @@ public class WatorSimulation extends Simulation<WatorCell> {
     return cellList;
   }
 
+  /**
+   * Initializes the grid. Unless agent list stepping is turned off, the fish and sharks are then
+   * moved onto a WatorOcean, provided every cell is empty or holds a fish or a shark.
+   *
+   * @param row,      number of rows in simulation
+   * @param col,      number of columns in simulation
+   * @param cellList, all cells in simulation, listed in row major order
+   */
+  @Override
+  public void initializeMyGrid(int row, int col, List<WatorCell> cellList) {
+    super.initializeMyGrid(row, col, cellList);
+    myCells = cellList;
+    myNumRows = row;
+    myNumCols = col;
+    myOcean = null;
+    if (useAgentList && cellList.stream().allMatch(
+        cell -> cell.getCurrentState() >= EMPTY && cell.getCurrentState() <= SHARK)) {
+      myOcean = new WatorOcean(cellList, col, getRandomSource());
+      myOcean.setParams(fishAgeOfReproduction, sharkAgeOfReproduction, initialEnergy,
+          energyBoost);
+    }
+  }
 
   /**
-   * Transition function for Wator World. Iterates through each cell, starting with all the sharks,
-   * then fish, then empty, and calls the cell's transition function.
+   * Enables or disables agent list stepping, which is enabled by default. Disabling it moves the
+   * fish and sharks back onto the cells, which then transition one by one.
+   *
+   * @param enabled true to step the simulation on a WatorOcean
+   */
+  public void setAgentListStepping(boolean enabled) {
+    if (enabled == useAgentList) {
+      return;
+    }
+    List<WatorCell> cellList = new ArrayList<>();
+    getIterator().forEachRemaining(cellList::add);
+    useAgentList = enabled;
+    initializeMyGrid(myNumRows, myNumCols, cellList);
+  }
+
+  /**
+   * @return true if and only if the simulation is currently stepped on a WatorOcean
+   */
+  public boolean isAgentListStepping() {
+    return myOcean != null;
+  }
+
+
+  /**
+   * Wa-Tor supports parallel stepping on a WatorOcean, which moves the animals of one color of a
+   * tiling of the grid at a time, so that no two threads claim the same cell. Unlike other
+   * simulations, this visits the animals in a different order than serial stepping, so a seeded
+   * run stepped in parallel differs from the same run stepped serially, though not from another
+   * parallel run on any number of threads. Without agent list stepping, the cells are always
+   * stepped serially.
+   *
+   * @return true
+   */
+  @Override
+  public boolean supportsParallelStepping() {
+    return true;
+  }
+
+  /**
+   * Transition function for Wator World. On a WatorOcean, the sharks and then the fish move, in
+   * row major order or color by color when stepping in parallel. Otherwise, iterates through each
+   * cell, starting with all the sharks, then fish, then empty, and calls the cell's transition
+   * function.
    */
   @Override
   public void transitionFunction() {
+    if (myOcean != null) {
+      myOcean.computeNext(isParallelStepping());
+      return;
+    }
     for (int cellToUpdate : UPDATE_ORDER) {
       Iterator<WatorCell> gridIterator = getIterator();
       while (gridIterator.hasNext()) {
@@ -92,4 +168,69 @@ public class WatorSimulation extends Simulation<WatorCell> {
       }
     }
   }
-}
\ No newline at end of file
+
+  @Override
+  public void processUpdate() {
+    if (myOcean == null) {
+      super.processUpdate();
+      return;
+    }
+    myOcean.update();
+    getRandomSource().advance();
+    areCellsOutdated = true;
+  }
+
+  /**
+   * Retrieves the cells of the grid. When the simulation is stepped on a WatorOcean, the fish and
+   * sharks of the ocean are first copied onto the cells, which are otherwise left out of date.
+   *
+   * @return Iterator object that can iterate through the grid
+   */
+  @Override
+  public Iterator<WatorCell> getIterator() {
+    if (myOcean != null && areCellsOutdated) {
+      for (int i = 0; i < myCells.size(); i++) {
+        WatorCell cell = myCells.get(i);
+        cell.updateStateEnergyAge(myOcean.getState(i), myOcean.getEnergy(i), myOcean.getAge(i));
+        cell.updateStates();
+      }
+      areCellsOutdated = false;
+    }
+    return super.getIterator();
+  }
+
+  @Override
+  public void copyCurrentStates(int[] states) {
+    if (myOcean == null) {
+      super.copyCurrentStates(states);
+      return;
+    }
+    myOcean.copyStates(states);
+  }
+
+  @Override
+  public int getCurrentState(int index) {
+    if (myOcean == null) {
+      return super.getCurrentState(index);
+    }
+    return myOcean.getState(index);
+  }
+
+  /**
+   * Updates the parameters of every cell, of the cells created later on, and of the ocean
+   *
+   * @param newParameters, the updated parameter values
+   */
+  @Override
+  public void setParams(Map<String, Double> newParameters) {
+    fishAgeOfReproduction = (int) Math.floor(newParameters.get("fishAgeOfReproduction"));
+    sharkAgeOfReproduction = (int) Math.floor(newParameters.get("sharkAgeOfReproduction"));
+    initialEnergy = (int) Math.floor(newParameters.get("initialEnergy"));
+    energyBoost = (int) Math.floor(newParameters.get("energyBoost"));
+    super.setParams(newParameters);
+    if (myOcean != null) {
+      myOcean.setParams(fishAgeOfReproduction, sharkAgeOfReproduction, initialEnergy,
+          energyBoost);
+    }
+  }
+}
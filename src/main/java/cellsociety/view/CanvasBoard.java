@@ -0,0 +1,189 @@
+package cellsociety.view;
+
+import cellsociety.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws the cells of a simulation onto a single Canvas instead of giving every cell a Polygon node
+ * of its own. The corners of every cell are computed once, in the same positions CellView gives
+ * them, and stored in flat arrays, and the board remembers the state each cell was last drawn in,
+ * so that updating the board only redraws the cells whose state changed. Colors come from a
+ * CellPalette, so every simulation keeps its color scheme.
+ */
+
+public class CanvasBoard implements GridBoard {
+
+  /**
+   * Width of the black outline drawn around every cell when outlines are on
+   */
+  public static final double OUTLINE_WIDTH = 2;
+  /**
+   * Width of the outline drawn in a cell's own color when outlines are off, which covers the
+   * antialiased seams between neighboring cells
+   */
+  private static final double SEAM_WIDTH = 1;
+  /**
+   * State of a cell that has not been drawn yet, which never equals the state of a cell
+   */
+  private static final int UNDRAWN = Integer.MIN_VALUE;
+
+  private final int myNumCols;
+  private final CellPalette myPalette;
+  private final Canvas myCanvas;
+  private final GraphicsContext myGraphics;
+  /**
+   * The corners of cell i are (myXs[k], myYs[k]) for k from myVertexStarts[i] to
+   * myVertexStarts[i + 1] - 1, relative to the top left corner of the canvas
+   */
+  private final int[] myVertexStarts;
+  private final double[] myXs;
+  private final double[] myYs;
+  private final double[] myCellXs;
+  private final double[] myCellYs;
+  private final int[] myStates;
+  private boolean areOutlinesOn;
+
+  /**
+   * Constructs a board and a canvas just large enough to hold every cell and its outline
+   *
+   * @param numRows        int, number of rows in the grid
+   * @param numCols        int, number of columns in the grid
+   * @param allVertices    List, the corners of every cell in row major order, in units of cells
+   * @param gridProperties the position and size of the area the grid is drawn in
+   * @param palette        the colors of the states of the simulation
+   */
+  public CanvasBoard(int numRows, int numCols, List<List<Point>> allVertices,
+      Map<String, Double> gridProperties, CellPalette palette) {
+    myNumCols = numCols;
+    myPalette = palette;
+    double width = gridProperties.get("gridWidth") / numCols;
+    double height = gridProperties.get("gridHeight") / numRows;
+    myVertexStarts = new int[allVertices.size() + 1];
+    for (int i = 0; i < allVertices.size(); i++) {
+      myVertexStarts[i + 1] = myVertexStarts[i] + allVertices.get(i).size();
+    }
+    myXs = new double[myVertexStarts[allVertices.size()]];
+    myYs = new double[myXs.length];
+    int maxVertices = 0;
+    double minX = Double.MAX_VALUE;
+    double minY = Double.MAX_VALUE;
+    double maxX = -Double.MAX_VALUE;
+    double maxY = -Double.MAX_VALUE;
+    for (int i = 0; i < allVertices.size(); i++) {
+      List<Point> vertices = allVertices.get(i);
+      maxVertices = Math.max(maxVertices, vertices.size());
+      for (int k = 0; k < vertices.size(); k++) {
+        double x = width * vertices.get(k).getCol() + gridProperties.get("gridStartX");
+        double y = height * vertices.get(k).getRow() + gridProperties.get("gridStartY");
+        myXs[myVertexStarts[i] + k] = x;
+        myYs[myVertexStarts[i] + k] = y;
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+      }
+    }
+    double left = Math.floor(minX - OUTLINE_WIDTH);
+    double top = Math.floor(minY - OUTLINE_WIDTH);
+    for (int k = 0; k < myXs.length; k++) {
+      myXs[k] -= left;
+      myYs[k] -= top;
+    }
+    myCanvas = new Canvas(Math.ceil(maxX + OUTLINE_WIDTH) - left,
+        Math.ceil(maxY + OUTLINE_WIDTH) - top);
+    myCanvas.setLayoutX(left);
+    myCanvas.setLayoutY(top);
+    myGraphics = myCanvas.getGraphicsContext2D();
+    myCellXs = new double[maxVertices];
+    myCellYs = new double[maxVertices];
+    myStates = new int[allVertices.size()];
+    Arrays.fill(myStates, UNDRAWN);
+    areOutlinesOn = true;
+  }
+
+  /**
+   * gets the canvas the board is drawn on
+   *
+   * @return the canvas, positioned where the grid is displayed
+   */
+  @Override
+  public Canvas getNode() {
+    return myCanvas;
+  }
+
+  /**
+   * Changes the state of a cell, redrawing it only if the state differs from the one it was last
+   * drawn in
+   */
+  @Override
+  public void setState(int row, int col, int state) {
+    setState(row * myNumCols + col, state);
+  }
+
+  /**
+   * Changes the state of every cell, redrawing only the cells whose state differs from the one
+   * they were last drawn in
+   */
+  @Override
+  public void setStates(int[] states) {
+    for (int index = 0; index < states.length; index++) {
+      setState(index, states[index]);
+    }
+  }
+
+  private void setState(int index, int state) {
+    if (myStates[index] != state) {
+      myStates[index] = state;
+      drawCell(index);
+    }
+  }
+
+  @Override
+  public int getState(int row, int col) {
+    return myStates[row * myNumCols + col];
+  }
+
+  /**
+   * Cells are drawn on the canvas as soon as they change, so there is nothing left to flush
+   */
+  @Override
+  public void flush() {
+  }
+
+  /**
+   * Turns the cell outlines on or off, redrawing every cell that has been drawn
+   */
+  @Override
+  public void setOutlines(boolean onOff) {
+    areOutlinesOn = onOff;
+    myGraphics.clearRect(0, 0, myCanvas.getWidth(), myCanvas.getHeight());
+    for (int index = 0; index < myStates.length; index++) {
+      if (myStates[index] != UNDRAWN) {
+        drawCell(index);
+      }
+    }
+  }
+
+  private void drawCell(int index) {
+    int start = myVertexStarts[index];
+    int numVertices = myVertexStarts[index + 1] - start;
+    System.arraycopy(myXs, start, myCellXs, 0, numVertices);
+    System.arraycopy(myYs, start, myCellYs, 0, numVertices);
+    Color color = myPalette.getColor(myStates[index]);
+    myGraphics.setFill(color);
+    myGraphics.fillPolygon(myCellXs, myCellYs, numVertices);
+    if (areOutlinesOn) {
+      myGraphics.setStroke(Color.BLACK);
+      myGraphics.setLineWidth(OUTLINE_WIDTH);
+    } else {
+      myGraphics.setStroke(color);
+      myGraphics.setLineWidth(SEAM_WIDTH);
+    }
+    myGraphics.strokePolygon(myCellXs, myCellYs, numVertices);
+  }
+}
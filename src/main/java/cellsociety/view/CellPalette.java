@@ -0,0 +1,67 @@
+package cellsociety.view;
+
+import cellsociety.view.cellview.CellView;
+import java.util.Arrays;
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Shape;
+
+/**
+ * Maps the states of a simulation to the colors its cells are drawn in. The colors are not defined
+ * here: a single sample CellView of the simulation is given each state, and the fill the style
+ * sheet assigns to its style class is read back, so that cells drawn without a node of their own
+ * keep the color scheme of FireCellView, WatorCellView, etc. Each state is resolved once, the first
+ * time it is drawn.
+ */
+
+public class CellPalette {
+
+  private final CellView mySample;
+  private final Group myStyledParent;
+  private Color[] myColors;
+
+  /**
+   * Constructs a palette for the simulation a sample cell view belongs to
+   *
+   * @param sample        a cell view of the simulation, whose graphic is only used to resolve
+   *                      colors
+   * @param styledParent  a group in a scene holding the style sheet, to which the sample graphic is
+   *                      briefly added whenever a color is resolved
+   */
+  public CellPalette(CellView sample, Group styledParent) {
+    mySample = sample;
+    myStyledParent = styledParent;
+    myColors = new Color[0];
+  }
+
+  /**
+   * Retrieves the color cells in a state are drawn in
+   *
+   * @param state int, the state of a cell
+   * @return the fill the style sheet gives the style class of the state
+   * @throws IllegalStateException if the cell view of the simulation has no style for the state
+   */
+  public Color getColor(int state) {
+    if (state < 0) {
+      throw new IllegalStateException("Unexpected value: " + state);
+    }
+    if (state < myColors.length && myColors[state] != null) {
+      return myColors[state];
+    }
+    Color color = resolveColor(state);
+    if (state >= myColors.length) {
+      myColors = Arrays.copyOf(myColors, state + 1);
+    }
+    myColors[state] = color;
+    return color;
+  }
+
+  private Color resolveColor(int state) {
+    Shape graphic = mySample.getCellGraphic();
+    mySample.updateState(state);
+    myStyledParent.getChildren().add(graphic);
+    graphic.applyCss();
+    myStyledParent.getChildren().remove(graphic);
+    return graphic.getFill() instanceof Color color ? color : Color.TRANSPARENT;
+  }
+}
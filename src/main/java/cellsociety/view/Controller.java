@@ -1,6 +1,7 @@
 package cellsociety.view;
 
 import cellsociety.Point;
+import cellsociety.configuration.SimulationFactory;
 import cellsociety.configuration.XmlParser;
 import cellsociety.exception.InputMissingParametersException;
 import cellsociety.exception.InvalidCellStateException;
@@ -8,19 +9,8 @@ import cellsociety.exception.InvalidFileFormatException;
 import cellsociety.exception.InvalidGridBoundsException;
 import cellsociety.exception.InvalidValueException;
 import cellsociety.model.core.cell.Cell;
-import cellsociety.model.neighborhood.ExtendedMooreNeighborhood;
-import cellsociety.model.neighborhood.MooreNeighborhood;
-import cellsociety.model.neighborhood.Neighborhood;
-import cellsociety.model.neighborhood.VonNeumannNeighborhood;
-import cellsociety.model.simulation.FallingSandSimulation;
-import cellsociety.model.simulation.FireSimulation;
-import cellsociety.model.simulation.GameOfLifeSimulation;
-import cellsociety.model.simulation.PercolationSimulation;
-import cellsociety.model.simulation.SchellingSimulation;
 import cellsociety.model.simulation.Simulation;
-import cellsociety.model.simulation.SimulationRecord;
-import cellsociety.model.simulation.SugarSimulation;
-import cellsociety.model.simulation.WatorSimulation;
+import cellsociety.view.SimulationRunner.Frame;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -28,8 +18,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.Alert;
@@ -38,7 +28,6 @@ import javafx.scene.control.TextArea;
 import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 /**
  * This class is the main driver of the simulation.
@@ -73,9 +62,9 @@ public class Controller {
   private SimulationPage simulationPage;
   private XmlParser xmlParser;
   private Simulation simulationModel;
-  private Timeline animation;
+  private SimulationRunner simulationRunner;
+  private AnimationTimer animation;
   private int speed;
-  private boolean simulationRunning = false;
   private ResourceBundle textConfig;
   private FileChooser fileChooser;
   private Settings settingsPanel;
@@ -104,23 +93,37 @@ public class Controller {
     }
   }
 
+  /**
+   * The simulation is stepped by a SimulationRunner on a thread of its own; the animation only
+   * draws the latest frame it published, once per pulse of the screen
+   */
   private void setAnimation() {
-    animation = new Timeline();
-    animation.setCycleCount(Timeline.INDEFINITE);
-    double frameDuration = 1.0 / (simulationPage.configDouble(
-        SECOND_DELAY_KEY)); // Calculate the duration for the KeyFrame
-    animation.getKeyFrames()
-        .add(new KeyFrame(Duration.seconds(frameDuration), e -> step()));
-    animation.play();
+    animation = new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        drawLatestFrame();
+      }
+    };
+    animation.start();
   }
 
-  private void step() {
-    if (simulationRunning) {
-      simulationModel.transitionFunction();
-      simulationModel.processUpdate();
-
-      simulationPage.updateView(simulationModel.getIterator());
+  private void drawLatestFrame() {
+    Frame frame = simulationRunner.takeFrame();
+    if (frame == null) {
+      return;
     }
+    if (frame.changedCells() != null) {
+      simulationPage.updateChangedCells(frame.states(), frame.changedCells(), frame.generation());
+    } else {
+      simulationPage.updateView(frame.states(), frame.generation());
+    }
+  }
+
+  /**
+   * Calculates how many steps the simulation takes per second, SECOND_DELAY per unit of speed
+   */
+  private double getStepsPerSecond(double speed) {
+    return speed * simulationPage.configDouble(SECOND_DELAY_KEY);
   }
 
 
@@ -134,7 +137,7 @@ public class Controller {
   }
 
   private void pauseSimulation() {
-    simulationRunning = false;
+    simulationRunner.pause();
   }
 
   /**
@@ -150,6 +153,7 @@ public class Controller {
   private void setSimulation() {
     loadSimulationModel();
     loadSimulationScene();
+    loadSimulationRunner();
 
     settingsPanel = new Settings(xmlParser.getLanguage(), xmlParser.getGridEdgeType(),
         xmlParser.getParameters(), xmlParser.getType(), event -> onApplyClicked());
@@ -174,57 +178,34 @@ public class Controller {
   private void onApplyClicked() {
     settingsPanel.saveChanges();
     settingsPanel.closeSettingsPanel();
-    simulationModel.setParams(settingsPanel.getNewParameters());
-    simulationModel.setEdgeType(settingsPanel.getNewEdgeType());
+    simulationRunner.runBetweenSteps(() -> {
+      simulationModel.setParams(settingsPanel.getNewParameters());
+      simulationModel.setEdgeType(settingsPanel.getNewEdgeType());
+    });
     simulationPage.toggleOnOffCellOutlines(settingsPanel.getOutlineType());
     switchLanguage(settingsPanel.getNewLanguage());
   }
 
 
   /**
-   * gets the neighborhood object based on the neighborhood type string
-   *
-   * @param neighborhoodTypeString a string that specifies which type of neighborhood the current
-   *                               simulation is using
-   * @return returns the neighborhood object
+   * Sets up the simulation model component
    */
-  private Neighborhood getNeighborhoodObject(String neighborhoodTypeString)
-      throws IllegalStateException {
-    return switch (neighborhoodTypeString) {
-      case "Moore" -> new MooreNeighborhood();
-      case "ExtendedMoore" -> new ExtendedMooreNeighborhood();
-      case "VonNeumann" -> new VonNeumannNeighborhood();
-      default -> throw new IllegalStateException("Unexpected value: " + neighborhoodTypeString);
-    };
+  private void loadSimulationModel() {
+    simulationModel = SimulationFactory.createSimulation(xmlParser);
+    simulationModel.setIncrementalStepping(simulationModel.supportsIncrementalStepping());
   }
 
   /**
-   * Sets up the simulation model component
+   * Sets up the runner that steps the simulation model, at the speed of the slider, replacing the
+   * runner of any previous simulation
    */
-  private void loadSimulationModel() {
-    int numRows = xmlParser.getHeight();
-    int numCols = xmlParser.getWidth();
-    Neighborhood neighborhoodType = getNeighborhoodObject(xmlParser.getNeighborhoodType());
-    List<Integer> stateList = xmlParser.getStates();
-    String simulationType = xmlParser.getType();
-    String gridType = xmlParser.getGridEdgeType();
-    String cellShape = xmlParser.getCellShape();
-    SimulationRecord record = new SimulationRecord(xmlParser.getParameters(), gridType, cellShape);
-    simulationRunning = false;
-    simulationModel = switch (simulationType) {
-      case GAME_OF_LIFE ->
-          new GameOfLifeSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      case PERCOLATION ->
-          new PercolationSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      case FIRE -> new FireSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      case SCHELLING ->
-          new SchellingSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      case WATOR -> new WatorSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      case SUGAR -> new SugarSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      case FALLING ->
-          new FallingSandSimulation(numRows, numCols, neighborhoodType, stateList, record);
-      default -> null;
-    };
+  private void loadSimulationRunner() {
+    if (simulationRunner != null) {
+      simulationRunner.shutDown();
+    }
+    simulationRunner = new SimulationRunner(simulationModel,
+        getStepsPerSecond(simulationPage.getSliderValue()),
+        e -> Platform.runLater(() -> showMessage(AlertType.ERROR, e.getMessage())));
   }
 
 
@@ -233,10 +214,12 @@ public class Controller {
    */
   private void loadSimulationScene() {
     Map<String, EventHandler<ActionEvent>> handlers = makeHandlersMap();
-    Iterator<Cell> iter = simulationModel.getIterator();
     List<List<Point>> allVertices = new ArrayList<>();
-    while (iter.hasNext()) {
-      allVertices.add(iter.next().getVertices());
+    if (!SimulationPage.usesViewport(xmlParser.getHeight(), xmlParser.getWidth())) {
+      Iterator<Cell> iter = simulationModel.getIterator();
+      while (iter.hasNext()) {
+        allVertices.add(iter.next().getVertices());
+      }
     }
 
     getParamsForSimulationPage();
@@ -248,9 +231,7 @@ public class Controller {
 
     simulationPage.setSpeedSliderHandler((observable, oldValue, newValue) -> {
       speed = newValue.intValue();
-      double frameDuration = 1.0 / (speed * simulationPage.configDouble(SECOND_DELAY_KEY));
-      animation.setRate(speed);
-      animation.setDelay(Duration.seconds(frameDuration));
+      simulationRunner.setStepsPerSecond(getStepsPerSecond(speed));
       simulationPage.updateSpeedLabel(speed);
     });
   }
@@ -263,6 +244,7 @@ public class Controller {
     params.put("SimulationName", xmlParser.getTitle());
     params.put("Height", Integer.toString(xmlParser.getHeight()));
     params.put("Width", Integer.toString(xmlParser.getWidth()));
+    params.put("CellShape", xmlParser.getCellShape());
     return params;
   }
 
@@ -308,8 +290,8 @@ public class Controller {
 
 
   private void onStartSimulation() {
-    simulationRunning = true;
-    animation.setRate(simulationPage.getSliderValue());
+    simulationRunner.setStepsPerSecond(getStepsPerSecond(simulationPage.getSliderValue()));
+    simulationRunner.start();
   }
 
   private void onInfoButtonClicked() {
@@ -338,7 +320,7 @@ public class Controller {
 
   private void onNewSimulationClicked() {
     try {
-      simulationRunning = false;
+      pauseSimulation();
       File dataFile = chooseFile();
       if (dataFile == null) {
         return;
@@ -355,8 +337,9 @@ public class Controller {
     pauseSimulation();
     simulationModel.createCellsAndGrid(xmlParser.getHeight(), xmlParser.getWidth(),
         xmlParser.getStates(), simulationModel.getCellShape(xmlParser.getCellShape()),
-        getNeighborhoodObject(
-            xmlParser.getNeighborhoodType()));
+        SimulationFactory.createNeighborhood(xmlParser.getNeighborhoodType(),
+            xmlParser.getNeighborhoodRadius()));
+    simulationRunner.discardFrames();
     simulationPage.updateView(simulationModel.getIterator());
     simulationPage.resetGraph();
   }
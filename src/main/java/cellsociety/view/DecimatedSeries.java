@@ -0,0 +1,201 @@
+package cellsociety.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.scene.chart.XYChart;
+
+/**
+ * The number of cells in one state at every step, kept in a fixed amount of memory so that the
+ * graph costs as much to update after a million steps as after ten. Steps are grouped into buckets
+ * of equal width, about one per pixel column of the chart, and every bucket only remembers its
+ * first, lowest, highest and last count, so spikes survive the downsampling. Buckets live in a
+ * ring: when the steps plotted no longer fit in the buckets available, neighboring buckets are
+ * merged and the width doubles, and once the steps plotted span the retention, the oldest bucket is
+ * dropped instead.
+ */
+
+class DecimatedSeries {
+
+  /**
+   * The samples a bucket remembers: its first, lowest, highest and last count
+   */
+  private static final int FIRST = 0;
+  private static final int MIN = 1;
+  private static final int MAX = 2;
+  private static final int LAST = 3;
+  private static final int SAMPLES = 4;
+
+  private final int myCapacity;
+  private final long myRetention;
+  private long[] myKeys;
+  /**
+   * Sample j of the bucket in slot i of the ring was taken at step mySteps[SAMPLES * i + j], when
+   * myCounts[SAMPLES * i + j] cells were in the state
+   */
+  private long[] mySteps;
+  private int[] myCounts;
+  private long myWidth;
+  private int myFirst;
+  private int mySize;
+
+  /**
+   * Constructs an empty series
+   *
+   * @param capacity  int, the most buckets kept, each of which is plotted as at most four points
+   * @param retention long, the number of most recent steps plotted
+   */
+  DecimatedSeries(int capacity, long retention) {
+    myCapacity = Math.max(capacity, 2);
+    myRetention = Math.max(retention, 1);
+    myKeys = new long[myCapacity];
+    mySteps = new long[SAMPLES * myCapacity];
+    myCounts = new int[SAMPLES * myCapacity];
+    clear();
+  }
+
+  /**
+   * Adds the count at a step, which must come after every step added before it
+   *
+   * @param step  long, the number of steps the simulation has taken
+   * @param count int, the number of cells in the state at that step
+   */
+  void add(long step, int count) {
+    if (getSpan(step) > myCapacity && !coversRetention()) {
+      coarsen(step);
+    }
+    while (mySize > 0 && (myKeys[myFirst] + 1) * myWidth <= step - myRetention) {
+      removeFirst();
+    }
+    long key = step / myWidth;
+    if (mySize > 0 && myKeys[index(mySize - 1)] == key) {
+      int last = SAMPLES * index(mySize - 1);
+      if (count < myCounts[last + MIN]) {
+        setSample(last + MIN, step, count);
+      }
+      if (count > myCounts[last + MAX]) {
+        setSample(last + MAX, step, count);
+      }
+      setSample(last + LAST, step, count);
+      return;
+    }
+    if (mySize == myCapacity) {
+      removeFirst();
+    }
+    int slot = index(mySize);
+    myKeys[slot] = key;
+    for (int sample = 0; sample < SAMPLES; sample++) {
+      setSample(SAMPLES * slot + sample, step, count);
+    }
+    mySize++;
+  }
+
+  /**
+   * Removes every step added
+   */
+  void clear() {
+    myWidth = 1;
+    myFirst = 0;
+    mySize = 0;
+  }
+
+  /**
+   * Retrieves the points to plot: the first, lowest, highest and last count of every bucket in the
+   * order of their steps, which draws the same line as plotting every count when a bucket is
+   * narrower than a pixel column, with samples taken at the same step plotted once
+   *
+   * @return a new list of at most four times the capacity points, in order of their steps
+   */
+  List<XYChart.Data<Number, Number>> getPoints() {
+    List<XYChart.Data<Number, Number>> points = new ArrayList<>(SAMPLES * mySize);
+    for (int i = 0; i < mySize; i++) {
+      int start = SAMPLES * index(i);
+      int low = mySteps[start + MIN] <= mySteps[start + MAX] ? MIN : MAX;
+      int[] order = {FIRST, low, MIN + MAX - low, LAST};
+      long previous = -1;
+      for (int sample : order) {
+        if (mySteps[start + sample] != previous) {
+          previous = mySteps[start + sample];
+          points.add(new XYChart.Data<>(previous, myCounts[start + sample]));
+        }
+      }
+    }
+    return points;
+  }
+
+  /**
+   * @return true once the buckets are wide enough that the last retention steps never span more
+   * buckets than the ring holds
+   */
+  private boolean coversRetention() {
+    return myWidth * (myCapacity - 1) >= myRetention;
+  }
+
+  /**
+   * @return the number of buckets of the current width from the first bucket kept to the one
+   * holding step, including both, which is more than the number kept when some steps were skipped
+   */
+  private long getSpan(long step) {
+    return mySize == 0 ? 1 : step / myWidth - myKeys[myFirst] + 1;
+  }
+
+  private int index(int i) {
+    return (myFirst + i) % myCapacity;
+  }
+
+  private void setSample(int sample, long step, int count) {
+    mySteps[sample] = step;
+    myCounts[sample] = count;
+  }
+
+  private void removeFirst() {
+    myFirst = index(1);
+    mySize--;
+  }
+
+  /**
+   * Doubles the width of the buckets, merging every pair of neighboring buckets into one, until
+   * the steps kept and step fit in the buckets available or the buckets cover the retention
+   */
+  private void coarsen(long step) {
+    long[] keys = new long[myCapacity];
+    long[] steps = new long[mySteps.length];
+    int[] counts = new int[myCounts.length];
+    while (getSpan(step) > myCapacity && !coversRetention()) {
+      myWidth *= 2;
+      int size = 0;
+      for (int i = 0; i < mySize; i++) {
+        int from = SAMPLES * index(i);
+        long key = myKeys[index(i)] / 2;
+        if (size > 0 && keys[size - 1] == key) {
+          int to = SAMPLES * (size - 1);
+          if (myCounts[from + MIN] < counts[to + MIN]) {
+            steps[to + MIN] = mySteps[from + MIN];
+            counts[to + MIN] = myCounts[from + MIN];
+          }
+          if (myCounts[from + MAX] > counts[to + MAX]) {
+            steps[to + MAX] = mySteps[from + MAX];
+            counts[to + MAX] = myCounts[from + MAX];
+          }
+          steps[to + LAST] = mySteps[from + LAST];
+          counts[to + LAST] = myCounts[from + LAST];
+        } else {
+          keys[size] = key;
+          System.arraycopy(mySteps, from, steps, SAMPLES * size, SAMPLES);
+          System.arraycopy(myCounts, from, counts, SAMPLES * size, SAMPLES);
+          size++;
+        }
+      }
+      long[] swapKeys = myKeys;
+      myKeys = keys;
+      keys = swapKeys;
+      long[] swapSteps = mySteps;
+      mySteps = steps;
+      steps = swapSteps;
+      int[] swapCounts = myCounts;
+      myCounts = counts;
+      counts = swapCounts;
+      myFirst = 0;
+      mySize = size;
+    }
+  }
+}
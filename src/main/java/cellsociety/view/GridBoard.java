@@ -0,0 +1,55 @@
+package cellsociety.view;
+
+import javafx.scene.Node;
+
+/**
+ * The part of the simulation page that displays the state of every cell of the grid. Cells are
+ * given their states one at a time or all at once, and the changes appear once they are flushed.
+ */
+
+public interface GridBoard {
+
+  /**
+   * gets the node that displays the board
+   *
+   * @return the node, positioned where the grid is displayed
+   */
+  Node getNode();
+
+  /**
+   * Changes the state of a cell
+   *
+   * @param row   int, the row of the cell
+   * @param col   int, the column of the cell
+   * @param state int, the new state of the cell
+   */
+  void setState(int row, int col, int state);
+
+  /**
+   * Changes the state of every cell at once
+   *
+   * @param states the new state of every cell, in row major order
+   */
+  void setStates(int[] states);
+
+  /**
+   * gets the state a cell was last given
+   *
+   * @param row int, the row of the cell
+   * @param col int, the column of the cell
+   * @return the state of the cell
+   */
+  int getState(int row, int col);
+
+  /**
+   * Turns the cell outlines on or off
+   *
+   * @param onOff boolean flag - whether the cell outlines should go on or go off
+   */
+  void setOutlines(boolean onOff);
+
+  /**
+   * Displays every change made since the last flush
+   */
+  void flush();
+}
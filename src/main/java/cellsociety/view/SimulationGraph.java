@@ -1,8 +1,10 @@
 package cellsociety.view;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import javafx.collections.ObservableList;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
@@ -18,14 +20,21 @@ public class SimulationGraph {
   private final LineChart<Number, Number> lineChart;
   private final XYChart.Series<Number, Number> series;
   private final Map<Integer, XYChart.Series<Number, Number>> seriesMap;
-  private int step;
+  private final Map<Integer, DecimatedSeries> countsMap;
+  private final int columns;
+  private final long retention;
+  private long step;
 
   public static final String GRAPH_PANE_X_KEY = "GRAPH_PANE_X";
+  public static final String GRAPH_COLUMNS_KEY = "GRAPH_COLUMNS";
+  public static final String GRAPH_RETENTION_KEY = "GRAPH_RETENTION";
   public static final String STATE_KEY = "state";
 
 
   /**
-   * constructs the graph object
+   * constructs the graph object. The counts of every state are kept in a DecimatedSeries, so the
+   * chart never holds more than about four points per column, and the chart is only redrawn while
+   * it is visible
    *
    * @param stateCount map of existing states and the number of cells in that state
    */
@@ -34,16 +43,26 @@ public class SimulationGraph {
     NumberAxis xaxis = new NumberAxis();
     NumberAxis yaxis = new NumberAxis();
     lineChart = new LineChart<>(xaxis, yaxis);
+    lineChart.setCreateSymbols(false);
+    lineChart.setAnimated(false);
 
     seriesMap = new HashMap<>();
+    countsMap = new HashMap<>();
+    ResourceBundle config = ResourceBundle.getBundle(
+        SimulationPage.DEFAULT_RESOURCE_PACKAGE + SimulationPage.CONFIG_RESOURCE_FILE);
+    columns = Integer.parseInt(config.getString(GRAPH_COLUMNS_KEY));
+    retention = Long.parseLong(config.getString(GRAPH_RETENTION_KEY));
 
     series = new XYChart.Series<>();
     lineChart.getData().add(series);
     pane = new StackPane();
     pane.getChildren().add(lineChart);
-    pane.setLayoutX(Integer.parseInt(ResourceBundle.getBundle(
-        SimulationPage.DEFAULT_RESOURCE_PACKAGE +
-            SimulationPage.CONFIG_RESOURCE_FILE).getString(GRAPH_PANE_X_KEY)));
+    pane.setLayoutX(Integer.parseInt(config.getString(GRAPH_PANE_X_KEY)));
+    pane.visibleProperty().addListener((observable, wasVisible, isVisible) -> {
+      if (isVisible) {
+        redrawChart();
+      }
+    });
     initializeChart(stateCount);
   }
 
@@ -61,27 +80,39 @@ public class SimulationGraph {
         ResourceBundle.getBundle(Controller.TEXT_CONFIGURATION).getString(STATE_KEY) + state);
     lineChart.getData().add(series);
     seriesMap.put(state, series);
+    countsMap.put(state, new DecimatedSeries(columns, retention));
   }
 
   /**
-   * updates the graph by creating new node on the graph according to new state counts
+   * updates the graph with new state counts, which are added to the counts kept for every state
+   * and plotted right away if the graph is visible
    *
    * @param stateCount map of existing states and the number of cells in that state
    */
   public void updateGraph(Map<Integer, Integer> stateCount) {
     for (Map.Entry<Integer, Integer> entry : stateCount.entrySet()) {
       int state = entry.getKey();
-      int count = entry.getValue();
-      XYChart.Series<Number, Number> series = seriesMap.get(state);
-      if (series != null) {
-        series.getData().add(new XYChart.Data<>(step, count));
-      } else {
+      if (!seriesMap.containsKey(state)) {
         addSeries(state);
-        series = seriesMap.get(state);
-        series.getData().add(new XYChart.Data<>(step, count));
       }
+      countsMap.get(state).add(step, entry.getValue());
     }
     step++;
+    if (pane.isVisible()) {
+      redrawChart();
+    }
+  }
+
+  /**
+   * updates the graph by creating new node on the graph according to new state counts, at a given
+   * step, as steps whose frames were skipped are never plotted
+   *
+   * @param stateCount map of existing states and the number of cells in that state
+   * @param step       the number of steps the simulation has taken
+   */
+  public void updateGraph(Map<Integer, Integer> stateCount, long step) {
+    this.step = step;
+    updateGraph(stateCount);
   }
 
   /**
@@ -91,9 +122,49 @@ public class SimulationGraph {
     for (XYChart.Series<Number, Number> series : lineChart.getData()) {
       series.getData().clear();
     }
+    for (DecimatedSeries counts : countsMap.values()) {
+      counts.clear();
+    }
     step = 0;
   }
 
+  /**
+   * replaces the points of every state with the decimated counts kept for it, which costs the same
+   * however many steps the simulation has taken
+   */
+  private void redrawChart() {
+    for (Map.Entry<Integer, XYChart.Series<Number, Number>> entry : seriesMap.entrySet()) {
+      redrawSeries(entry.getValue().getData(), countsMap.get(entry.getKey()).getPoints());
+    }
+  }
+
+  /**
+   * replaces the points of a series, keeping the points that are still plotted the same way, as
+   * usually only the last few points change between two updates and the chart lays out every point
+   * it is given
+   */
+  private void redrawSeries(ObservableList<XYChart.Data<Number, Number>> shown,
+      List<XYChart.Data<Number, Number>> points) {
+    int dropped = 0;
+    while (dropped < shown.size() && !points.isEmpty()
+        && getStep(shown.get(dropped)) < getStep(points.get(0))) {
+      dropped++;
+    }
+    shown.remove(0, dropped);
+    int kept = 0;
+    while (kept < shown.size() && kept < points.size()
+        && getStep(shown.get(kept)) == getStep(points.get(kept))
+        && shown.get(kept).getYValue().equals(points.get(kept).getYValue())) {
+      kept++;
+    }
+    shown.remove(kept, shown.size());
+    shown.addAll(points.subList(kept, points.size()));
+  }
+
+  private long getStep(XYChart.Data<Number, Number> point) {
+    return point.getXValue().longValue();
+  }
+
   /**
    * gets the graph view
    *
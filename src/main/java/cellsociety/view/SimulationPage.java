@@ -2,6 +2,8 @@ package cellsociety.view;
 
 import cellsociety.Point;
 import cellsociety.model.core.cell.Cell;
+import cellsociety.model.core.shape.HexagonShape;
+import cellsociety.model.core.shape.RectangleShape;
 import cellsociety.view.cellview.CellView;
 import cellsociety.view.cellview.FallingCellView;
 import cellsociety.view.cellview.FireCellView;
@@ -10,6 +12,7 @@ import cellsociety.view.cellview.PercolationCellView;
 import cellsociety.view.cellview.SchellingCellView;
 import cellsociety.view.cellview.SugarCellView;
 import cellsociety.view.cellview.WatorCellView;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -57,6 +60,7 @@ public class SimulationPage {
   public static final String ADD_SIMULATION_BUTTON_Y_KEY = "ADD_SIMULATION_BUTTON_Y";
   public static final String SPEED_SLIDER_MIN_KEY = "SLIDER_MIN";
   public static final String SPEED_SLIDER_MAX_KEY = "SLIDER_MAX";
+  public static final String VIEWPORT_MIN_CELLS_KEY = "VIEWPORT_MIN_CELLS";
   public static final String DEFAULT_RESOURCE_PACKAGE = "cellsociety.";
   public static final String CONFIG_RESOURCE_FILE = "config";
   public static final String DEFAULT_RESOURCE_FOLDER =
@@ -87,7 +91,8 @@ public class SimulationPage {
   private Map<Integer, Integer> stateCount;
   private final Map<String, Double> gridProperties;
   private final Group boardDisplay;
-  private CellView[][] board;
+  private GridBoard board;
+  private int numCols;
   private Button newSimulationButton;
   private Button simulationInfoButton;
   private Button startSimulationButton;
@@ -126,7 +131,7 @@ public class SimulationPage {
     scene.getStylesheets()
         .add(getClass().getResource(DEFAULT_RESOURCE_FOLDER + STYLESHEET).toExternalForm());
     initializeBoard(params.get("Simulation"), Integer.parseInt(params.get("Height")),
-        Integer.parseInt(params.get("Width")), allVertices);
+        Integer.parseInt(params.get("Width")), params.get("CellShape"), allVertices);
     initializeButtons(eventHandlers);
     initializeSlider(Integer.parseInt(params.get("InitialSlider")));
     initializeTitleDisplay(params.get("SimulationName"));
@@ -171,35 +176,66 @@ public class SimulationPage {
     simulationTitleDisplay.setFont(new Font(configInt(TITLE_FONT_SIZE_KEY)));
   }
 
-  private void initializeBoard(String simulationType, int numRows, int numCols,
+  /**
+   * set up the board, which draws every cell onto a single canvas, or only the cells inside a
+   * zoomable viewport for grids too large to draw cell by cell, in the colors the cell view of the
+   * simulation type gives each state
+   */
+  private void initializeBoard(String simulationType, int numRows, int numCols, String cellShape,
       List<List<Point>> allVertices) throws IllegalStateException {
-    board = new CellView[numRows][numCols];
-    int ind = 0;
-    for (int row = 0; row < numRows; row++) {
-      for (int col = 0; col < numCols; col++) {
-        double width = gridProperties.get("gridWidth") / numCols;
-        double height = gridProperties.get("gridHeight") / numRows;
-        board[row][col] = switch (simulationType) {
-          case Controller.FIRE ->
-              new FireCellView(width, height, allVertices.get(ind), gridProperties);
-          case Controller.GAME_OF_LIFE ->
-              new GameOfLifeCellView(width, height, allVertices.get(ind), gridProperties);
-          case Controller.PERCOLATION ->
-              new PercolationCellView(width, height, allVertices.get(ind), gridProperties);
-          case Controller.SCHELLING ->
-              new SchellingCellView(width, height, allVertices.get(ind), gridProperties);
-          case Controller.WATOR ->
-              new WatorCellView(width, height, allVertices.get(ind), gridProperties);
-          case Controller.SUGAR ->
-              new SugarCellView(width, height, allVertices.get(ind), gridProperties);
-          case Controller.FALLING ->
-              new FallingCellView(width, height, allVertices.get(ind), gridProperties);
-          default -> throw new IllegalStateException("Unexpected value: " + simulationType);
-        };
-        boardDisplay.getChildren().add(board[row][col].getCellGraphic());
-        ind++;
-      }
+    this.numCols = numCols;
+    CellPalette palette = new CellPalette(makeCellView(simulationType), root);
+    if (usesViewport(numRows, numCols)) {
+      board = new ViewportBoard(numRows, numCols,
+          "hexagon".equals(cellShape) ? new HexagonShape() : new RectangleShape(), gridProperties,
+          palette);
+    } else {
+      board = new CanvasBoard(numRows, numCols, allVertices, gridProperties, palette);
     }
+    boardDisplay.getChildren().add(board.getNode());
+  }
+
+  /**
+   * checks whether a grid is large enough to be displayed through a zoomable viewport rather than
+   * drawn cell by cell, in which case the simulation page needs no vertices and is best updated
+   * with updateView(int[], long)
+   *
+   * @param numRows int, number of rows in the grid
+   * @param numCols int, number of columns in the grid
+   * @return true if the grid has at least VIEWPORT_MIN_CELLS cells
+   */
+  public static boolean usesViewport(int numRows, int numCols) {
+    ResourceBundle config = ResourceBundle.getBundle(DEFAULT_RESOURCE_PACKAGE
+        + CONFIG_RESOURCE_FILE);
+    return (long) numRows * numCols >= Long.parseLong(config.getString(VIEWPORT_MIN_CELLS_KEY));
+  }
+
+  /**
+   * checks whether the grid is displayed through a zoomable viewport
+   *
+   * @return true if the board is a ViewportBoard, which is best updated with
+   * updateView(int[], long)
+   */
+  public boolean showsViewport() {
+    return board instanceof ViewportBoard;
+  }
+
+  /**
+   * makes a cell view without any vertices for a simulation type, from which the colors of its
+   * states are read
+   */
+  private CellView makeCellView(String simulationType) throws IllegalStateException {
+    List<Point> noVertices = List.of();
+    return switch (simulationType) {
+      case Controller.FIRE -> new FireCellView(0, 0, noVertices, gridProperties);
+      case Controller.GAME_OF_LIFE -> new GameOfLifeCellView(0, 0, noVertices, gridProperties);
+      case Controller.PERCOLATION -> new PercolationCellView(0, 0, noVertices, gridProperties);
+      case Controller.SCHELLING -> new SchellingCellView(0, 0, noVertices, gridProperties);
+      case Controller.WATOR -> new WatorCellView(0, 0, noVertices, gridProperties);
+      case Controller.SUGAR -> new SugarCellView(0, 0, noVertices, gridProperties);
+      case Controller.FALLING -> new FallingCellView(0, 0, noVertices, gridProperties);
+      default -> throw new IllegalStateException("Unexpected value: " + simulationType);
+    };
   }
 
 
@@ -297,11 +333,7 @@ public class SimulationPage {
    * @param onOffCellOutlines
    */
   public void toggleOnOffCellOutlines(boolean onOffCellOutlines) {
-    for (int row = 0; row < board.length; row++) {
-      for (int col = 0; col < board[0].length; col++) {
-        board[row][col].toggleStrokeWidth(onOffCellOutlines);
-      }
-    }
+    board.setOutlines(onOffCellOutlines);
   }
 
   /**
@@ -372,18 +404,71 @@ public class SimulationPage {
 
     while (gridIterator.hasNext()) {
       Cell c = gridIterator.next();
-      int col = (int) c.getLocation().getCol();
-      int row = (int) c.getLocation().getRow();
+      int col = c.getCol();
+      int row = c.getRow();
       int state = c.getCurrentState();
-      board[row][col].updateState(state);
+      board.setState(row, col, state);
       if (!stateCount.containsKey(state)) {
         stateCount.put(state, 0);
       }
       stateCount.replace(state, stateCount.get(state) + 1);
     }
+    board.flush();
     graph.updateGraph(stateCount);
   }
 
+  /**
+   * updates the view component of the grid and the simulation from the states of every cell, which
+   * avoids creating a cell model object per cell
+   *
+   * @param states the current state of every cell, in row major order
+   * @param step   the number of steps the simulation has taken, where the graph plots the counts
+   */
+  public void updateView(int[] states, long step) {
+    board.setStates(states);
+    board.flush();
+    stateCount.clear();
+    int[] counts = new int[0];
+    for (int state : states) {
+      if (state < 0) {
+        stateCount.merge(state, 1, Integer::sum);
+        continue;
+      }
+      if (state >= counts.length) {
+        counts = Arrays.copyOf(counts, state + 1);
+      }
+      counts[state]++;
+    }
+    for (int state = 0; state < counts.length; state++) {
+      if (counts[state] > 0) {
+        stateCount.put(state, counts[state]);
+      }
+    }
+    graph.updateGraph(stateCount, step);
+  }
+
+  /**
+   * updates only the cells that changed since the last update, adjusting the state counts instead
+   * of recounting the whole grid
+   *
+   * @param states       the current state of every cell, in row major order
+   * @param changedCells the row major indices of the cells whose state may have changed
+   * @param step         the number of steps the simulation has taken, where the graph plots the
+   *                     counts
+   */
+  public void updateChangedCells(int[] states, int[] changedCells, long step) {
+    for (int index : changedCells) {
+      int row = index / numCols;
+      int col = index % numCols;
+      int state = states[index];
+      stateCount.computeIfPresent(board.getState(row, col), (s, n) -> n == 1 ? null : n - 1);
+      stateCount.merge(state, 1, Integer::sum);
+      board.setState(row, col, state);
+    }
+    board.flush();
+    graph.updateGraph(stateCount, step);
+  }
+
   /**
    * gets integer value from config file according to its key string
    *
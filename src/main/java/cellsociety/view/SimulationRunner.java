@@ -0,0 +1,329 @@
+package cellsociety.view;
+
+import cellsociety.model.simulation.Simulation;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Steps a simulation on a worker thread of its own, so that slow steps never freeze the window and
+ * the simulation can step faster than the screen refreshes. After every step, the worker
+ * publishes a Frame holding a copy of the states of every cell, replacing any frame the window has
+ * not taken yet: the window takes the latest frame whenever it draws, so frames are skipped rather
+ * than queued when the simulation outpaces drawing, and a frame is never older than one step.
+ * <p>
+ * Frames are copied into two arrays used in turn, so publishing allocates no copy of the grid: the
+ * window draws from one array while the worker writes the other, and a frame the window never
+ * took hands its array back to the worker. When the simulation knows which cells changed, a frame
+ * also lists the cells that changed since the last frame the window took, so that only those are
+ * copied and redrawn.
+ * <p>
+ * Every step runs while holding a fair lock, so pause, runBetweenSteps and discardFrames, called
+ * from the JavaFX application thread, wait for the current step to end and then have the
+ * simulation to themselves.
+ */
+
+public class SimulationRunner {
+
+  /**
+   * Merged lists of changed cells covering more than this fraction of the grid are dropped, so
+   * that the cells are copied and redrawn all at once instead
+   */
+  private static final double MAX_CHANGED_FRACTION = 0.25;
+
+  /**
+   * The states of every cell of the simulation after a step
+   *
+   * @param states       the state of every cell in row major order, which must not be modified and
+   *                     is only valid until the next frame is taken
+   * @param changedCells the row major indices, in increasing order, of the cells whose state may
+   *                     differ from the frame taken before this one, or null if any cell may
+   * @param generation   the number of steps taken since the simulation was loaded or reset
+   */
+  public record Frame(int[] states, int[] changedCells, long generation) {
+
+  }
+
+  private final Simulation<?> mySimulation;
+  private final Consumer<RuntimeException> myFailureHandler;
+  private final ReentrantLock myLock;
+  private final Condition myWakeUp;
+  private final AtomicReference<Frame> myLatestFrame;
+  private final Thread myWorker;
+  private double myStepsPerSecond;
+  private boolean isRunning;
+  private boolean isShutDown;
+  private long myGeneration;
+  private int[][] myBuffers;
+  private Frame myPublishedFrame;
+
+  /**
+   * Constructs a paused runner and starts its worker thread
+   *
+   * @param simulation     the simulation to step
+   * @param stepsPerSecond double, how many steps to take per second while running
+   * @param failureHandler called on the worker thread with any exception thrown by a step, after
+   *                       which the runner is paused
+   */
+  public SimulationRunner(Simulation<?> simulation, double stepsPerSecond,
+      Consumer<RuntimeException> failureHandler) {
+    mySimulation = simulation;
+    myFailureHandler = failureHandler;
+    myStepsPerSecond = stepsPerSecond;
+    myLock = new ReentrantLock(true);
+    myWakeUp = myLock.newCondition();
+    myLatestFrame = new AtomicReference<>();
+    myWorker = new Thread(this::work, "simulation-runner");
+    myWorker.setDaemon(true);
+    myWorker.start();
+  }
+
+  /**
+   * Starts stepping the simulation
+   */
+  public void start() {
+    myLock.lock();
+    try {
+      isRunning = true;
+      myWakeUp.signalAll();
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * Stops stepping the simulation, waiting for the current step to end
+   */
+  public void pause() {
+    myLock.lock();
+    try {
+      isRunning = false;
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * checks whether the simulation is being stepped
+   *
+   * @return true if the runner was started and has not been paused since
+   */
+  public boolean isRunning() {
+    myLock.lock();
+    try {
+      return isRunning;
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * Changes how fast the simulation is stepped, taking effect immediately
+   *
+   * @param stepsPerSecond double, how many steps to take per second while running
+   */
+  public void setStepsPerSecond(double stepsPerSecond) {
+    myLock.lock();
+    try {
+      myStepsPerSecond = stepsPerSecond;
+      myWakeUp.signalAll();
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * Runs a change to the simulation, such as new parameters, between two steps
+   *
+   * @param change the change, run on the calling thread while no step is running
+   */
+  public void runBetweenSteps(Runnable change) {
+    myLock.lock();
+    try {
+      change.run();
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * Discards any frame not taken yet and counts generations from 0 again, after the grid of the
+   * simulation was rebuilt while paused. The next frame lists no changed cells, as the window
+   * redraws the rebuilt grid itself.
+   */
+  public void discardFrames() {
+    myLock.lock();
+    try {
+      myLatestFrame.set(null);
+      myPublishedFrame = null;
+      myGeneration = 0;
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * Takes the latest frame, which is then not returned again. The frame's states may be
+   * overwritten once the following frame is taken, so the caller must be done drawing it by then.
+   *
+   * @return the frame published since the last call, or null if there is none
+   */
+  public Frame takeFrame() {
+    return myLatestFrame.getAndSet(null);
+  }
+
+  /**
+   * Stops the worker thread for good, once the current step ends
+   */
+  public void shutDown() {
+    myLock.lock();
+    try {
+      isShutDown = true;
+      isRunning = false;
+      myWakeUp.signalAll();
+    } finally {
+      myLock.unlock();
+    }
+  }
+
+  /**
+   * Steps the simulation whenever the runner is running and the next step is due, sleeping in
+   * between. When steps take longer than the requested rate allows, the simulation steps as fast
+   * as it can without trying to catch up on the steps it missed.
+   */
+  private void work() {
+    long lastStep = 0;
+    while (true) {
+      myLock.lock();
+      try {
+        while (!isShutDown) {
+          if (!isRunning) {
+            myWakeUp.await();
+            lastStep = System.nanoTime() - getPeriod();
+            continue;
+          }
+          long wait = lastStep + getPeriod() - System.nanoTime();
+          if (wait <= 0) {
+            break;
+          }
+          myWakeUp.awaitNanos(wait);
+        }
+        if (isShutDown) {
+          return;
+        }
+        lastStep = Math.max(lastStep + getPeriod(), System.nanoTime() - getPeriod());
+        step();
+      } catch (InterruptedException e) {
+        return;
+      } finally {
+        myLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * @return the time between two steps at the requested rate, in nanoseconds
+   */
+  private long getPeriod() {
+    return (long) (TimeUnit.SECONDS.toNanos(1) / myStepsPerSecond);
+  }
+
+  private void step() {
+    try {
+      mySimulation.transitionFunction();
+      mySimulation.processUpdate();
+      myGeneration++;
+      publishFrame();
+    } catch (RuntimeException e) {
+      isRunning = false;
+      myFailureHandler.accept(e);
+    }
+  }
+
+  /**
+   * Publishes the states after the last step. A frame the window did not take is replaced, and its
+   * array, which then holds the states of the step before, is brought up to date. Otherwise the
+   * window may be drawing the last frame it took, so the other array is brought up to date, which
+   * holds the states of the frame published before that one.
+   */
+  private void publishFrame() {
+    int[] stepChanges = mySimulation.getChangedCells();
+    Frame untaken = myLatestFrame.getAndSet(null);
+    Frame previous = myPublishedFrame;
+    int[] states;
+    int[] changedCells;
+    if (previous == null) {
+      states = getBuffers()[0];
+      mySimulation.copyCurrentStates(states);
+      changedCells = null;
+    } else if (untaken != null) {
+      states = untaken.states();
+      copyCurrentStates(states, stepChanges);
+      changedCells = merge(untaken.changedCells(), stepChanges);
+    } else {
+      states = previous.states() == myBuffers[0] ? myBuffers[1] : myBuffers[0];
+      copyCurrentStates(states, merge(previous.changedCells(), stepChanges));
+      changedCells = stepChanges;
+    }
+    myPublishedFrame = new Frame(states, changedCells, myGeneration);
+    myLatestFrame.set(myPublishedFrame);
+  }
+
+  /**
+   * @return the two arrays frames are copied into, which are created with the first frame
+   */
+  private int[][] getBuffers() {
+    if (myBuffers == null) {
+      int[] states = mySimulation.getCurrentStates();
+      myBuffers = new int[][]{states, new int[states.length]};
+    }
+    return myBuffers;
+  }
+
+  /**
+   * Copies the current states of the given cells, or of every cell if they are null
+   */
+  private void copyCurrentStates(int[] states, int[] cells) {
+    if (cells == null) {
+      mySimulation.copyCurrentStates(states);
+      return;
+    }
+    for (int index : cells) {
+      states[index] = mySimulation.getCurrentState(index);
+    }
+  }
+
+  /**
+   * Merges two lists of changed cells in increasing order into one without duplicates
+   *
+   * @return the merged list, or null if either list is null or the merged list covers too much of
+   * the grid to be worth redrawing cell by cell
+   */
+  private int[] merge(int[] cells, int[] moreCells) {
+    if (cells == null || moreCells == null) {
+      return null;
+    }
+    int[] merged = new int[cells.length + moreCells.length];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < cells.length || j < moreCells.length) {
+      int next;
+      if (j == moreCells.length || i < cells.length && cells[i] <= moreCells[j]) {
+        next = cells[i++];
+      } else {
+        next = moreCells[j++];
+      }
+      if (size == 0 || merged[size - 1] != next) {
+        merged[size++] = next;
+      }
+    }
+    if (size > MAX_CHANGED_FRACTION * myBuffers[0].length) {
+      return null;
+    }
+    return Arrays.copyOf(merged, size);
+  }
+}
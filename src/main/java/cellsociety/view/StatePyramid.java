@@ -0,0 +1,155 @@
+package cellsociety.view;
+
+/**
+ * Downsampled copies of the states of a grid, used to display grids that have more cells than the
+ * board has pixels. Level 0 is the grid itself, and every cell of level k + 1 holds the majority
+ * state of the (up to) 2x2 cells of level k it covers, so a pixel covering 2^k x 2^k cells can be
+ * colored by looking up a single cell of level k. Levels are built lazily, only as deep as the
+ * board asks for, and cells changed one at a time are propagated up the levels already built.
+ */
+
+class StatePyramid {
+
+  private final int[][] myLevels;
+  private final int[] myLevelRows;
+  private final int[] myLevelCols;
+  private int myNumBuilt;
+
+  /**
+   * Constructs a pyramid over the states of a grid
+   *
+   * @param states  the state of every cell in row major order, which becomes level 0 and is read,
+   *                never written, by the pyramid
+   * @param numRows int, number of rows in the grid
+   * @param numCols int, number of columns in the grid
+   */
+  StatePyramid(int[] states, int numRows, int numCols) {
+    int numLevels = 1;
+    while (1 << (numLevels - 1) < Math.max(numRows, numCols)) {
+      numLevels++;
+    }
+    myLevels = new int[numLevels][];
+    myLevelRows = new int[numLevels];
+    myLevelCols = new int[numLevels];
+    myLevels[0] = states;
+    myLevelRows[0] = numRows;
+    myLevelCols[0] = numCols;
+    for (int level = 1; level < numLevels; level++) {
+      myLevelRows[level] = (myLevelRows[level - 1] + 1) / 2;
+      myLevelCols[level] = (myLevelCols[level - 1] + 1) / 2;
+      myLevels[level] = new int[myLevelRows[level] * myLevelCols[level]];
+    }
+    myNumBuilt = 1;
+  }
+
+  /**
+   * @return the number of levels, the last of which has a single cell
+   */
+  int getNumLevels() {
+    return myLevels.length;
+  }
+
+  int getNumRows(int level) {
+    return myLevelRows[level];
+  }
+
+  int getNumCols(int level) {
+    return myLevelCols[level];
+  }
+
+  /**
+   * Retrieves the states of a level, building it and the levels below it first if they are out of
+   * date
+   *
+   * @param level int, the level, between 0 and getNumLevels() - 1
+   * @return the states of the cells of the level in row major order
+   */
+  int[] getLevel(int level) {
+    while (myNumBuilt <= level) {
+      buildLevel(myNumBuilt);
+      myNumBuilt++;
+    }
+    return myLevels[level];
+  }
+
+  /**
+   * Marks every level above level 0 out of date, after many cells of level 0 changed at once
+   */
+  void invalidate() {
+    myNumBuilt = 1;
+  }
+
+  /**
+   * Propagates the change of a cell of level 0 to the levels built so far, stopping at the first
+   * level whose majority does not change
+   *
+   * @param row int, the row of the cell that changed
+   * @param col int, the column of the cell that changed
+   */
+  void update(int row, int col) {
+    for (int level = 1; level < myNumBuilt; level++) {
+      row /= 2;
+      col /= 2;
+      int index = row * myLevelCols[level] + col;
+      int majority = getMajority(level - 1, row, col);
+      if (myLevels[level][index] == majority) {
+        return;
+      }
+      myLevels[level][index] = majority;
+    }
+  }
+
+  /**
+   * Builds a level from the one below it, reading the pairs of full rows below directly and
+   * falling back to getMajority only for the last row and column, which may have missing cells
+   */
+  private void buildLevel(int level) {
+    int[] states = myLevels[level];
+    int[] below = myLevels[level - 1];
+    int numCols = myLevelCols[level];
+    int belowCols = myLevelCols[level - 1];
+    int fullRows = myLevelRows[level - 1] / 2;
+    int fullCols = belowCols / 2;
+    for (int row = 0; row < myLevelRows[level]; row++) {
+      int col = 0;
+      if (row < fullRows) {
+        int top = 2 * row * belowCols;
+        for (; col < fullCols; col++) {
+          states[row * numCols + col] = getMajority(below[top + 2 * col],
+              below[top + 2 * col + 1], below[top + belowCols + 2 * col],
+              below[top + belowCols + 2 * col + 1]);
+        }
+      }
+      for (; col < numCols; col++) {
+        states[row * numCols + col] = getMajority(level - 1, row, col);
+      }
+    }
+  }
+
+  /**
+   * @return the state held by the most of the cells of a level that the cell (row, col) of the
+   * next level covers, preferring the earliest of them in row major order on ties
+   */
+  private int getMajority(int level, int row, int col) {
+    int[] states = myLevels[level];
+    int numCols = myLevelCols[level];
+    int top = 2 * row * numCols + 2 * col;
+    boolean hasRight = 2 * col + 1 < numCols;
+    boolean hasBottom = 2 * row + 1 < myLevelRows[level];
+    int a = states[top];
+    int b = hasRight ? states[top + 1] : a;
+    int c = hasBottom ? states[top + numCols] : a;
+    return getMajority(a, b, c, hasRight && hasBottom ? states[top + numCols + 1] : c);
+  }
+
+  /**
+   * @return the state held by the most of a, b, c and d, preferring the earliest on ties. The
+   * comparisons are combined without short circuits so that noisy grids, whose states are hard to
+   * predict, do not pay for mispredicted branches.
+   */
+  private static int getMajority(int a, int b, int c, int d) {
+    int majority = c == d ? c : a;
+    majority = b == c | b == d ? b : majority;
+    return a == b | a == c | a == d ? a : majority;
+  }
+}
@@ -0,0 +1,501 @@
+package cellsociety.view;
+
+import cellsociety.Point;
+import cellsociety.model.core.shape.Shape;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+/**
+ * Displays large grids through a viewport that can be zoomed with the mouse wheel and panned by
+ * dragging, so that cells too small to see in the whole grid can be brought up to full size. Only
+ * the part of the grid inside the viewport is ever drawn. When few enough cells are visible they
+ * are drawn as polygons on a canvas, with outlines, exactly as CanvasBoard draws them; otherwise
+ * every pixel of the viewport is colored by the cell under it, read from the level of a
+ * StatePyramid whose cells are about as large as a pixel, so the cost of a frame depends on the
+ * size of the viewport rather than on the size of the grid. Those colors are written straight into
+ * the int array behind the PixelBuffer of an image shown in place of the canvas, and handed to
+ * JavaFX in one update per frame, without copying them. Hexagons are approximated by shifting odd
+ * rows right by half a cell when drawn as pixels. A double click zooms back out to the whole grid.
+ */
+
+public class ViewportBoard implements GridBoard {
+
+  /**
+   * Factor the zoom changes by for every notch of the mouse wheel
+   */
+  public static final double ZOOM_STEP = 1.25;
+  /**
+   * Largest width or height a cell can be zoomed to, in pixels
+   */
+  public static final double MAX_CELL_SIZE = 48;
+  /**
+   * Largest number of visible cells that are drawn as polygons rather than as pixels
+   */
+  public static final int MAX_DRAWN_CELLS = 40000;
+  /**
+   * Width of the black outline drawn around every cell when outlines are on
+   */
+  private static final double OUTLINE_WIDTH = CanvasBoard.OUTLINE_WIDTH;
+  private static final double SEAM_WIDTH = 1;
+
+  private final int myNumRows;
+  private final int myNumCols;
+  private final double myCellWidth;
+  private final double myCellHeight;
+  /**
+   * The corners of the cell at (row, col) are (myTemplateXs[p][k] + col, myTemplateYs[p][k] + row
+   * - p) in units of cells, where p = row % 2
+   */
+  private final double[][] myTemplateXs;
+  private final double[][] myTemplateYs;
+  private final double myMinTemplateX;
+  private final double myMaxTemplateX;
+  private final double myMinTemplateY;
+  private final double myMaxTemplateY;
+  private final boolean isStaggered;
+  private final CellPalette myPalette;
+  /**
+   * Holds the canvas the cells are drawn on as polygons and the image they are drawn in as pixels,
+   * only one of which is visible at a time, and receives the mouse events of both
+   */
+  private final Pane myView;
+  private final Canvas myCanvas;
+  private final GraphicsContext myGraphics;
+  /**
+   * Position on the canvas of the corner (0, 0) of the grid when the whole grid is shown
+   */
+  private final double myOriginX;
+  private final double myOriginY;
+  private final int[] myStates;
+  private final StatePyramid myPyramid;
+  private final int[] myPixels;
+  private final PixelBuffer<IntBuffer> myPixelBuffer;
+  private final ImageView myImageView;
+  private final double[] myCellXs;
+  private final double[] myCellYs;
+  /**
+   * The premultiplied ARGB color of each state, or 0 if it has not been looked up yet
+   */
+  private int[] myArgbColors;
+  /**
+   * Row major indices of the visible cells whose state changed since the last flush
+   */
+  private int[] myChangedCells;
+  private int myNumChanged;
+  /**
+   * The rows and columns of the cells inside the viewport when it was last drawn
+   */
+  private int myFirstRow;
+  private int myLastRow;
+  private int myFirstCol;
+  private int myLastCol;
+  private double myZoom;
+  private double myViewRow;
+  private double myViewCol;
+  private double myDragX;
+  private double myDragY;
+  private boolean areOutlinesOn;
+  private boolean isDrawingPolygons;
+  private boolean isViewChanged;
+  private boolean isDirty;
+
+  /**
+   * Constructs a board showing the whole grid, on a canvas just large enough to hold every cell and
+   * its outline
+   *
+   * @param numRows        int, number of rows in the grid
+   * @param numCols        int, number of columns in the grid
+   * @param cellShape      the shape of the cells, which gives the corners of every cell
+   * @param gridProperties the position and size of the area the grid is drawn in
+   * @param palette        the colors of the states of the simulation
+   */
+  public ViewportBoard(int numRows, int numCols, Shape cellShape,
+      Map<String, Double> gridProperties, CellPalette palette) {
+    myNumRows = numRows;
+    myNumCols = numCols;
+    myPalette = palette;
+    myCellWidth = gridProperties.get("gridWidth") / numCols;
+    myCellHeight = gridProperties.get("gridHeight") / numRows;
+    myTemplateXs = new double[2][];
+    myTemplateYs = new double[2][];
+    for (int parity = 0; parity < 2; parity++) {
+      List<Point> vertices = cellShape.getVertices(parity, 0);
+      myTemplateXs[parity] = new double[vertices.size()];
+      myTemplateYs[parity] = new double[vertices.size()];
+      for (int k = 0; k < vertices.size(); k++) {
+        myTemplateXs[parity][k] = vertices.get(k).getCol();
+        myTemplateYs[parity][k] = vertices.get(k).getRow() - parity;
+      }
+    }
+    int numTemplates = numRows > 1 ? 2 : 1;
+    myMinTemplateX = getExtreme(myTemplateXs, numTemplates, -1);
+    myMaxTemplateX = getExtreme(myTemplateXs, numTemplates, 1);
+    myMinTemplateY = getExtreme(myTemplateYs, numTemplates, -1);
+    myMaxTemplateY = getExtreme(myTemplateYs, numTemplates, 1);
+    isStaggered = myTemplateXs[0][0] != myTemplateXs[1][0];
+    double left = Math.floor(gridProperties.get("gridStartX") + myCellWidth * myMinTemplateX
+        - OUTLINE_WIDTH);
+    double top = Math.floor(gridProperties.get("gridStartY") + myCellHeight * myMinTemplateY
+        - OUTLINE_WIDTH);
+    double right = Math.ceil(gridProperties.get("gridStartX")
+        + myCellWidth * (numCols - 1 + myMaxTemplateX) + OUTLINE_WIDTH);
+    double bottom = Math.ceil(gridProperties.get("gridStartY")
+        + myCellHeight * (numRows - 1 + myMaxTemplateY) + OUTLINE_WIDTH);
+    myCanvas = new Canvas(right - left, bottom - top);
+    myGraphics = myCanvas.getGraphicsContext2D();
+    myOriginX = gridProperties.get("gridStartX") - left;
+    myOriginY = gridProperties.get("gridStartY") - top;
+    myStates = new int[numRows * numCols];
+    myPyramid = new StatePyramid(myStates, numRows, numCols);
+    int width = (int) myCanvas.getWidth();
+    int height = (int) myCanvas.getHeight();
+    myPixels = new int[width * height];
+    myPixelBuffer = new PixelBuffer<>(width, height, IntBuffer.wrap(myPixels),
+        PixelFormat.getIntArgbPreInstance());
+    myImageView = new ImageView(new WritableImage(myPixelBuffer));
+    myImageView.setVisible(false);
+    myView = new Pane(myCanvas, myImageView);
+    myView.setLayoutX(left);
+    myView.setLayoutY(top);
+    myView.setPrefSize(width, height);
+    myView.setMaxSize(width, height);
+    myView.resize(width, height);
+    myCellXs = new double[Math.max(myTemplateXs[0].length, myTemplateXs[1].length)];
+    myCellYs = new double[myCellXs.length];
+    myArgbColors = new int[0];
+    myChangedCells = new int[MAX_DRAWN_CELLS];
+    myZoom = 1;
+    areOutlinesOn = true;
+    isViewChanged = true;
+    addMouseHandlers();
+  }
+
+  private static double getExtreme(double[][] templates, int numTemplates, int sign) {
+    double extreme = sign * templates[0][0];
+    for (int parity = 0; parity < numTemplates; parity++) {
+      for (double value : templates[parity]) {
+        extreme = Math.max(extreme, sign * value);
+      }
+    }
+    return sign * extreme;
+  }
+
+  private void addMouseHandlers() {
+    myView.setOnScroll(event -> {
+      if (event.getDeltaY() != 0) {
+        zoom(Math.pow(ZOOM_STEP, Math.signum(event.getDeltaY())), event.getX(), event.getY());
+      }
+    });
+    myView.setOnMousePressed(event -> {
+      myDragX = event.getX();
+      myDragY = event.getY();
+    });
+    myView.setOnMouseDragged(event -> {
+      pan(event.getX() - myDragX, event.getY() - myDragY);
+      myDragX = event.getX();
+      myDragY = event.getY();
+    });
+    myView.setOnMouseClicked(event -> {
+      if (event.getClickCount() == 2) {
+        resetView();
+      }
+    });
+  }
+
+  /**
+   * gets the pane the viewport is drawn in
+   *
+   * @return the pane holding the canvas and the image, positioned where the grid is displayed
+   */
+  @Override
+  public Pane getNode() {
+    return myView;
+  }
+
+  /**
+   * Zooms in or out, keeping the point of the grid under a position of the canvas in place. The
+   * viewport never zooms out past the whole grid, nor in past cells of MAX_CELL_SIZE pixels.
+   *
+   * @param factor double, how many times larger cells become
+   * @param x      double, horizontal position on the canvas that stays in place
+   * @param y      double, vertical position on the canvas that stays in place
+   */
+  public void zoom(double factor, double x, double y) {
+    double maxZoom = Math.max(1, MAX_CELL_SIZE / Math.min(myCellWidth, myCellHeight));
+    double zoom = Math.min(maxZoom, Math.max(1, myZoom * factor));
+    double col = toGridX(x);
+    double row = toGridY(y);
+    myZoom = zoom;
+    myViewCol = col - (x - myOriginX) / (myCellWidth * myZoom);
+    myViewRow = row - (y - myOriginY) / (myCellHeight * myZoom);
+    redraw();
+  }
+
+  /**
+   * Moves the grid under the viewport, as far as the edges of the grid allow
+   *
+   * @param dx double, pixels the grid moves right by
+   * @param dy double, pixels the grid moves down by
+   */
+  public void pan(double dx, double dy) {
+    myViewCol -= dx / (myCellWidth * myZoom);
+    myViewRow -= dy / (myCellHeight * myZoom);
+    redraw();
+  }
+
+  /**
+   * Zooms back out to show the whole grid
+   */
+  public void resetView() {
+    myZoom = 1;
+    myViewCol = 0;
+    myViewRow = 0;
+    redraw();
+  }
+
+  /**
+   * gets how many times larger cells are shown than when the whole grid is shown
+   *
+   * @return the zoom, at least 1
+   */
+  public double getZoom() {
+    return myZoom;
+  }
+
+  private void redraw() {
+    clampView();
+    isViewChanged = true;
+    flush();
+  }
+
+  /**
+   * Keeps the viewport inside the area the whole grid is shown in, so that zooming out always ends
+   * on the whole grid
+   */
+  private void clampView() {
+    double shrink = 1 - 1 / myZoom;
+    myViewCol = Math.min(Math.max(myViewCol, -myOriginX / myCellWidth * shrink),
+        (myCanvas.getWidth() - myOriginX) / myCellWidth * shrink);
+    myViewRow = Math.min(Math.max(myViewRow, -myOriginY / myCellHeight * shrink),
+        (myCanvas.getHeight() - myOriginY) / myCellHeight * shrink);
+  }
+
+  @Override
+  public void setState(int row, int col, int state) {
+    int index = row * myNumCols + col;
+    if (myStates[index] != state) {
+      myStates[index] = state;
+      myPyramid.update(row, col);
+      markChanged(index, row, col);
+      isDirty = true;
+    }
+  }
+
+  /**
+   * Changes the state of every cell, remembering which of the visible cells changed if they are
+   * drawn as polygons, and marking the levels of the pyramid out of date
+   */
+  @Override
+  public void setStates(int[] states) {
+    if (isDrawingPolygons && !isViewChanged) {
+      for (int row = myFirstRow; row <= myLastRow; row++) {
+        for (int col = myFirstCol; col <= myLastCol; col++) {
+          int index = row * myNumCols + col;
+          if (myStates[index] != states[index]) {
+            markChanged(index, row, col);
+          }
+        }
+      }
+    }
+    System.arraycopy(states, 0, myStates, 0, myStates.length);
+    myPyramid.invalidate();
+    isDirty = true;
+  }
+
+  private void markChanged(int index, int row, int col) {
+    if (!isDrawingPolygons || isViewChanged || row < myFirstRow || row > myLastRow
+        || col < myFirstCol || col > myLastCol) {
+      return;
+    }
+    if (myNumChanged == myChangedCells.length) {
+      isViewChanged = true;
+      return;
+    }
+    myChangedCells[myNumChanged++] = index;
+  }
+
+  @Override
+  public int getState(int row, int col) {
+    return myStates[row * myNumCols + col];
+  }
+
+  /**
+   * Turns the cell outlines on or off, which only shows while cells are drawn as polygons
+   */
+  @Override
+  public void setOutlines(boolean onOff) {
+    areOutlinesOn = onOff;
+    redraw();
+  }
+
+  /**
+   * Draws the viewport: every visible cell if the view changed, only the visible cells that
+   * changed if they are drawn as polygons, or every pixel if they are not
+   */
+  @Override
+  public void flush() {
+    if (!isViewChanged && !isDirty) {
+      return;
+    }
+    if (isViewChanged) {
+      findVisibleCells();
+      isDrawingPolygons = (long) (myLastRow - myFirstRow + 1) * (myLastCol - myFirstCol + 1)
+          <= MAX_DRAWN_CELLS;
+      myCanvas.setVisible(isDrawingPolygons);
+      myImageView.setVisible(!isDrawingPolygons);
+    }
+    if (!isDrawingPolygons) {
+      drawPixels();
+    } else if (isViewChanged) {
+      myGraphics.clearRect(0, 0, myCanvas.getWidth(), myCanvas.getHeight());
+      for (int row = myFirstRow; row <= myLastRow; row++) {
+        for (int col = myFirstCol; col <= myLastCol; col++) {
+          drawCell(row, col);
+        }
+      }
+    } else {
+      for (int i = 0; i < myNumChanged; i++) {
+        drawCell(myChangedCells[i] / myNumCols, myChangedCells[i] % myNumCols);
+      }
+    }
+    myNumChanged = 0;
+    isViewChanged = false;
+    isDirty = false;
+  }
+
+  private void drawCell(int row, int col) {
+    int parity = row % 2;
+    double[] xs = myTemplateXs[parity];
+    double[] ys = myTemplateYs[parity];
+    for (int k = 0; k < xs.length; k++) {
+      myCellXs[k] = toCanvasX(col + xs[k]);
+      myCellYs[k] = toCanvasY(row + ys[k]);
+    }
+    Color color = myPalette.getColor(myStates[row * myNumCols + col]);
+    myGraphics.setFill(color);
+    myGraphics.fillPolygon(myCellXs, myCellYs, xs.length);
+    if (areOutlinesOn) {
+      myGraphics.setStroke(Color.BLACK);
+      myGraphics.setLineWidth(OUTLINE_WIDTH);
+    } else {
+      myGraphics.setStroke(color);
+      myGraphics.setLineWidth(SEAM_WIDTH);
+    }
+    myGraphics.strokePolygon(myCellXs, myCellYs, xs.length);
+  }
+
+  /**
+   * Colors every pixel of the viewport by the cell of the pyramid under its center, from the
+   * deepest level whose cells are no larger than a pixel, writing into the pixels of the image and
+   * then telling JavaFX that all of them changed
+   */
+  private void drawPixels() {
+    double cellsPerPixel = 1 / (Math.max(myCellWidth, myCellHeight) * myZoom);
+    int level = Math.max(0, Math.min(myPyramid.getNumLevels() - 1,
+        (int) Math.floor(Math.log(cellsPerPixel) / Math.log(2))));
+    int[] states = myPyramid.getLevel(level);
+    int levelCols = myPyramid.getNumCols(level);
+    int width = myPixelBuffer.getWidth();
+    int[] evenCols = getPixelCols(width, 0, level);
+    int[] oddCols = isStaggered ? getPixelCols(width, 1, level) : evenCols;
+    for (int y = 0; y < myPixelBuffer.getHeight(); y++) {
+      int row = (int) Math.floor(toGridY(y + .5));
+      int[] cols = row % 2 == 1 ? oddCols : evenCols;
+      int start = (row >> level) * levelCols;
+      for (int x = 0; x < width; x++) {
+        myPixels[y * width + x] = row < 0 || row >= myNumRows || cols[x] < 0 ? 0
+            : getArgb(states[start + cols[x]]);
+      }
+    }
+    myPixelBuffer.updateBuffer(buffer -> null);
+  }
+
+  /**
+   * @return the column of a level of the pyramid under the center of every column of pixels, for
+   * rows of a parity, or -1 where there is no cell
+   */
+  private int[] getPixelCols(int width, int parity, int level) {
+    int[] cols = new int[width];
+    for (int x = 0; x < width; x++) {
+      int col = (int) Math.floor(toGridX(x + .5) - myTemplateXs[parity][0]
+          + myTemplateXs[0][0]);
+      cols[x] = col < 0 || col >= myNumCols ? -1 : col >> level;
+    }
+    return cols;
+  }
+
+  private double toCanvasX(double gridX) {
+    return myOriginX + (gridX - myViewCol) * myCellWidth * myZoom;
+  }
+
+  private double toCanvasY(double gridY) {
+    return myOriginY + (gridY - myViewRow) * myCellHeight * myZoom;
+  }
+
+  private double toGridX(double canvasX) {
+    return myViewCol + (canvasX - myOriginX) / (myCellWidth * myZoom);
+  }
+
+  private double toGridY(double canvasY) {
+    return myViewRow + (canvasY - myOriginY) / (myCellHeight * myZoom);
+  }
+
+  /**
+   * Finds the rows and columns of the cells with at least a corner inside the viewport
+   */
+  private void findVisibleCells() {
+    myFirstRow = Math.max(0, (int) Math.floor(toGridY(0) - myMaxTemplateY));
+    myLastRow = Math.min(myNumRows - 1,
+        (int) Math.ceil(toGridY(myCanvas.getHeight()) - myMinTemplateY));
+    myFirstCol = Math.max(0, (int) Math.floor(toGridX(0) - myMaxTemplateX));
+    myLastCol = Math.min(myNumCols - 1,
+        (int) Math.ceil(toGridX(myCanvas.getWidth()) - myMinTemplateX));
+  }
+
+  /**
+   * @return the premultiplied ARGB color of a state, looking it up in the palette the first time
+   * @throws IllegalStateException if the state is negative or the palette has no color for it
+   */
+  private int getArgb(int state) {
+    if (state < 0) {
+      throw new IllegalStateException("Unexpected value: " + state);
+    }
+    if (state < myArgbColors.length && myArgbColors[state] != 0) {
+      return myArgbColors[state];
+    }
+    int argb = toArgb(myPalette.getColor(state));
+    if (state >= myArgbColors.length) {
+      myArgbColors = Arrays.copyOf(myArgbColors, state + 1);
+    }
+    myArgbColors[state] = argb;
+    return argb;
+  }
+
+  private static int toArgb(Color color) {
+    double opacity = color.getOpacity();
+    return (int) Math.round(opacity * 255) << 24
+        | (int) Math.round(color.getRed() * opacity * 255) << 16
+        | (int) Math.round(color.getGreen() * opacity * 255) << 8
+        | (int) Math.round(color.getBlue() * opacity * 255);
+  }
+}
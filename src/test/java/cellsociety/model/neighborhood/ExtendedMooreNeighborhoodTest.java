@@ -0,0 +1,130 @@
+package cellsociety.model.neighborhood;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import cellsociety.Point;
+import cellsociety.model.core.cell.Cell;
+import cellsociety.model.core.cell.LifeCell;
+import cellsociety.model.core.grid.Grid;
+import cellsociety.model.core.grid.WarpedGrid;
+import cellsociety.model.core.shape.HexagonShape;
+import cellsociety.model.core.shape.RectangleShape;
+import cellsociety.model.core.shape.Shape;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the Extended Moore neighborhood against its definition: two cells are neighbors if some
+ * cell shares a vertex with the first one, and the second one can be reached from it through at
+ * most radius - 1 more cells sharing a vertex, where sharing a vertex is decided by comparing every
+ * pair of vertices under the grid's edge policy. For a radius of 2 this is the original definition
+ * of the neighborhood.
+ */
+class ExtendedMooreNeighborhoodTest {
+
+  private static final int[][] SIZES = {{10, 10}, {11, 9}, {9, 12}, {12, 12}, {13, 11},
+      {5, 7}, {3, 4}};
+  private static final int MAX_RADIUS = 4;
+  private static final Map<String, Integer> LIFE_PARAMS = Map.of("aliveToAliveMin", 2,
+      "aliveToAliveMax", 3, "deadToAliveMin", 3, "deadToAliveMax", 3);
+
+  @Test
+  void neighborsMatchDefinitionOnNormalGrids() {
+    checkAllSizes(false);
+  }
+
+  @Test
+  void neighborsMatchDefinitionOnWarpedGrids() {
+    checkAllSizes(true);
+  }
+
+  private void checkAllSizes(boolean warped) {
+    for (int[] size : SIZES) {
+      for (Shape shape : new Shape[]{new RectangleShape(), new HexagonShape()}) {
+        checkGrid(size[0], size[1], shape, warped);
+      }
+    }
+  }
+
+  private void checkGrid(int rows, int cols, Shape shape, boolean warped) {
+    List<LifeCell> cells = new ArrayList<>();
+    for (int i = 0; i < rows * cols; i++) {
+      cells.add(new LifeCell(0, i / cols, i % cols, shape, LIFE_PARAMS));
+    }
+    Grid<LifeCell> grid = warped ? new WarpedGrid<>(rows, cols, cells)
+        : new Grid<>(rows, cols, cells);
+    boolean[][] sharesVertex = getSharedVertices(grid, cells);
+    for (int radius = 1; radius <= MAX_RADIUS; radius++) {
+      ExtendedMooreNeighborhood neighborhood = new ExtendedMooreNeighborhood(radius);
+      for (int index = 0; index < cells.size(); index++) {
+        Set<Integer> expected = getDefinedNeighbors(sharesVertex, index, radius);
+        LifeCell cell = cells.get(index);
+        String where = String.format("%dx%d %s %s grid, radius %d, cell (%d, %d)", rows, cols,
+            shape.getClass().getSimpleName(), warped ? "warped" : "normal", radius,
+            cell.getRow(), cell.getCol());
+        Set<Integer> actual = new TreeSet<>();
+        for (Cell<?> neighbor : neighborhood.getNeighbors(grid, cell)) {
+          actual.add(neighbor.getRow() * cols + neighbor.getCol());
+        }
+        assertEquals(expected, actual, where);
+        for (int other = 0; other < cells.size(); other++) {
+          if (other != index) {
+            assertEquals(expected.contains(other),
+                neighborhood.isValidNeighbor(cell, cells.get(other), grid),
+                where + " and cell " + other);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return whether each cell has a vertex equal to a vertex of each other cell under the grid's
+   * edge policy, compared pair by pair
+   */
+  private boolean[][] getSharedVertices(Grid<LifeCell> grid, List<LifeCell> cells) {
+    boolean[][] sharesVertex = new boolean[cells.size()][cells.size()];
+    for (int i = 0; i < cells.size(); i++) {
+      for (int j = 0; j < cells.size(); j++) {
+        for (Point vtx1 : cells.get(i).getVertices()) {
+          for (Point vtx2 : cells.get(j).getVertices()) {
+            sharesVertex[i][j] |= grid.vertexEqual(vtx1, vtx2);
+          }
+        }
+      }
+    }
+    return sharesVertex;
+  }
+
+  /**
+   * @return the neighbors of a cell under the definition, by a breadth first search over the
+   * cells sharing a vertex
+   */
+  private Set<Integer> getDefinedNeighbors(boolean[][] sharesVertex, int cell, int radius) {
+    Set<Integer> reached = new TreeSet<>();
+    List<Integer> frontier = new ArrayList<>();
+    for (int other = 0; other < sharesVertex.length; other++) {
+      if (radius == 1 ? sharesVertex[cell][other] : sharesVertex[other][cell]) {
+        reached.add(other);
+        frontier.add(other);
+      }
+    }
+    for (int step = 1; step < radius; step++) {
+      List<Integer> nextFrontier = new ArrayList<>();
+      for (int current : frontier) {
+        for (int other = 0; other < sharesVertex.length; other++) {
+          if (sharesVertex[current][other] && reached.add(other)) {
+            nextFrontier.add(other);
+          }
+        }
+      }
+      frontier = nextFrontier;
+    }
+    reached.remove(cell);
+    return reached;
+  }
+}
@@ -0,0 +1,112 @@
+package cellsociety.model.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import cellsociety.model.neighborhood.MooreNeighborhood;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that HashLife jumps reach the same generations as stepping Game of Life one generation at
+ * a time on grids with normal edges.
+ */
+class HashLifeTest {
+
+  private static final int[][] SIZES = {{1, 1}, {2, 5}, {3, 3}, {10, 17}, {33, 20}, {64, 64}};
+  private static final int[][] RULES = {{2, 3, 3, 3}, {1, 5, 3, 3}, {0, 8, 1, 1}, {3, 6, 2, 4},
+      {2, 3, 0, 0}};
+  private static final long[] JUMPS = {0, 1, 3, 8, 21, 2};
+  private static final int SMALL_TABLE_NODES = 256;
+  private static final double DENSITY = 0.35;
+  private static final long SEED = 11;
+
+  @Test
+  void jumpsMatchStepping() {
+    Random random = new Random(SEED);
+    for (int[] size : SIZES) {
+      for (int[] rule : RULES) {
+        int rows = size[0];
+        int cols = size[1];
+        List<Integer> states = randomStates(rows * cols, random);
+        GameOfLifeSimulation jumped = makeSimulation(rows, cols, rule, states);
+        GameOfLifeSimulation stepped = makeSimulation(rows, cols, rule, states);
+        long generation = 0;
+        for (long jump : JUMPS) {
+          jumped.jumpGenerations(jump);
+          step(stepped, jump);
+          generation += jump;
+          assertArrayEquals(stepped.getCurrentStates(), jumped.getCurrentStates(),
+              String.format("%dx%d grid, rule %d-%d/%d-%d, generation %d", rows, cols, rule[0],
+                  rule[1], rule[2], rule[3], generation));
+        }
+      }
+    }
+  }
+
+  @Test
+  void jumpsMatchSteppingAfterTheNodeTableIsEmptied() {
+    int rows = 40;
+    int cols = 45;
+    int[] rule = RULES[0];
+    List<Integer> states = randomStates(rows * cols, new Random(SEED));
+    GameOfLifeSimulation stepped = makeSimulation(rows, cols, rule, states);
+    HashLife hashLife = new HashLife(LifeBitBoard.countsInRange(rule[0], rule[1]),
+        LifeBitBoard.countsInRange(rule[2], rule[3]), SMALL_TABLE_NODES);
+    int[] jumped = stepped.getCurrentStates();
+    for (int generation = 10; generation <= 100; generation += 10) {
+      jumped = hashLife.jump(jumped, rows, cols, 10);
+      step(stepped, 10);
+      assertArrayEquals(stepped.getCurrentStates(), jumped, "generation " + generation);
+    }
+  }
+
+  @Test
+  void longJumpsKeepTheOscillatorPhase() {
+    int rows = 8;
+    int cols = 9;
+    List<Integer> states = new ArrayList<>(Collections.nCopies(rows * cols,
+        GameOfLifeSimulation.DEAD));
+    for (int index : new int[]{10, 11, 19, 20, 4 * cols + 5, 4 * cols + 6, 4 * cols + 7}) {
+      states.set(index, GameOfLifeSimulation.ALIVE);
+    }
+    GameOfLifeSimulation stepped = makeSimulation(rows, cols, RULES[0], states);
+    step(stepped, 2);
+    int[] evenPhase = stepped.getCurrentStates();
+    step(stepped, 1);
+    int[] oddPhase = stepped.getCurrentStates();
+    GameOfLifeSimulation jumped = makeSimulation(rows, cols, RULES[0], states);
+    jumped.jumpGenerations(1L << 40);
+    assertArrayEquals(evenPhase, jumped.getCurrentStates());
+    jumped.jumpGenerations((1L << 61) + 1);
+    assertArrayEquals(oddPhase, jumped.getCurrentStates());
+  }
+
+  private static void step(GameOfLifeSimulation simulation, long generations) {
+    for (long i = 0; i < generations; i++) {
+      simulation.transitionFunction();
+      simulation.processUpdate();
+    }
+  }
+
+  private static List<Integer> randomStates(int numCells, Random random) {
+    List<Integer> states = new ArrayList<>();
+    for (int i = 0; i < numCells; i++) {
+      states.add(random.nextDouble() < DENSITY ? GameOfLifeSimulation.ALIVE
+          : GameOfLifeSimulation.DEAD);
+    }
+    return states;
+  }
+
+  private static GameOfLifeSimulation makeSimulation(int rows, int cols, int[] rule,
+      List<Integer> states) {
+    Map<String, Double> params = Map.of("aliveToAliveMin", (double) rule[0],
+        "aliveToAliveMax", (double) rule[1], "deadToAliveMin", (double) rule[2],
+        "deadToAliveMax", (double) rule[3]);
+    return new GameOfLifeSimulation(rows, cols, new MooreNeighborhood(), states,
+        new SimulationRecord(params, "Normal", "square", SEED));
+  }
+}
@@ -0,0 +1,93 @@
+package cellsociety.model.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import cellsociety.model.neighborhood.MooreNeighborhood;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that Game of Life stepped on a bit board goes through the same generations as when its
+ * cells are stepped one by one, on grids whose widths are and are not multiples of a word.
+ */
+class LifeBitBoardTest {
+
+  private static final int[][] SIZES = {{3, 3}, {4, 70}, {17, 65}, {64, 64}, {40, 130},
+      {5, 129}};
+  private static final int[][] RULES = {{2, 3, 3, 3}, {1, 5, 3, 3}, {0, 8, 1, 1}, {3, 6, 2, 4},
+      {2, 3, 0, 0}};
+  private static final int GENERATIONS = 40;
+  private static final double DENSITY = 0.35;
+  private static final long SEED = 7;
+
+  @Test
+  void bitBoardMatchesCellsOnNormalGrids() {
+    checkAllSizes("Normal", false);
+  }
+
+  @Test
+  void bitBoardMatchesCellsOnWarpedGrids() {
+    checkAllSizes("Warped", false);
+  }
+
+  @Test
+  void parallelBitBoardMatchesCells() {
+    checkAllSizes("Normal", true);
+    checkAllSizes("Warped", true);
+  }
+
+  private void checkAllSizes(String gridType, boolean parallel) {
+    Random random = new Random(SEED);
+    for (int[] size : SIZES) {
+      for (int[] rule : RULES) {
+        checkGrid(size[0], size[1], rule, gridType, parallel, random);
+      }
+    }
+  }
+
+  private void checkGrid(int rows, int cols, int[] rule, String gridType, boolean parallel,
+      Random random) {
+    List<Integer> states = new ArrayList<>();
+    for (int i = 0; i < rows * cols; i++) {
+      states.add(random.nextDouble() < DENSITY ? GameOfLifeSimulation.ALIVE
+          : GameOfLifeSimulation.DEAD);
+    }
+    GameOfLifeSimulation board = makeSimulation(rows, cols, rule, gridType, states);
+    GameOfLifeSimulation cells = makeSimulation(rows, cols, rule, gridType, states);
+    cells.setBitBoardStepping(false);
+    assertFalse(cells.isBitBoardStepping());
+    board.setParallelStepping(parallel);
+    String where = String.format("%dx%d %s grid, rule %d-%d/%d-%d", rows, cols, gridType,
+        rule[0], rule[1], rule[2], rule[3]);
+    assertTrue(board.isBitBoardStepping(), where);
+    int[] previous = board.getCurrentStates();
+    for (int generation = 1; generation <= GENERATIONS; generation++) {
+      board.transitionFunction();
+      board.processUpdate();
+      cells.transitionFunction();
+      cells.processUpdate();
+      int[] current = board.getCurrentStates();
+      assertArrayEquals(cells.getCurrentStates(), current, where + ", generation " + generation);
+      int[] last = previous;
+      int[] changed = IntStream.range(0, current.length)
+          .filter(i -> current[i] != last[i]).toArray();
+      assertArrayEquals(changed, board.getChangedCells(), where + ", generation " + generation);
+      previous = current;
+    }
+  }
+
+  private GameOfLifeSimulation makeSimulation(int rows, int cols, int[] rule, String gridType,
+      List<Integer> states) {
+    Map<String, Double> params = Map.of("aliveToAliveMin", (double) rule[0],
+        "aliveToAliveMax", (double) rule[1], "deadToAliveMin", (double) rule[2],
+        "deadToAliveMax", (double) rule[3]);
+    return new GameOfLifeSimulation(rows, cols, new MooreNeighborhood(), states,
+        new SimulationRecord(params, gridType, "square", SEED));
+  }
+}
@@ -0,0 +1,201 @@
+package cellsociety.model.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import cellsociety.exception.InvalidValueException;
+import cellsociety.model.core.grid.PackedGrid;
+import cellsociety.model.neighborhood.ExtendedMooreNeighborhood;
+import cellsociety.model.neighborhood.MooreNeighborhood;
+import cellsociety.model.neighborhood.Neighborhood;
+import cellsociety.model.neighborhood.VonNeumannNeighborhood;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the percolation detector against stepping a PercolationSimulation until it settles, and
+ * against a breadth first search from the top row for whether the grid percolates, including
+ * after cells are opened one at a time.
+ */
+class PercolationDetectorTest {
+
+  private static final int[][] SIZES = {{1, 1}, {1, 6}, {7, 1}, {12, 15}, {20, 9}};
+  private static final String[] SHAPES = {"square", "hexagon"};
+  private static final List<Supplier<Neighborhood<?>>> NEIGHBORHOODS = List.of(
+      MooreNeighborhood::new, VonNeumannNeighborhood::new, () -> new ExtendedMooreNeighborhood(3));
+  private static final double[] BLOCKED_FRACTIONS = {0.2, 0.45, 0.7};
+  private static final double PERCOLATED_FRACTION = 0.03;
+  private static final int OPENINGS_BETWEEN_CHECKS = 4;
+  private static final long SEED = 3;
+
+  @Test
+  void reachableCellsMatchSettledSimulation() {
+    Random random = new Random(SEED);
+    forEachGrid((rows, cols, shape, neighborhood) -> {
+      for (double blocked : BLOCKED_FRACTIONS) {
+        List<Integer> states = randomStates(rows * cols, blocked, random);
+        PercolationSimulation simulation = makeSimulation(rows, cols, shape, neighborhood,
+            states);
+        PercolationDetector detector = simulation.createPercolationDetector();
+        int[] settled = settle(simulation);
+        String where = describe(rows, cols, shape, neighborhood, blocked);
+        assertArrayEquals(settled, detector.getReachableStates(), where);
+        assertEquals(Arrays.stream(settled).filter(s -> s == PercolationSimulation.PERCOLATED)
+            .count(), detector.getNumReachable(), where);
+        assertEquals(spans(simulation.toPackedGrid(), states), detector.percolates(), where);
+      }
+    });
+  }
+
+  @Test
+  void openingCellsMatchesRebuilding() {
+    Random random = new Random(SEED);
+    forEachGrid((rows, cols, shape, neighborhood) -> {
+      List<Integer> states = randomStates(rows * cols, 1 - PERCOLATED_FRACTION, random);
+      PercolationSimulation simulation = makeSimulation(rows, cols, shape, neighborhood, states);
+      PackedGrid grid = simulation.toPackedGrid();
+      PercolationDetector detector = simulation.createPercolationDetector();
+      List<Integer> order = new ArrayList<>();
+      for (int i = 0; i < rows * cols; i++) {
+        if (states.get(i) == PercolationSimulation.BLOCKED) {
+          order.add(i);
+        }
+      }
+      Collections.shuffle(order, random);
+      for (int opened = 0; opened < order.size(); opened++) {
+        int index = order.get(opened);
+        detector.open(index);
+        states.set(index, PercolationSimulation.OPEN);
+        if (opened % OPENINGS_BETWEEN_CHECKS == 0 || opened == order.size() - 1) {
+          PercolationDetector rebuilt = makeSimulation(rows, cols, shape, neighborhood, states)
+              .createPercolationDetector();
+          String where = describe(rows, cols, shape, neighborhood, 1 - PERCOLATED_FRACTION)
+              + ", " + (opened + 1) + " cells opened";
+          assertEquals(spans(grid, states), detector.percolates(), where);
+          assertEquals(rebuilt.percolates(), detector.percolates(), where);
+          assertArrayEquals(rebuilt.getReachableStates(), detector.getReachableStates(), where);
+          assertEquals(rebuilt.getNumOpen(), detector.getNumOpen(), where);
+          for (int i = 0; i < rows * cols; i++) {
+            assertEquals(rebuilt.getClusterSize(i), detector.getClusterSize(i), where);
+          }
+        }
+      }
+    });
+  }
+
+  @Test
+  void warpedGridsAreRefused() {
+    PercolationSimulation simulation = new PercolationSimulation(4, 4, new MooreNeighborhood(),
+        new ArrayList<>(Collections.nCopies(16, PercolationSimulation.OPEN)),
+        new SimulationRecord(Map.of("percolatedNeighbors", 1.0), "Warped", "square", SEED));
+    assertThrows(InvalidValueException.class, simulation::createPercolationDetector);
+  }
+
+  private interface GridCheck {
+
+    void check(int rows, int cols, String shape, Neighborhood<?> neighborhood);
+  }
+
+  private static void forEachGrid(GridCheck check) {
+    for (int[] size : SIZES) {
+      for (String shape : SHAPES) {
+        for (Supplier<Neighborhood<?>> neighborhood : NEIGHBORHOODS) {
+          check.check(size[0], size[1], shape, neighborhood.get());
+        }
+      }
+    }
+  }
+
+  /**
+   * Steps a simulation until no cell changes
+   *
+   * @return the states the simulation settled in
+   */
+  private static int[] settle(PercolationSimulation simulation) {
+    int[] previous;
+    int[] current = simulation.getCurrentStates();
+    do {
+      previous = current;
+      simulation.transitionFunction();
+      simulation.processUpdate();
+      current = simulation.getCurrentStates();
+    } while (!Arrays.equals(previous, current));
+    return current;
+  }
+
+  /**
+   * @return true if a breadth first search from the open cells of the top row, following
+   * neighbors in both directions, reaches the bottom row
+   */
+  private static boolean spans(PackedGrid grid, List<Integer> states) {
+    int size = grid.size();
+    List<List<Integer>> links = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      links.add(new ArrayList<>());
+    }
+    for (int i = 0; i < size; i++) {
+      for (int k = 0; k < grid.getNeighborCount(i); k++) {
+        links.get(i).add(grid.getNeighbor(i, k));
+        links.get(grid.getNeighbor(i, k)).add(i);
+      }
+    }
+    boolean[] reached = new boolean[size];
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int i = 0; i < grid.getNumCols(); i++) {
+      if (isOpen(states.get(i))) {
+        reached[i] = true;
+        queue.add(i);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int cell = queue.poll();
+      if (cell / grid.getNumCols() == grid.getNumRows() - 1) {
+        return true;
+      }
+      for (int neighbor : links.get(cell)) {
+        if (!reached[neighbor] && isOpen(states.get(neighbor))) {
+          reached[neighbor] = true;
+          queue.add(neighbor);
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isOpen(int state) {
+    return state == PercolationSimulation.OPEN || state == PercolationSimulation.PERCOLATED;
+  }
+
+  private static List<Integer> randomStates(int numCells, double blockedFraction,
+      Random random) {
+    List<Integer> states = new ArrayList<>();
+    for (int i = 0; i < numCells; i++) {
+      double draw = random.nextDouble();
+      states.add(draw < blockedFraction ? PercolationSimulation.BLOCKED
+          : draw < blockedFraction + PERCOLATED_FRACTION ? PercolationSimulation.PERCOLATED
+              : PercolationSimulation.OPEN);
+    }
+    return states;
+  }
+
+  private static PercolationSimulation makeSimulation(int rows, int cols, String shape,
+      Neighborhood<?> neighborhood, List<Integer> states) {
+    return new PercolationSimulation(rows, cols, neighborhood, new ArrayList<>(states),
+        new SimulationRecord(Map.of("percolatedNeighbors", 1.0), "Normal", shape, SEED));
+  }
+
+  private static String describe(int rows, int cols, String shape, Neighborhood<?> neighborhood,
+      double blockedFraction) {
+    return String.format("%dx%d %s grid, %s, %.2f blocked", rows, cols, shape,
+        neighborhood.getClass().getSimpleName(), blockedFraction);
+  }
+}
@@ -0,0 +1,124 @@
+package cellsociety.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javafx.scene.chart.XYChart;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the points of a decimated series against every count added to it: short series are
+ * plotted exactly, and longer ones only plot real samples, in order, without losing the lowest or
+ * highest count of the steps they cover, and cover at least the retention.
+ */
+class DecimatedSeriesTest {
+
+  private static final int NUM_RUNS = 300;
+  private static final int MAX_CAPACITY = 60;
+  private static final int MAX_RETENTION = 5000;
+  private static final int MAX_LENGTH = 20000;
+  private static final int CHECKS_PER_RUN = 5;
+  private static final long SEED = 5;
+
+  @Test
+  void shortSeriesArePlottedExactly() {
+    DecimatedSeries series = new DecimatedSeries(250, 100000);
+    Random random = new Random(SEED);
+    List<Integer> counts = new ArrayList<>();
+    for (int step = 0; step < 250; step++) {
+      counts.add(random.nextInt(1000));
+      series.add(step, counts.get(step));
+    }
+    List<XYChart.Data<Number, Number>> points = series.getPoints();
+    assertEquals(counts.size(), points.size());
+    for (int step = 0; step < counts.size(); step++) {
+      assertEquals(step, points.get(step).getXValue().longValue());
+      assertEquals(counts.get(step), points.get(step).getYValue().intValue());
+    }
+  }
+
+  @Test
+  void longSeriesKeepRealSamplesAndExtremes() {
+    Random random = new Random(SEED);
+    for (int run = 0; run < NUM_RUNS; run++) {
+      int capacity = 2 + random.nextInt(MAX_CAPACITY);
+      long retention = 1 + random.nextInt(MAX_RETENTION);
+      int length = 1 + random.nextInt(MAX_LENGTH);
+      DecimatedSeries series = new DecimatedSeries(capacity, retention);
+      Map<Long, Integer> samples = new HashMap<>();
+      List<Long> steps = new ArrayList<>();
+      long step = random.nextInt(10);
+      int count = random.nextInt(1000);
+      for (int i = 0; i < length; i++) {
+        step += random.nextInt(20) == 0 ? 1 + random.nextInt(500) : 1;
+        count = random.nextInt(100) == 0 ? random.nextInt(100000)
+            : Math.max(0, count + random.nextInt(21) - 10);
+        series.add(step, count);
+        samples.put(step, count);
+        steps.add(step);
+        if (random.nextInt(length) < CHECKS_PER_RUN || i == length - 1) {
+          String where = String.format("run %d (capacity %d, retention %d), step %d", run,
+              capacity, retention, step);
+          checkPoints(series.getPoints(), samples, steps, capacity, retention, where);
+        }
+      }
+    }
+  }
+
+  @Test
+  void clearedSeriesStartOver() {
+    DecimatedSeries series = new DecimatedSeries(4, 1000);
+    for (int step = 0; step < 500; step++) {
+      series.add(step, step);
+    }
+    series.clear();
+    assertTrue(series.getPoints().isEmpty());
+    for (int step = 0; step < 4; step++) {
+      series.add(step, 10 * step);
+    }
+    List<XYChart.Data<Number, Number>> points = series.getPoints();
+    assertEquals(4, points.size());
+    for (int step = 0; step < 4; step++) {
+      assertEquals(step, points.get(step).getXValue().longValue());
+      assertEquals(10 * step, points.get(step).getYValue().intValue());
+    }
+  }
+
+  private void checkPoints(List<XYChart.Data<Number, Number>> points, Map<Long, Integer> samples,
+      List<Long> steps, int capacity, long retention, String where) {
+    long last = steps.get(steps.size() - 1);
+    assertTrue(points.size() <= 4 * capacity, where);
+    assertEquals(last, points.get(points.size() - 1).getXValue().longValue(), where);
+    long previous = Long.MIN_VALUE;
+    int plottedMin = Integer.MAX_VALUE;
+    int plottedMax = Integer.MIN_VALUE;
+    for (XYChart.Data<Number, Number> point : points) {
+      long step = point.getXValue().longValue();
+      int count = point.getYValue().intValue();
+      assertTrue(step > previous, where + ": points out of order at " + step);
+      assertEquals(samples.get(step), count, where + ": point at " + step);
+      previous = step;
+      plottedMin = Math.min(plottedMin, count);
+      plottedMax = Math.max(plottedMax, count);
+    }
+    long firstPlotted = points.get(0).getXValue().longValue();
+    int coveredMin = Integer.MAX_VALUE;
+    int coveredMax = Integer.MIN_VALUE;
+    for (long step : steps) {
+      if (step > last - retention) {
+        assertTrue(step >= firstPlotted, where + ": step " + step + " was dropped");
+      }
+      if (step >= firstPlotted) {
+        coveredMin = Math.min(coveredMin, samples.get(step));
+        coveredMax = Math.max(coveredMax, samples.get(step));
+      }
+    }
+    assertEquals(coveredMin, plottedMin, where + ": lowest count");
+    assertEquals(coveredMax, plottedMax, where + ": highest count");
+  }
+}